@@ -0,0 +1,72 @@
+package com.test.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.test.aop.logging.LoggingAspect;
+import com.test.config.ApplicationProperties;
+import com.test.domain.User;
+import com.test.service.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Benchmark of the overhead of the {@link LoggingAspect} on a cheap service method, {@link UserMapper#userFromId}.
+ * <ul>
+ * <li>{@code off}: tracing disabled, the method is not proxied;</li>
+ * <li>{@code quiet}: proxied, with debug logs and timers off;</li>
+ * <li>{@code timed}: proxied and timed, without debug logs;</li>
+ * <li>{@code sampled}: proxied, timed, and 1% of the invocations logged, to a logger without appender.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    @Param({ "off", "quiet", "timed", "sampled" })
+    private String tracing;
+
+    private UserMapper userMapper;
+
+    private long id;
+
+    @Setup
+    public void setup() {
+        ch.qos.logback.classic.Logger log = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(UserMapper.class);
+        log.setAdditive(false);
+        log.setLevel("sampled".equals(tracing) ? Level.DEBUG : Level.INFO);
+        if ("off".equals(tracing)) {
+            userMapper = new UserMapper();
+            return;
+        }
+        ApplicationProperties.Tracing properties = new ApplicationProperties.Tracing();
+        properties.getSampling().put(UserMapper.class.getPackageName(), 0.01);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserMapper());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(
+            new LoggingAspect(new StandardEnvironment(), properties, "quiet".equals(tracing) ? null : new SimpleMeterRegistry())
+        );
+        userMapper = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public User userFromId() {
+        return userMapper.userFromId(++id);
+    }
+}
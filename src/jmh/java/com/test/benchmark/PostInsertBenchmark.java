@@ -0,0 +1,109 @@
+package com.test.benchmark;
+
+import com.test.J2App;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.repository.BlogRepository;
+import com.test.repository.PostRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks of post inserts with each sequence optimizer, from the entities to the database.
+ * <p>
+ * With {@code none}, each id costs a round-trip to the post sequence; {@code pooled-lo} takes a block of ids per
+ * round-trip, under a lock; {@code pooled-lotl} takes a block per thread, without lock. The application runs without
+ * web server on the test configuration, with JDBC batching as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PostInsertBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({ "none", "pooled-lo", "pooled-lotl" })
+    private String optimizer;
+
+    private ConfigurableApplicationContext context;
+
+    private PostRepository postRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Blog blog;
+
+    @Setup
+    public void setup() {
+        context =
+            new SpringApplicationBuilder(J2App.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                    "--logging.level.ROOT=WARN",
+                    "--spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=" + optimizer,
+                    "--spring.jpa.properties.hibernate.jdbc.batch_size=25",
+                    "--spring.jpa.properties.hibernate.order_inserts=true"
+                );
+        postRepository = context.getBean(PostRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        blog = context.getBean(BlogRepository.class).save(new Blog().name("Blog").handle("blog"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Insert a batch of posts in one transaction, as the bulk import does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Post> insertBatch() {
+        return transactionTemplate.execute(status -> {
+            List<Post> posts = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                posts.add(newPost());
+            }
+            return postRepository.saveAll(posts);
+        });
+    }
+
+    /**
+     * Insert one post per transaction from concurrent threads, as {@code POST /api/posts} does.
+     */
+    @Benchmark
+    @Threads(8)
+    public Post insertConcurrently() {
+        return transactionTemplate.execute(status -> postRepository.save(newPost()));
+    }
+
+    private Post newPost() {
+        return new Post().title("Post").content("Content").date(Instant.now()).blog(blog);
+    }
+}
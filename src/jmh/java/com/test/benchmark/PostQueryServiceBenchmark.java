@@ -0,0 +1,155 @@
+package com.test.benchmark;
+
+import com.test.J2App;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.repository.BlogRepository;
+import com.test.repository.PostRepository;
+import com.test.repository.TagRepository;
+import com.test.service.PostQueryService;
+import com.test.service.criteria.PostCriteria;
+import com.test.service.dto.PostCursor;
+import com.test.service.dto.PostSummaryDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks of the criteria queries of {@code GET /api/posts}, from the criteria to the entities.
+ * <p>
+ * The application runs without web server on the test configuration (in-memory H2, or PostgreSQL with the
+ * {@code testcontainers} profile), seeded with {@value #BLOG_COUNT} blogs, {@value #TAG_COUNT} tags and
+ * {@value #POST_COUNT} posts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PostQueryServiceBenchmark {
+
+    private static final int BLOG_COUNT = 100;
+
+    private static final int TAG_COUNT = 200;
+
+    private static final int POST_COUNT = 20_000;
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "date"));
+
+    private ConfigurableApplicationContext context;
+
+    private PostQueryService postQueryService;
+
+    private PostCriteria byTitle;
+
+    private PostCriteria byBlog;
+
+    private PostCriteria byTag;
+
+    @Setup
+    public void setup() {
+        context =
+            new SpringApplicationBuilder(J2App.class).web(WebApplicationType.NONE).logStartupInfo(false).run("--logging.level.ROOT=WARN");
+        postQueryService = context.getBean(PostQueryService.class);
+        List<Blog> blogs = new ArrayList<>();
+        List<Tag> tags = new ArrayList<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < BLOG_COUNT; i++) {
+                blogs.add(new Blog().name("Blog " + i).handle("blog-" + i));
+            }
+            context.getBean(BlogRepository.class).saveAll(blogs);
+            for (int i = 0; i < TAG_COUNT; i++) {
+                tags.add(new Tag().name("tag-" + i));
+            }
+            context.getBean(TagRepository.class).saveAll(tags);
+        });
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        Instant firstDate = Instant.parse("2021-01-01T00:00:00Z");
+        for (int chunk = 0; chunk < POST_COUNT; chunk += CHUNK_SIZE) {
+            int start = chunk;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Post> posts = new ArrayList<>(CHUNK_SIZE);
+                for (int i = start; i < start + CHUNK_SIZE; i++) {
+                    posts.add(
+                        new Post()
+                            .title("Post " + i)
+                            .content("Content of post " + i)
+                            .date(firstDate.plusSeconds(i * 60L))
+                            .blog(blogs.get(i % BLOG_COUNT))
+                            .addTag(tags.get(i % TAG_COUNT))
+                    );
+                }
+                postRepository.saveAll(posts);
+            });
+        }
+
+        byTitle = new PostCriteria();
+        byTitle.title().setContains("st 1234");
+        byBlog = new PostCriteria();
+        byBlog.blogId().setEquals(blogs.get(BLOG_COUNT / 2).getId());
+        byTag = new PostCriteria();
+        byTag.tagId().setEquals(tags.get(TAG_COUNT / 2).getId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Post> findByTitle() {
+        return postQueryService.findByCriteria(byTitle, PAGE);
+    }
+
+    @Benchmark
+    public Page<Post> findByBlog() {
+        return postQueryService.findByCriteria(byBlog, PAGE);
+    }
+
+    @Benchmark
+    public Page<Post> findByTag() {
+        return postQueryService.findByCriteria(byTag, PAGE);
+    }
+
+    @Benchmark
+    public Page<PostSummaryDTO> findSummariesByBlog() {
+        return postQueryService.findSummariesByCriteria(byBlog, PAGE, 100);
+    }
+
+    @Benchmark
+    public Slice<PostSummaryDTO> findSummariesByBlogWithCursor() {
+        return postQueryService.findSummariesByCriteria(byBlog, (PostCursor) null, PAGE.getPageSize(), 100);
+    }
+
+    @Benchmark
+    public long countByBlog() {
+        return postQueryService.countByCriteria(byBlog);
+    }
+}
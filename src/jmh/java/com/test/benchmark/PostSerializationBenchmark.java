@@ -0,0 +1,92 @@
+package com.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.service.dto.PostSummaryDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the JSON serialization of a page of posts, as entities and as summaries.
+ * The {@link ObjectMapper} is configured with the modules of {@code JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    @Param({ "1000" })
+    private int contentLength;
+
+    private ObjectMapper objectMapper;
+
+    private List<Post> posts;
+
+    private List<PostSummaryDTO> summaries;
+
+    @Setup
+    public void setup() {
+        objectMapper =
+            new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jdk8Module())
+                .registerModule(new Hibernate5Module())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Blog blog = new Blog().name("Benchmark blog").handle("benchmark");
+        blog.setId(1L);
+        List<Tag> tags = new ArrayList<>();
+        for (long i = 0; i < 3; i++) {
+            Tag tag = new Tag().name("tag-" + i);
+            tag.setId(i);
+            tags.add(tag);
+        }
+        String content = "x".repeat(contentLength);
+        Instant date = Instant.parse("2021-01-01T00:00:00Z");
+        posts = new ArrayList<>(pageSize);
+        summaries = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            Post post = new Post().title("Post " + i).content(content).date(date.plusSeconds(i)).blog(blog);
+            post.setId(i);
+            tags.forEach(post::addTag);
+            posts.add(post);
+            PostSummaryDTO summary = new PostSummaryDTO(post.getId(), post.getTitle(), post.getDate(), blog.getId(), blog.getName());
+            tags.forEach(tag -> summary.getTags().add(new PostSummaryDTO.TagSummary(tag.getId(), tag.getName())));
+            summaries.add(summary);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePosts() throws Exception {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -1,12 +1,25 @@
 package com.test.aop.logging;
 
-import java.util.Arrays;
+import com.test.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.Entity;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
@@ -15,16 +28,52 @@ import tech.jhipster.config.JHipsterConstants;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
- *
- * By default, it only runs with the "dev" profile.
+ * <p>
+ * It only runs when {@code application.tracing.enabled} is set, as with the "dev" profile. The logger, the sampling
+ * rate and the timer of each method are looked up once: an invocation which is neither logged nor timed only costs a
+ * map lookup. The logged arguments and results are truncated, and those whose parameter name is redacted are hidden.
  */
 @Aspect
 public class LoggingAspect {
 
+    private static final String REDACTED = "[redacted]";
+
+    /**
+     * The entity type of a class, {@code null} if the class is not an entity: a Hibernate proxy is a subclass of its
+     * entity.
+     */
+    private static final ClassValue<EntityType> ENTITY_TYPES = new ClassValue<>() {
+        @Override
+        protected EntityType computeValue(Class<?> type) {
+            for (Class<?> entityClass = type; entityClass != null; entityClass = entityClass.getSuperclass()) {
+                if (entityClass.isAnnotationPresent(Entity.class)) {
+                    return new EntityType(entityClass);
+                }
+            }
+            return null;
+        }
+    };
+
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final ApplicationProperties.Tracing properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> redactedArguments;
+
+    private final Map<Method, TracedMethod> tracedMethods = new ConcurrentHashMap<>();
+
+    /**
+     * @param env the environment, for the profiles.
+     * @param properties the tracing properties.
+     * @param meterRegistry the registry of the method timers, {@code null} to time no method.
+     */
+    public LoggingAspect(Environment env, ApplicationProperties.Tracing properties, MeterRegistry meterRegistry) {
         this.env = env;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.redactedArguments = properties.getRedactedArguments().stream().map(String::toLowerCase).collect(Collectors.toSet());
     }
 
     /**
@@ -48,13 +97,14 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the {@link TracedMethod} of the given {@link JoinPoint}, with its {@link Logger}.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point we want the traced method for.
+     * @return {@link TracedMethod} associated to the given {@link JoinPoint}.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    private TracedMethod tracedMethod(JoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        return tracedMethods.computeIfAbsent(signature.getMethod(), method -> new TracedMethod(signature));
     }
 
     /**
@@ -65,27 +115,26 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
+        Logger log = tracedMethod(joinPoint).log;
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = '{}' and exception = '{}'",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL",
-                    e.getMessage(),
-                    e
-                );
+            log.error(
+                "Exception in {}() with cause = '{}' and exception = '{}'",
+                joinPoint.getSignature().getName(),
+                e.getCause() != null ? e.getCause() : "NULL",
+                e.getMessage(),
+                e
+            );
         } else {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = {}",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL"
-                );
+            log.error(
+                "Exception in {}() with cause = {}",
+                joinPoint.getSignature().getName(),
+                e.getCause() != null ? e.getCause() : "NULL"
+            );
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and times it.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -93,19 +142,181 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        TracedMethod method = tracedMethod(joinPoint);
+        boolean logged = method.log.isDebugEnabled() && method.isSampled();
+        if (!logged && method.timer == null) {
+            return joinPoint.proceed();
+        }
+        if (logged) {
+            method.log.debug("Enter: {}() with argument[s] = {}", method.name, formatArguments(method, joinPoint.getArgs()));
         }
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            if (method.timer != null) {
+                method.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (logged) {
+                method.log.debug("Exit: {}() with result = {}", method.name, format(result));
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            if (method.log.isErrorEnabled()) {
+                method.log.error("Illegal argument: {} in {}()", formatArguments(method, joinPoint.getArgs()), method.name);
+            }
+            recordFailure(method, start, e);
             throw e;
+        } catch (Throwable e) {
+            recordFailure(method, start, e);
+            throw e;
+        }
+    }
+
+    private void recordFailure(TracedMethod method, long start, Throwable e) {
+        if (method.timer != null) {
+            Timer timer = methodTimer(method.className, method.name, e.getClass().getSimpleName());
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer methodTimer(String className, String methodName, String exception) {
+        return Timer
+            .builder("method.timed")
+            .description("Execution time of the repository, service and REST controller methods")
+            .tags("class", className, "method", methodName, "exception", exception)
+            .register(meterRegistry);
+    }
+
+    private String formatArguments(TracedMethod method, Object[] args) {
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            formatted.append(method.isRedacted(i) ? REDACTED : format(args[i]));
+        }
+        return formatted.append(']').toString();
+    }
+
+    /**
+     * Format a value without calling the {@code toString()} of collections, arrays and entities, and truncate it: an
+     * entity can be large, as a post and its content, so only its class and id are formatted.
+     */
+    private String format(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        EntityType entityType = ENTITY_TYPES.get(value.getClass());
+        if (entityType != null) {
+            return entityType.format(value);
+        }
+        if (value instanceof Collection) {
+            return value.getClass().getSimpleName() + "[size=" + ((Collection<?>) value).size() + "]";
+        }
+        if (value instanceof Map) {
+            return value.getClass().getSimpleName() + "[size=" + ((Map<?, ?>) value).size() + "]";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        CharSequence formatted = value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+        int maxLength = properties.getMaxArgumentLength();
+        if (formatted.length() <= maxLength) {
+            return formatted.toString();
+        }
+        return formatted.subSequence(0, maxLength) + "...(" + formatted.length() + " chars)";
+    }
+
+    /**
+     * An entity class, with its id getter.
+     */
+    private static final class EntityType {
+
+        private final String name;
+
+        /**
+         * The getter of the id, {@code null} if the entity has none.
+         */
+        private final Method getId;
+
+        private EntityType(Class<?> entityClass) {
+            this.name = entityClass.getSimpleName();
+            Method method;
+            try {
+                method = entityClass.getMethod("getId");
+            } catch (NoSuchMethodException e) {
+                method = null;
+            }
+            this.getId = method;
+        }
+
+        private String format(Object entity) {
+            if (getId == null) {
+                return name;
+            }
+            try {
+                return name + "[id=" + getId.invoke(entity) + "]";
+            } catch (ReflectiveOperationException e) {
+                return name;
+            }
+        }
+    }
+
+    /**
+     * A method, with what its invocations need to be traced.
+     */
+    private final class TracedMethod {
+
+        private final Logger log;
+
+        private final String className;
+
+        private final String name;
+
+        private final double samplingRate;
+
+        private final boolean[] redacted;
+
+        /**
+         * The timer of the successful invocations, {@code null} if the methods are not timed.
+         */
+        private final Timer timer;
+
+        private TracedMethod(MethodSignature signature) {
+            String declaringTypeName = signature.getDeclaringTypeName();
+            this.log = LoggerFactory.getLogger(declaringTypeName);
+            this.className = signature.getDeclaringType().getSimpleName();
+            this.name = signature.getName();
+            this.samplingRate = samplingRate(declaringTypeName);
+            String[] parameterNames = signature.getParameterNames();
+            this.redacted = new boolean[parameterNames == null ? 0 : parameterNames.length];
+            for (int i = 0; i < redacted.length; i++) {
+                redacted[i] = redactedArguments.contains(parameterNames[i].toLowerCase());
+            }
+            this.timer = meterRegistry == null ? null : methodTimer(className, name, "none");
+        }
+
+        private boolean isSampled() {
+            return samplingRate >= 1 || (samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < samplingRate);
+        }
+
+        private boolean isRedacted(int index) {
+            return index < redacted.length && redacted[index];
+        }
+
+        /**
+         * @return the sampling rate of the longest package prefix of the type, 1 if none.
+         */
+        private double samplingRate(String typeName) {
+            String prefix = "";
+            double rate = 1;
+            for (Map.Entry<String, Double> sampling : properties.getSampling().entrySet()) {
+                if (typeName.startsWith(sampling.getKey()) && sampling.getKey().length() > prefix.length()) {
+                    prefix = sampling.getKey();
+                    rate = sampling.getValue();
+                }
+            }
+            return rate;
         }
     }
 }
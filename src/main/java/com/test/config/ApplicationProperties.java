@@ -1,5 +1,9 @@
 package com.test.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +13,811 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final Export export = new Export();
+
+    private final Search search = new Search();
+
+    private final ETag etag = new ETag();
+
+    private final Count count = new Count();
+
+    private final Datasource datasource = new Datasource();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Feed feed = new Feed();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics();
+
+    private final Tracing tracing = new Tracing();
+
+    private final MailQueue mailQueue = new MailQueue();
+
+    private final Maintenance maintenance = new Maintenance();
+
+    private final Scheduler scheduler = new Scheduler();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public ETag getEtag() {
+        return etag;
+    }
+
+    public Count getCount() {
+        return count;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Feed getFeed() {
+        return feed;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public MailQueue getMailQueue() {
+        return mailQueue;
+    }
+
+    public Maintenance getMaintenance() {
+        return maintenance;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public static class Cache {
+
+        /**
+         * Settings used by every region that has no entry in {@link #regions}.
+         */
+        private final Region defaults = new Region();
+
+        /**
+         * Per-region settings, keyed by Hibernate region name (the entity or collection role name).
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public Region getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Region getRegion(String name) {
+            return regions.getOrDefault(name, defaults);
+        }
+
+        public static class Region {
+
+            private int timeToLiveSeconds = 3600;
+
+            private long maxEntries = 100;
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final AuthenticationCache authenticationCache = new AuthenticationCache();
+
+        public AuthenticationCache getAuthenticationCache() {
+            return authenticationCache;
+        }
+
+        public static class AuthenticationCache {
+
+            /**
+             * Maximum number of JWT tokens whose authentication is kept, see {@code TokenProvider}.
+             */
+            private long maxEntries = 10000;
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class BulkImport {
+
+        /**
+         * Number of lines persisted per transaction. Should be a multiple of {@code hibernate.jdbc.batch_size}.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of line errors returned in an import report.
+         */
+        private int maxReportedErrors = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * JDBC fetch size of export queries, and number of rows after which the persistence context is cleared.
+         */
+        private int fetchSize = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Directory of the full-text index; when empty, the index is kept in memory and rebuilt at startup.
+         */
+        private String indexPath;
+
+        /**
+         * Number of posts loaded per query when the index is rebuilt from the database.
+         */
+        private int reindexBatchSize = 500;
+
+        public String getIndexPath() {
+            return indexPath;
+        }
+
+        public void setIndexPath(String indexPath) {
+            this.indexPath = indexPath;
+        }
+
+        public int getReindexBatchSize() {
+            return reindexBatchSize;
+        }
+
+        public void setReindexBatchSize(int reindexBatchSize) {
+            this.reindexBatchSize = reindexBatchSize;
+        }
+    }
+
+    public static class ETag {
+
+        /**
+         * Maximum number of entity ETags kept in memory, to answer conditional requests without querying the database.
+         */
+        private long maxEntries = 10000;
+
+        /**
+         * Bounds how long a change made by another instance can go unnoticed.
+         */
+        private long timeToLiveSeconds = 60;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class Count {
+
+        /**
+         * Maximum number of criteria whose count is cached, for {@code count=cached} requests.
+         */
+        private long maxEntries = 1000;
+
+        /**
+         * Bounds how long a count can miss the writes of another instance.
+         */
+        private long timeToLiveSeconds = 30;
+
+        /**
+         * Below this many rows, an estimated count is computed exactly, as the count is cheap and the estimate
+         * relatively less accurate.
+         */
+        private long estimateThreshold = 100000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getEstimateThreshold() {
+            return estimateThreshold;
+        }
+
+        public void setEstimateThreshold(long estimateThreshold) {
+            this.estimateThreshold = estimateThreshold;
+        }
+    }
+
+    public static class Datasource {
+
+        /**
+         * Read replicas of {@code spring.datasource}, for the read-only transactions. Their pools have the settings
+         * of {@code spring.datasource.hikari}.
+         */
+        private List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * How long the read-only transactions of a user use the primary database after they commit a write, to read
+         * their own writes despite the replication lag; 0 to disable.
+         */
+        private long readYourWritesSeconds = 5;
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public long getReadYourWritesSeconds() {
+            return readYourWritesSeconds;
+        }
+
+        public void setReadYourWritesSeconds(long readYourWritesSeconds) {
+            this.readYourWritesSeconds = readYourWritesSeconds;
+        }
+
+        public static class Replica {
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
+    }
+
+    public static class Outbox {
+
+        /**
+         * Maximum number of events delivered to a subscriber at once.
+         */
+        private int batchSize = 100;
+
+        /**
+         * How long a gap in the event ids holds back the delivery, waiting for the transaction holding the missing
+         * ids to commit: it must exceed the longest write transaction.
+         */
+        private long gapTimeoutSeconds = 30;
+
+        /**
+         * How long the delivered events are kept, to be replayed.
+         */
+        private long retentionDays = 7;
+
+        /**
+         * The {@code OutboxBroker} to publish the events to: {@code none}, or {@code local} for a stand-in which logs them.
+         */
+        private String broker = "none";
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getGapTimeoutSeconds() {
+            return gapTimeoutSeconds;
+        }
+
+        public void setGapTimeoutSeconds(long gapTimeoutSeconds) {
+            this.gapTimeoutSeconds = gapTimeoutSeconds;
+        }
+
+        public long getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(long retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public String getBroker() {
+            return broker;
+        }
+
+        public void setBroker(String broker) {
+            this.broker = broker;
+        }
+    }
+
+    public static class Feed {
+
+        /**
+         * Number of latest posts in the feed of a blog.
+         */
+        private int entries = 20;
+
+        /**
+         * Maximum size of the gzipped feeds kept in memory.
+         */
+        private long maxSizeMegabytes = 64;
+
+        /**
+         * Bounds how long a change made by another instance can go unnoticed.
+         */
+        private long timeToLiveSeconds = 300;
+
+        /**
+         * How long a handle without a blog is remembered, so that polling it does not query the database.
+         */
+        private long notFoundTimeToLiveSeconds = 60;
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public void setEntries(int entries) {
+            this.entries = entries;
+        }
+
+        public long getMaxSizeMegabytes() {
+            return maxSizeMegabytes;
+        }
+
+        public void setMaxSizeMegabytes(long maxSizeMegabytes) {
+            this.maxSizeMegabytes = maxSizeMegabytes;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getNotFoundTimeToLiveSeconds() {
+            return notFoundTimeToLiveSeconds;
+        }
+
+        public void setNotFoundTimeToLiveSeconds(long notFoundTimeToLiveSeconds) {
+            this.notFoundTimeToLiveSeconds = notFoundTimeToLiveSeconds;
+        }
+    }
+
+    public static class QueryMetrics {
+
+        /**
+         * Whether the statements that Hibernate executes are measured.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Execution time from which a statement is logged.
+         */
+        private long slowStatementThresholdMs = 1000;
+
+        /**
+         * Number of executions of a statement of the same shape from which a request is reported as an N+1 select.
+         */
+        private int repeatedStatementThreshold = 10;
+
+        /**
+         * Maximum number of query shapes with metrics: the statements of other shapes are not measured.
+         */
+        private int maxQueryShapes = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSlowStatementThresholdMs() {
+            return slowStatementThresholdMs;
+        }
+
+        public void setSlowStatementThresholdMs(long slowStatementThresholdMs) {
+            this.slowStatementThresholdMs = slowStatementThresholdMs;
+        }
+
+        public int getRepeatedStatementThreshold() {
+            return repeatedStatementThreshold;
+        }
+
+        public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+            this.repeatedStatementThreshold = repeatedStatementThreshold;
+        }
+
+        public int getMaxQueryShapes() {
+            return maxQueryShapes;
+        }
+
+        public void setMaxQueryShapes(int maxQueryShapes) {
+            this.maxQueryShapes = maxQueryShapes;
+        }
+    }
+
+    public static class Tracing {
+
+        /**
+         * Whether the repository, service and REST controller methods are logged at debug level and timed, by the
+         * {@code LoggingAspect}: when disabled, the methods are not proxied for it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Whether the methods are timed, as {@code method.timed}.
+         */
+        private boolean metricsEnabled = true;
+
+        /**
+         * Maximum length of a logged argument or result.
+         */
+        private int maxArgumentLength = 100;
+
+        /**
+         * Names of the parameters whose arguments are not logged.
+         */
+        private List<String> redactedArguments = new ArrayList<>(List.of("password", "currentPassword", "newPassword", "key", "token"));
+
+        /**
+         * Share of the invocations logged, by package or class name prefix: the longest prefix applies, 1 by default.
+         */
+        private final Map<String, Double> sampling = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isMetricsEnabled() {
+            return metricsEnabled;
+        }
+
+        public void setMetricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+        }
+
+        public int getMaxArgumentLength() {
+            return maxArgumentLength;
+        }
+
+        public void setMaxArgumentLength(int maxArgumentLength) {
+            this.maxArgumentLength = maxArgumentLength;
+        }
+
+        public List<String> getRedactedArguments() {
+            return redactedArguments;
+        }
+
+        public void setRedactedArguments(List<String> redactedArguments) {
+            this.redactedArguments = redactedArguments;
+        }
+
+        public Map<String, Double> getSampling() {
+            return sampling;
+        }
+    }
+
+    public static class MailQueue {
+
+        /**
+         * Whether this instance of the application sends the queued emails.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of threads sending emails, each over its own SMTP connection.
+         */
+        private int workers = 2;
+
+        /**
+         * Maximum number of emails sent over an SMTP connection at once.
+         */
+        private int batchSize = 50;
+
+        /**
+         * How long a worker holds the emails it claimed: they are claimed again past it, if the worker did not finish.
+         * It must exceed the sending of a batch.
+         */
+        private long claimSeconds = 300;
+
+        /**
+         * Number of attempts to send an email before giving up on it.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt, doubled on each following attempt.
+         */
+        private long initialBackoffSeconds = 30;
+
+        /**
+         * Maximum delay between two attempts.
+         */
+        private long maxBackoffSeconds = 3600;
+
+        /**
+         * How long the emails given up on are kept, to be inspected.
+         */
+        private long retentionDays = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getClaimSeconds() {
+            return claimSeconds;
+        }
+
+        public void setClaimSeconds(long claimSeconds) {
+            this.claimSeconds = claimSeconds;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffSeconds() {
+            return initialBackoffSeconds;
+        }
+
+        public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+            this.initialBackoffSeconds = initialBackoffSeconds;
+        }
+
+        public long getMaxBackoffSeconds() {
+            return maxBackoffSeconds;
+        }
+
+        public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+        }
+
+        public long getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(long retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+
+    public static class Maintenance {
+
+        /**
+         * Number of ids processed by a maintenance job in each transaction.
+         */
+        private int chunkSize = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Scheduler {
+
+        /**
+         * Whether this instance of the application takes part in the election of the scheduler leader.
+         */
+        private boolean leaderElectionEnabled = true;
+
+        /**
+         * How long the leader holds the leadership without renewing it: it renews it every 10 seconds.
+         */
+        private long leaderLeaseSeconds = 30;
+
+        /**
+         * How long a job stays locked if its instance dies while running it.
+         */
+        private long maxLockSeconds = 3600;
+
+        /**
+         * How long a job stays locked after it started, even if it completed: this must exceed the clock skew
+         * between the instances, so that each of them does not run the job once.
+         */
+        private long minLockSeconds = 300;
+
+        /**
+         * How long the job runs are kept.
+         */
+        private long historyRetentionDays = 30;
+
+        /**
+         * Number of shards of the jobs split by key range, by job name: each shard can run on a different instance.
+         */
+        private final Map<String, Integer> shards = new HashMap<>();
+
+        public boolean isLeaderElectionEnabled() {
+            return leaderElectionEnabled;
+        }
+
+        public void setLeaderElectionEnabled(boolean leaderElectionEnabled) {
+            this.leaderElectionEnabled = leaderElectionEnabled;
+        }
+
+        public long getLeaderLeaseSeconds() {
+            return leaderLeaseSeconds;
+        }
+
+        public void setLeaderLeaseSeconds(long leaderLeaseSeconds) {
+            this.leaderLeaseSeconds = leaderLeaseSeconds;
+        }
+
+        public long getMaxLockSeconds() {
+            return maxLockSeconds;
+        }
+
+        public void setMaxLockSeconds(long maxLockSeconds) {
+            this.maxLockSeconds = maxLockSeconds;
+        }
+
+        public long getMinLockSeconds() {
+            return minLockSeconds;
+        }
+
+        public void setMinLockSeconds(long minLockSeconds) {
+            this.minLockSeconds = minLockSeconds;
+        }
+
+        public long getHistoryRetentionDays() {
+            return historyRetentionDays;
+        }
+
+        public void setHistoryRetentionDays(long historyRetentionDays) {
+            this.historyRetentionDays = historyRetentionDays;
+        }
+
+        public Map<String, Integer> getShards() {
+            return shards;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.test.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Second-level cache configuration.
+ * <p>
+ * Hibernate regions are created in the JCache {@link javax.cache.CacheManager} managed by Spring Boot, so the local
+ * provider can be swapped with {@code spring.cache.jcache.provider}. Providers other than Caffeine only get the
+ * time to live from {@link ApplicationProperties.Cache}, and must bound region sizes in their own configuration.
+ * <p>
+ * The regions are also exposed through the Spring cache manager, which makes Spring Boot bind their hit, miss and
+ * eviction statistics to the Micrometer registry.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    public CacheConfiguration(ApplicationProperties applicationProperties) {
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, com.test.domain.Authority.class.getName());
+            createCache(cm, com.test.domain.User.class.getName() + ".authorities");
+            createCache(cm, com.test.domain.Blog.class.getName());
+            createCache(cm, com.test.domain.Tag.class.getName());
+            // jhipster-needle-caffeine-add-entry
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, regionConfiguration(cm, cacheProperties.getRegion(cacheName)));
+        }
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> regionConfiguration(
+        javax.cache.CacheManager cm,
+        ApplicationProperties.Cache.Region region
+    ) {
+        if (!(cm.getCachingProvider() instanceof CaffeineCachingProvider)) {
+            MutableConfiguration<Object, Object> configuration = new MutableConfiguration<>();
+            configuration.setExpiryPolicyFactory(
+                CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, region.getTimeToLiveSeconds()))
+            );
+            configuration.setStatisticsEnabled(true);
+            return configuration;
+        }
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+        caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(region.getTimeToLiveSeconds())));
+        caffeineConfiguration.setStatisticsEnabled(true);
+        return caffeineConfiguration;
+    }
+}
@@ -1,17 +1,24 @@
 package com.test.config;
 
 import com.test.aop.logging.LoggingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
-import tech.jhipster.config.JHipsterConstants;
 
 @Configuration
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    @ConditionalOnProperty("application.tracing.enabled")
+    public LoggingAspect loggingAspect(
+        Environment env,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        ApplicationProperties.Tracing properties = applicationProperties.getTracing();
+        return new LoggingAspect(env, properties, properties.isMetricsEnabled() ? meterRegistry.getIfAvailable() : null);
     }
 }
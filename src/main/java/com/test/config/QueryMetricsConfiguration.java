@@ -0,0 +1,81 @@
+package com.test.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of the {@link QueryMetricsRecorder} of the statements that Hibernate executes, unless
+ * {@code application.query-metrics.enabled} is {@code false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfiguration {
+
+    private static final String METER_PREFIX = "jdbc.";
+
+    @Bean
+    public QueryMetricsRecorder queryMetricsRecorder(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new QueryMetricsRecorder(meterRegistry, applicationProperties.getQueryMetrics());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMetricsHibernatePropertiesCustomizer(
+        DataSource dataSource,
+        QueryMetricsRecorder queryMetricsRecorder
+    ) {
+        return properties ->
+            properties.put(AvailableSettings.CONNECTION_PROVIDER, new QueryMetricsConnectionProvider(dataSource, queryMetricsRecorder));
+    }
+
+    @Bean
+    public WebMvcConfigurer queryMetricsWebMvcConfigurer(QueryMetricsRecorder queryMetricsRecorder) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new QueryMetricsInterceptor(queryMetricsRecorder));
+            }
+        };
+    }
+
+    /**
+     * Bounds the number of query shapes, and leaves the histograms out of the meters of each shape, which would
+     * multiply the time series.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public MeterFilter queryMetricsMeterFilter(ApplicationProperties applicationProperties) {
+        MeterFilter maximumShapes = MeterFilter.maximumAllowableTags(
+            METER_PREFIX,
+            "query",
+            applicationProperties.getQueryMetrics().getMaxQueryShapes(),
+            MeterFilter.deny()
+        );
+        return new MeterFilter() {
+            @Override
+            public MeterFilterReply accept(Meter.Id id) {
+                return maximumShapes.accept(id);
+            }
+
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().startsWith(METER_PREFIX) || id.getTag("query") == null) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder().percentilesHistogram(false).percentiles().build().merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,228 @@
+package com.test.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+/**
+ * A Hibernate {@link ConnectionProvider} handing out the connections of a {@link DataSource} wrapped in proxies that
+ * report the statements to {@link QueryMetricsRecorder}.
+ * <p>
+ * Only the connections of Hibernate are instrumented, and the time to get a connection from the pool is left to the
+ * Hikari metrics.
+ */
+public class QueryMetricsConnectionProvider implements ConnectionProvider {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient DataSource dataSource;
+
+    private final transient QueryMetricsRecorder queryMetricsRecorder;
+
+    public QueryMetricsConnectionProvider(DataSource dataSource, QueryMetricsRecorder queryMetricsRecorder) {
+        this.dataSource = dataSource;
+        this.queryMetricsRecorder = queryMetricsRecorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return unwrapType.isInstance(this) || DataSource.class.isAssignableFrom(unwrapType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return (T) this;
+        }
+        if (DataSource.class.isAssignableFrom(unwrapType)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " as " + unwrapType.getName());
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryMetricsConnectionProvider.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    /**
+     * Forwards the calls to a JDBC object, with the identity of the proxy: Hibernate keeps the statements and result
+     * sets in hash maps.
+     */
+    private abstract static class ForwardingHandler implements InvocationHandler {
+
+        protected final Object target;
+
+        private ForwardingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    return handle(proxy, method, args);
+            }
+        }
+
+        protected abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+
+        protected Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends ForwardingHandler {
+
+        private ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(result, (Connection) proxy, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler(result, (Connection) proxy, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(result, (Connection) proxy, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private final class StatementHandler extends ForwardingHandler {
+
+        private final Connection connection;
+
+        private final String sql;
+
+        private StatementHandler(Object statement, Connection connection, String sql) {
+            super(statement);
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            if ("getResultSet".equals(name)) {
+                return resultSet(proxy, forward(method, args), sql);
+            }
+            if (!name.startsWith("execute")) {
+                return forward(method, args);
+            }
+            // A plain statement has its SQL as argument, a prepared statement has it already
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            long start = System.nanoTime();
+            Object result = forward(method, args);
+            long nanos = System.nanoTime() - start;
+            if (executed == null) {
+                return result;
+            }
+            queryMetricsRecorder.recordExecution(executed, nanos, updatedRows(result));
+            return "executeQuery".equals(name) ? resultSet(proxy, result, executed) : result;
+        }
+
+        private long updatedRows(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            long rows = -1;
+            if (result instanceof int[]) {
+                rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+        private Object resultSet(Object statement, Object resultSet, String executed) {
+            if (resultSet == null || executed == null) {
+                return resultSet;
+            }
+            return proxy(ResultSet.class, new ResultSetHandler((ResultSet) resultSet, (Statement) statement, executed));
+        }
+    }
+
+    private final class ResultSetHandler extends ForwardingHandler {
+
+        private final Statement statement;
+
+        private final String sql;
+
+        private long rows;
+
+        private boolean closed;
+
+        private ResultSetHandler(ResultSet resultSet, Statement statement, String sql) {
+            super(resultSet);
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getStatement":
+                    return statement;
+                case "next":
+                    Object next = forward(method, args);
+                    if (Boolean.TRUE.equals(next)) {
+                        rows++;
+                    }
+                    return next;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        queryMetricsRecorder.recordRead(sql, rows);
+                    }
+                    return forward(method, args);
+                default:
+                    return forward(method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.test.config;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Sets the endpoint of the SQL statements of {@link QueryMetricsRecorder} to the handler of the request, as
+ * {@code PostResource.getAllPosts}.
+ */
+public class QueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final QueryMetricsRecorder queryMetricsRecorder;
+
+    public QueryMetricsInterceptor(QueryMetricsRecorder queryMetricsRecorder) {
+        this.queryMetricsRecorder = queryMetricsRecorder;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            queryMetricsRecorder.startRequest(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The response is written by another thread, whose statements are not counted with those of the request
+        queryMetricsRecorder.endRequest();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        queryMetricsRecorder.endRequest();
+    }
+}
@@ -0,0 +1,167 @@
+package com.test.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metrics of the SQL statements that Hibernate executes, by query shape and by REST endpoint.
+ * <p>
+ * The shape of a statement is its SQL, which has no literal values, with the whitespace and the padded {@code in}
+ * lists collapsed. The endpoint of the current request is set by {@link QueryMetricsInterceptor}; the statements
+ * executed outside of a request, by the scheduled jobs for instance, have the {@value #NO_ENDPOINT} endpoint.
+ * <ul>
+ * <li>{@code jdbc.statements}: the execution times of the statements, by shape;</li>
+ * <li>{@code jdbc.statements.rows}: the rows that they read or updated, by shape;</li>
+ * <li>{@code jdbc.requests.statements}: the number of statements per request, by endpoint;</li>
+ * <li>{@code jdbc.requests.repeated}: the requests that executed a statement of the same shape more than
+ * {@code application.query-metrics.repeated-statement-threshold} times, the mark of an N+1 selects problem.</li>
+ * </ul>
+ * Only the {@code jdbc.requests.*} meters are tagged with the endpoint: a statement shape is reached from many
+ * endpoints, and the meters of every pair would multiply the series of the shapes.
+ * <p>
+ * The statements slower than {@code application.query-metrics.slow-statement-threshold-ms} are logged, without their
+ * parameters.
+ */
+public class QueryMetricsRecorder {
+
+    static final String NO_ENDPOINT = "none";
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Logger log = LoggerFactory.getLogger(QueryMetricsRecorder.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowStatementThresholdNanos;
+
+    private final int repeatedStatementThreshold;
+
+    private final Cache<String, String> shapes;
+
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+
+    public QueryMetricsRecorder(MeterRegistry meterRegistry, ApplicationProperties.QueryMetrics properties) {
+        this.meterRegistry = meterRegistry;
+        this.slowStatementThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowStatementThresholdMs());
+        this.repeatedStatementThreshold = properties.getRepeatedStatementThreshold();
+        this.shapes = Caffeine.newBuilder().maximumSize(properties.getMaxQueryShapes()).build();
+    }
+
+    /**
+     * Start counting the statements of a request, on the current thread.
+     *
+     * @param endpoint the endpoint of the request, as {@code Controller.method}.
+     */
+    public void startRequest(String endpoint) {
+        currentRequest.set(new RequestStatements(endpoint));
+    }
+
+    /**
+     * Record the statements of the request on the current thread, if any.
+     */
+    public void endRequest() {
+        RequestStatements request = currentRequest.get();
+        if (request == null) {
+            return;
+        }
+        currentRequest.remove();
+        DistributionSummary
+            .builder("jdbc.requests.statements")
+            .description("Number of SQL statements executed by a request")
+            .tag("endpoint", request.endpoint)
+            .register(meterRegistry)
+            .record(request.statements);
+        request.executionsByShape.forEach((shape, executions) -> {
+            if (executions > repeatedStatementThreshold) {
+                log.warn("{} executed {} times the statement: {}", request.endpoint, executions, shape);
+                Counter
+                    .builder("jdbc.requests.repeated")
+                    .description("Number of requests which executed the same SQL statement too many times, as an N+1 select does")
+                    .tags("endpoint", request.endpoint, "query", shape)
+                    .register(meterRegistry)
+                    .increment();
+            }
+        });
+    }
+
+    /**
+     * Record the execution of a statement.
+     *
+     * @param sql the SQL of the statement.
+     * @param nanos the execution time of the statement.
+     * @param rows the number of rows that the statement updated, negative if it is a query.
+     */
+    void recordExecution(String sql, long nanos, long rows) {
+        String shape = shape(sql);
+        RequestStatements request = currentRequest.get();
+        String endpoint = request == null ? NO_ENDPOINT : request.endpoint;
+        if (request != null) {
+            request.statements++;
+            request.executionsByShape.merge(shape, 1, Integer::sum);
+        }
+        Timer
+            .builder("jdbc.statements")
+            .description("Execution time of the SQL statements")
+            .tag("query", shape)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (rows >= 0) {
+            recordRows(shape, rows);
+        }
+        if (nanos >= slowStatementThresholdNanos) {
+            log.warn("Slow statement in {} ({} ms): {}", endpoint, Duration.ofNanos(nanos).toMillis(), shape);
+        }
+    }
+
+    /**
+     * Record the rows read by a query, once its result set is closed.
+     *
+     * @param sql the SQL of the query.
+     * @param rows the number of rows read.
+     */
+    void recordRead(String sql, long rows) {
+        recordRows(shape(sql), rows);
+    }
+
+    String shape(String sql) {
+        return shapes.get(sql, key -> PARAMETER_LIST.matcher(WHITESPACE.matcher(key.trim()).replaceAll(" ")).replaceAll("(?...)"));
+    }
+
+    private void recordRows(String shape, long rows) {
+        DistributionSummary
+            .builder("jdbc.statements.rows")
+            .description("Number of rows read or updated by the SQL statements")
+            .tag("query", shape)
+            .register(meterRegistry)
+            .record(rows);
+    }
+
+    /**
+     * The statements of a request, which is handled by one thread.
+     */
+    private static final class RequestStatements {
+
+        private final String endpoint;
+
+        private final Map<String, Integer> executionsByShape = new HashMap<>();
+
+        private int statements;
+
+        private RequestStatements(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.test.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Configuration of the read replicas, when {@code application.datasource.replicas} is set: the Hikari pool of
+ * {@code spring.datasource} becomes the primary of a {@link ReadReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty("application.datasource.replicas[0].url")
+public class ReadReplicaConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaConfiguration.class);
+
+    /**
+     * The pool of {@code spring.datasource}, as Spring Boot would create it.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+        HikariDataSource primaryDataSource,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        ApplicationProperties.Datasource properties = applicationProperties.getDatasource();
+        List<DataSource> replicas = new ArrayList<>();
+        for (ApplicationProperties.Datasource.Replica replica : properties.getReplicas()) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                config.setUsername(replica.getUsername());
+                config.setPassword(replica.getPassword());
+            }
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + replicas.size());
+            // A replica that is down at startup is failed over, like one that goes down later
+            config.setInitializationFailTimeout(-1);
+            // Spring Boot only binds the metrics of the pools which are beans, as the primary
+            meterRegistry.ifAvailable(config::setMetricRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        log.debug("Routing read-only transactions to {} read replicas", replicas.size());
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, Duration.ofSeconds(properties.getReadYourWritesSeconds()));
+    }
+
+    /**
+     * The data source of the application, which gets the actual connection once the transaction is flagged read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,176 @@
+package com.test.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.security.SecurityUtils;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A {@link DataSource} sending the connections of read-only transactions to replica pools, and all the other
+ * connections to the primary pool.
+ * <p>
+ * It must be wrapped in a {@link LazyConnectionDataSourceProxy}: the transaction managers get their connection before
+ * the transaction is flagged read-only, and the proxy defers the actual connection to the first statement.
+ * <p>
+ * Replicas are used in turn. A replica whose connection fails is marked down, and read-only transactions use the other
+ * replicas, or the primary, until a health check finds it up again. After a user commits a read-write transaction,
+ * their read-only transactions also use the primary for a while, so that they read their own writes despite the
+ * replication lag.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The logins of the users who committed a write within the read-your-writes window, {@code null} without window.
+     */
+    private final Cache<String, Boolean> pinnedUsers;
+
+    /**
+     * @param primary the primary pool, for writes.
+     * @param replicas the replica pools, closed with this data source.
+     * @param readYourWrites how long the read-only transactions of a user use the primary after they commit a write;
+     * zero to always use the replicas.
+     */
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWrites) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.pinnedUsers = readYourWrites.isZero() ? null : Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinCurrentUserAfterCommit();
+            return primary.getConnection();
+        }
+        if (isCurrentUserPinned()) {
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.up) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.up = false;
+                log.warn("Read replica {} is down, failing over until it recovers: {}", replica.name, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Check the replicas, to fail over from those that went down and back to those that recovered.
+     * <p>
+     * This is scheduled to run every 10 seconds.
+     */
+    @Scheduled(initialDelay = 10_000, fixedDelay = 10_000)
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean up;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                up = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                up = false;
+            }
+            if (up != replica.up) {
+                log.info("Read replica {} is {}", replica.name, up ? "up" : "down");
+            }
+            replica.up = up;
+        }
+    }
+
+    /**
+     * @return the number of replicas which are up.
+     */
+    public int getReplicasUp() {
+        return (int) replicas.stream().filter(replica -> replica.up).count();
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) replica.dataSource).close();
+                } catch (IOException e) {
+                    log.warn("Could not close read replica {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void pinCurrentUserAfterCommit() {
+        if (pinnedUsers == null || !TransactionSynchronizationManager.isSynchronizationActive() || !SecurityUtils.isAuthenticated()) {
+            return;
+        }
+        SecurityUtils
+            .getCurrentUserLogin()
+            .ifPresent(login ->
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            pinnedUsers.put(login, Boolean.TRUE);
+                        }
+                    }
+                )
+            );
+    }
+
+    private boolean isCurrentUserPinned() {
+        if (pinnedUsers == null || !SecurityUtils.isAuthenticated()) {
+            return false;
+        }
+        return SecurityUtils.getCurrentUserLogin().map(login -> pinnedUsers.getIfPresent(login) != null).orElse(false);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean up = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,21 +1,27 @@
 package com.test.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.time.Instant;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Blog.
  */
 @Entity
 @Table(name = "blog")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Blog implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blogSequenceGenerator")
+    @SequenceGenerator(name = "blogSequenceGenerator", sequenceName = "blog_sequence", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -32,6 +38,25 @@ public class Blog implements Serializable {
     @ManyToOne
     private User user;
 
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * The number of posts of this blog, maintained by {@code PostCounterService} and read from {@link BlogCounters}.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Transient
+    private long postCount;
+
+    /**
+     * The date of the most recent post of this blog, read from {@link BlogCounters}.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Transient
+    private Instant lastPostDate;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -47,6 +72,30 @@ public class Blog implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getPostCount() {
+        return this.postCount;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
+    public Instant getLastPostDate() {
+        return this.lastPostDate;
+    }
+
+    public void setLastPostDate(Instant lastPostDate) {
+        this.lastPostDate = lastPostDate;
+    }
+
     public String getName() {
         return this.name;
     }
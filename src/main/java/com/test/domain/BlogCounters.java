@@ -0,0 +1,52 @@
+package com.test.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The post counters of a {@link Blog}, maintained by {@code PostCounterService} with native updates.
+ * <p>
+ * A read-only view of the blog table, which is not in the second-level cache: the counters change without changing the
+ * blog, and a cached copy would be stale on the other instances of the application.
+ */
+@Entity
+@Immutable
+@Table(name = "blog")
+public class BlogCounters implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "post_count", nullable = false)
+    private long postCount;
+
+    @Column(name = "last_post_date")
+    private Instant lastPostDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public Instant getLastPostDate() {
+        return lastPostDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BlogCounters{" +
+            "id=" + getId() +
+            ", postCount=" + getPostCount() +
+            ", lastPostDate='" + getLastPostDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,158 @@
+package com.test.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.*;
+
+/**
+ * The number of posts of a {@link Blog} dated in a month, in UTC, maintained by {@code PostRollupService}.
+ */
+@Entity
+@Table(name = "blog_month_rollup")
+@IdClass(BlogMonthRollup.Key.class)
+public class BlogMonthRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "blog_id")
+    private Long blogId;
+
+    @Id
+    @Column(name = "archive_year")
+    private Integer year;
+
+    @Id
+    @Column(name = "archive_month")
+    private Integer month;
+
+    @Column(name = "post_count", nullable = false)
+    private long postCount;
+
+    public BlogMonthRollup() {
+        // Empty constructor needed for JPA.
+    }
+
+    public BlogMonthRollup(Long blogId, Integer year, Integer month) {
+        this.blogId = blogId;
+        this.year = year;
+        this.month = month;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    /**
+     * @return the month of the year, from 1 (January) to 12 (December).
+     */
+    public Integer getMonth() {
+        return month;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public BlogMonthRollup postCount(long postCount) {
+        this.setPostCount(postCount);
+        return this;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
+    public Key getKey() {
+        return new Key(blogId, year, month);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlogMonthRollup)) {
+            return false;
+        }
+        return blogId != null && getKey().equals(((BlogMonthRollup) o).getKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BlogMonthRollup{" +
+            "blogId=" + getBlogId() +
+            ", year=" + getYear() +
+            ", month=" + getMonth() +
+            ", postCount=" + getPostCount() +
+            "}";
+    }
+
+    /**
+     * The identifier of a {@link BlogMonthRollup}.
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long blogId;
+
+        private Integer year;
+
+        private Integer month;
+
+        public Key() {
+            // Empty constructor needed for JPA.
+        }
+
+        public Key(Long blogId, Integer year, Integer month) {
+            this.blogId = blogId;
+            this.year = year;
+            this.month = month;
+        }
+
+        public Long getBlogId() {
+            return blogId;
+        }
+
+        public Integer getYear() {
+            return year;
+        }
+
+        public Integer getMonth() {
+            return month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(blogId, key.blogId) && Objects.equals(year, key.year) && Objects.equals(month, key.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blogId, year, month);
+        }
+
+        @Override
+        public String toString() {
+            return blogId + ":" + year + "-" + month;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.test.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.*;
+
+/**
+ * The number of posts of a {@link Blog} with a {@link Tag}, maintained by {@code PostRollupService}.
+ */
+@Entity
+@Table(name = "blog_tag_rollup")
+@IdClass(BlogTagRollup.Key.class)
+public class BlogTagRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "blog_id")
+    private Long blogId;
+
+    @Id
+    @Column(name = "tag_id")
+    private Long tagId;
+
+    @Column(name = "post_count", nullable = false)
+    private long postCount;
+
+    public BlogTagRollup() {
+        // Empty constructor needed for JPA.
+    }
+
+    public BlogTagRollup(Long blogId, Long tagId) {
+        this.blogId = blogId;
+        this.tagId = tagId;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public Long getTagId() {
+        return tagId;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public BlogTagRollup postCount(long postCount) {
+        this.setPostCount(postCount);
+        return this;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
+    public Key getKey() {
+        return new Key(blogId, tagId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlogTagRollup)) {
+            return false;
+        }
+        return blogId != null && getKey().equals(((BlogTagRollup) o).getKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BlogTagRollup{" +
+            "blogId=" + getBlogId() +
+            ", tagId=" + getTagId() +
+            ", postCount=" + getPostCount() +
+            "}";
+    }
+
+    /**
+     * The identifier of a {@link BlogTagRollup}.
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long blogId;
+
+        private Long tagId;
+
+        public Key() {
+            // Empty constructor needed for JPA.
+        }
+
+        public Key(Long blogId, Long tagId) {
+            this.blogId = blogId;
+            this.tagId = tagId;
+        }
+
+        public Long getBlogId() {
+            return blogId;
+        }
+
+        public Long getTagId() {
+            return tagId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(blogId, key.blogId) && Objects.equals(tagId, key.tagId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blogId, tagId);
+        }
+
+        @Override
+        public String toString() {
+            return blogId + ":" + tagId;
+        }
+    }
+}
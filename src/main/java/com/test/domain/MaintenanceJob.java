@@ -0,0 +1,79 @@
+package com.test.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * The state of a batched maintenance job: how far its current run went. The instance of the application running the
+ * job holds its {@link SchedulerLease}.
+ */
+@Entity
+@Table(name = "maintenance_job")
+public class MaintenanceJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    /**
+     * The last id processed by the current run, 0 if no run is in progress.
+     */
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "last_completed_date")
+    private Instant lastCompletedDate;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Instant getLastCompletedDate() {
+        return lastCompletedDate;
+    }
+
+    public void setLastCompletedDate(Instant lastCompletedDate) {
+        this.lastCompletedDate = lastCompletedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MaintenanceJob)) {
+            return false;
+        }
+        return name != null && name.equals(((MaintenanceJob) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MaintenanceJob{" +
+            "name='" + getName() + "'" +
+            ", lastId=" + getLastId() +
+            ", lastCompletedDate='" + getLastCompletedDate() + "'" +
+            "}";
+    }
+}
@@ -1,5 +1,6 @@
 package com.test.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.time.Instant;
@@ -19,8 +20,8 @@ public class Post implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "postSequenceGenerator")
+    @SequenceGenerator(name = "postSequenceGenerator", sequenceName = "post_sequence", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -38,14 +39,19 @@ public class Post implements Serializable {
     private Instant date;
 
     @ManyToOne
-    @JsonIgnoreProperties(value = { "user" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "user", "postCount", "lastPostDate" }, allowSetters = true)
     private Blog blog;
 
     @ManyToMany
     @JoinTable(name = "rel_post__tag", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
-    @JsonIgnoreProperties(value = { "entries" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "entries", "postCount" }, allowSetters = true)
     private Set<Tag> tags = new HashSet<>();
 
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -61,6 +67,14 @@ public class Post implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return this.title;
     }
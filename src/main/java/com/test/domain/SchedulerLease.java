@@ -0,0 +1,102 @@
+package com.test.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * A lease held by an instance of the application: the leadership of the scheduler, or the lock of a scheduled job.
+ */
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    /**
+     * The fencing token, incremented on each acquisition of the lease.
+     */
+    @Column(name = "token", nullable = false)
+    private long token;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "acquired_date")
+    private Instant acquiredDate;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public void setToken(long token) {
+        this.token = token;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public Instant getAcquiredDate() {
+        return acquiredDate;
+    }
+
+    public void setAcquiredDate(Instant acquiredDate) {
+        this.acquiredDate = acquiredDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SchedulerLease)) {
+            return false;
+        }
+        return name != null && name.equals(((SchedulerLease) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SchedulerLease{" +
+            "name='" + getName() + "'" +
+            ", owner='" + getOwner() + "'" +
+            ", token=" + getToken() +
+            ", lockedUntil='" + getLockedUntil() + "'" +
+            ", acquiredDate='" + getAcquiredDate() + "'" +
+            "}";
+    }
+}
@@ -1,24 +1,29 @@
 package com.test.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Tag.
  */
 @Entity
 @Table(name = "tag")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Tag implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tagSequenceGenerator")
+    @SequenceGenerator(name = "tagSequenceGenerator", sequenceName = "tag_sequence", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -31,6 +36,18 @@ public class Tag implements Serializable {
     @JsonIgnoreProperties(value = { "blog", "tags" }, allowSetters = true)
     private Set<Post> entries = new HashSet<>();
 
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * The number of posts with this tag, maintained by {@code PostCounterService} and read from {@link TagCounters}.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Transient
+    private long postCount;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -46,6 +63,22 @@ public class Tag implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getPostCount() {
+        return this.postCount;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
     public String getName() {
         return this.name;
     }
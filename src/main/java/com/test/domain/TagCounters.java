@@ -0,0 +1,42 @@
+package com.test.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The post count of a {@link Tag}, maintained by {@code PostCounterService} with native updates.
+ * <p>
+ * A read-only view of the tag table, which is not in the second-level cache, as {@link BlogCounters}.
+ */
+@Entity
+@Immutable
+@Table(name = "tag")
+public class TagCounters implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "post_count", nullable = false)
+    private long postCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TagCounters{" +
+            "id=" + getId() +
+            ", postCount=" + getPostCount() +
+            "}";
+    }
+}
@@ -0,0 +1,10 @@
+package com.test.domain.enumeration;
+
+/**
+ * The MailStatus enumeration.
+ */
+public enum MailStatus {
+    PENDING,
+    SENDING,
+    FAILED,
+}
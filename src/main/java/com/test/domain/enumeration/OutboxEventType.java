@@ -0,0 +1,10 @@
+package com.test.domain.enumeration;
+
+/**
+ * The OutboxEventType enumeration.
+ */
+public enum OutboxEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+}
@@ -0,0 +1,47 @@
+package com.test.repository;
+
+import com.test.domain.BlogMonthRollup;
+import com.test.service.dto.BlogArchiveDTO;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the BlogMonthRollup entity.
+ */
+@Repository
+public interface BlogMonthRollupRepository extends JpaRepository<BlogMonthRollup, BlogMonthRollup.Key> {
+    @Query(
+        "select new com.test.service.dto.BlogArchiveDTO(rollup.year, rollup.month, rollup.postCount) from BlogMonthRollup rollup" +
+        " where rollup.blogId = :blogId and rollup.postCount > 0 order by rollup.year desc, rollup.month desc"
+    )
+    List<BlogArchiveDTO> findArchiveByBlogId(@Param("blogId") Long blogId);
+
+    @Query("select rollup from BlogMonthRollup rollup where rollup.blogId > :fromId and rollup.blogId <= :toId")
+    List<BlogMonthRollup> findAllByBlogIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Count the posts of a range of blogs by month, in UTC as the dates are stored.
+     *
+     * @param fromId the lower bound of the blog ids, excluded.
+     * @param toId the upper bound of the blog ids, included.
+     * @return rows of {@code (blog id, year, month, post count)}.
+     */
+    @Query(
+        "select post.blog.id, year(post.date), month(post.date), count(post) from Post post" +
+        " where post.blog.id > :fromId and post.blog.id <= :toId group by post.blog.id, year(post.date), month(post.date)"
+    )
+    List<Object[]> countPostsByBlogIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update BlogMonthRollup rollup set rollup.postCount = rollup.postCount + :delta" +
+        " where rollup.blogId = :blogId and rollup.year = :year and rollup.month = :month"
+    )
+    int addToPostCount(@Param("blogId") Long blogId, @Param("year") int year, @Param("month") int month, @Param("delta") long delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from BlogMonthRollup rollup where rollup.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+}
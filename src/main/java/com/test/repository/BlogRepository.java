@@ -2,7 +2,10 @@ package com.test.repository;
 
 import com.test.domain.Blog;
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,7 +13,45 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface BlogRepository extends JpaRepository<Blog, Long>, JpaSpecificationExecutor<Blog> {
+public interface BlogRepository
+    extends
+        BlogRepositoryWithSlices,
+        BlogRepositoryWithCounters,
+        BlogRepositoryWithUpdates,
+        JpaRepository<Blog, Long>,
+        JpaSpecificationExecutor<Blog> {
     @Query("select blog from Blog blog where blog.user.login = ?#{principal.username}")
     List<Blog> findByUserIsCurrentUser();
+
+    Optional<Blog> findFirstByHandleOrderByIdAsc(String handle);
+
+    /**
+     * Get the version and the post counters of a blog.
+     *
+     * @param id the id of the blog.
+     * @return a row of {@code (version, post count, last post date)}, empty if the blog does not exist.
+     */
+    @Query(
+        "select blog.version, counters.postCount, counters.lastPostDate from Blog blog, BlogCounters counters" +
+        " where counters.id = blog.id and blog.id = :id"
+    )
+    List<Object[]> findVersionAndCountersById(@Param("id") Long id);
+
+    @Query("select max(blog.id) from Blog blog")
+    Optional<Long> findMaxId();
+
+    /**
+     * Lock a range of blogs: the writes of their posts, which update their post counters, wait for the lock.
+     *
+     * @param fromId the lower bound of the ids, excluded.
+     * @param toId the upper bound of the ids, included.
+     * @return the ids of the locked blogs.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select blog.id from Blog blog where blog.id > :fromId and blog.id <= :toId")
+    List<Long> lockIdsBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select blog.id from Blog blog where blog.id = :id")
+    Optional<Long> lockId(@Param("id") Long id);
 }
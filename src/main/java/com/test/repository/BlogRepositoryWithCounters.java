@@ -0,0 +1,46 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+import com.test.domain.BlogCounters;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Spring Data fragment for updating the post counters of {@link Blog}s without evicting the cached blogs.
+ */
+public interface BlogRepositoryWithCounters {
+    /**
+     * Count new posts of a blog.
+     *
+     * @param id the id of the blog.
+     * @param count the number of new posts.
+     * @param date the date of the most recent new post.
+     * @return the number of updated blogs.
+     */
+    int addPosts(Long id, long count, Instant date);
+
+    /**
+     * Uncount deleted posts of a blog, and recompute its last post date.
+     *
+     * @param id the id of the blog.
+     * @param count the number of deleted posts.
+     * @return the number of updated blogs.
+     */
+    int removePosts(Long id, long count);
+
+    int recomputeLastPostDate(Long id);
+
+    /**
+     * Recompute the post counters of all the blogs from their posts.
+     *
+     * @return the number of updated blogs.
+     */
+    int recomputePostCounters();
+
+    /**
+     * Set the post counters of blogs, read from {@link BlogCounters}: the cached blogs do not have them.
+     *
+     * @param blogs the blogs.
+     */
+    void readCounters(Collection<Blog> blogs);
+}
@@ -0,0 +1,88 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+
+public class BlogRepositoryWithCountersImpl implements BlogRepositoryWithCounters {
+
+    private static final String LAST_POST_DATE = "(select max(post.date) from post where post.blog_id = blog.id)";
+
+    private final EntityManager entityManager;
+
+    public BlogRepositoryWithCountersImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int addPosts(Long id, long count, Instant date) {
+        return CounterUpdates
+            .create(
+                entityManager,
+                "update blog set post_count = post_count + :count, last_post_date = case when last_post_date is null" +
+                " or last_post_date < :date then :date else last_post_date end where id = :id"
+            )
+            .setParameter("id", id)
+            .setParameter("count", count)
+            .setParameter("date", date)
+            .executeUpdate();
+    }
+
+    @Override
+    public int removePosts(Long id, long count) {
+        return CounterUpdates
+            .create(
+                entityManager,
+                "update blog set post_count = post_count - :count, last_post_date = " + LAST_POST_DATE + " where id = :id"
+            )
+            .setParameter("id", id)
+            .setParameter("count", count)
+            .executeUpdate();
+    }
+
+    @Override
+    public int recomputeLastPostDate(Long id) {
+        return CounterUpdates
+            .create(entityManager, "update blog set last_post_date = " + LAST_POST_DATE + " where id = :id")
+            .setParameter("id", id)
+            .executeUpdate();
+    }
+
+    @Override
+    public int recomputePostCounters() {
+        return CounterUpdates
+            .create(
+                entityManager,
+                "update blog set post_count = (select count(*) from post where post.blog_id = blog.id), last_post_date = " + LAST_POST_DATE
+            )
+            .executeUpdate();
+    }
+
+    @Override
+    public void readCounters(Collection<Blog> blogs) {
+        Map<Long, List<Blog>> blogsById = blogs.stream().filter(blog -> blog.getId() != null).collect(Collectors.groupingBy(Blog::getId));
+        if (blogsById.isEmpty()) {
+            return;
+        }
+        // A projection rather than the entities, which the native updates would leave stale in the persistence context
+        entityManager
+            .createQuery(
+                "select counters.id, counters.postCount, counters.lastPostDate from BlogCounters counters where counters.id in :ids",
+                Object[].class
+            )
+            .setParameter("ids", blogsById.keySet())
+            .getResultList()
+            .forEach(row ->
+                blogsById
+                    .get((Long) row[0])
+                    .forEach(blog -> {
+                        blog.setPostCount((Long) row[1]);
+                        blog.setLastPostDate((Instant) row[2]);
+                    })
+            );
+    }
+}
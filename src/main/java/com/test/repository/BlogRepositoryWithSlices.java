@@ -0,0 +1,21 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Spring Data fragment for reading {@link Blog} slices without issuing a count query.
+ */
+public interface BlogRepositoryWithSlices {
+    /**
+     * Return a {@link Slice} of the blogs matching the specification. One extra row is fetched
+     * to find out whether a next slice exists, so no {@code count(*)} query is run.
+     *
+     * @param specification the specification the blogs should match, may be {@code null}.
+     * @param pageable the slice offset, size and sort.
+     * @return the matching blogs.
+     */
+    Slice<Blog> findAllWithoutCount(Specification<Blog> specification, Pageable pageable);
+}
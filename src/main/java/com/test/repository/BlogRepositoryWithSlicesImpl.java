@@ -0,0 +1,21 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+import javax.persistence.EntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public class BlogRepositoryWithSlicesImpl implements BlogRepositoryWithSlices {
+
+    private final EntityManager entityManager;
+
+    public BlogRepositoryWithSlicesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Blog> findAllWithoutCount(Specification<Blog> specification, Pageable pageable) {
+        return SliceQueries.findAllWithoutCount(entityManager, Blog.class, specification, pageable);
+    }
+}
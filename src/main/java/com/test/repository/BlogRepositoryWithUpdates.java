@@ -0,0 +1,18 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+
+/**
+ * Spring Data fragment for updating {@link Blog}s without reading them.
+ */
+public interface BlogRepositoryWithUpdates {
+    /**
+     * Update the given fields of a blog in a single statement, and increment its version.
+     *
+     * @param id the id of the blog.
+     * @param name the new name, {@code null} to keep it.
+     * @param handle the new handle, {@code null} to keep it.
+     * @return the number of updated blogs, 0 if the blog does not exist.
+     */
+    int updateInPlace(Long id, String name, String handle);
+}
@@ -0,0 +1,27 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.persistence.EntityManager;
+
+public class BlogRepositoryWithUpdatesImpl implements BlogRepositoryWithUpdates {
+
+    private final EntityManager entityManager;
+
+    public BlogRepositoryWithUpdatesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateInPlace(Long id, String name, String handle) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (name != null) {
+            columns.put("name", name);
+        }
+        if (handle != null) {
+            columns.put("handle", handle);
+        }
+        return InPlaceUpdates.update(entityManager, Blog.class, id, columns);
+    }
+}
@@ -0,0 +1,58 @@
+package com.test.repository;
+
+import com.test.domain.BlogTagRollup;
+import com.test.service.dto.TagStatsDTO;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the BlogTagRollup entity.
+ */
+@Repository
+public interface BlogTagRollupRepository extends JpaRepository<BlogTagRollup, BlogTagRollup.Key> {
+    /**
+     * Get the most used tags of a blog, without counting: the page is read backwards from the
+     * {@code (blog_id, post_count, tag_id)} index.
+     *
+     * @param blogId the id of the blog.
+     * @param pageable the number of tags.
+     * @return the tags with their number of posts in the blog, the most used first.
+     */
+    @Query(
+        "select new com.test.service.dto.TagStatsDTO(tag.id, tag.name, rollup.postCount) from BlogTagRollup rollup, Tag tag" +
+        " where tag.id = rollup.tagId and rollup.blogId = :blogId and rollup.postCount > 0" +
+        " order by rollup.postCount desc, rollup.tagId desc"
+    )
+    List<TagStatsDTO> findTopByBlogId(@Param("blogId") Long blogId, Pageable pageable);
+
+    @Query("select rollup from BlogTagRollup rollup where rollup.blogId > :fromId and rollup.blogId <= :toId")
+    List<BlogTagRollup> findAllByBlogIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Count the posts of a range of blogs by tag.
+     *
+     * @param fromId the lower bound of the blog ids, excluded.
+     * @param toId the upper bound of the blog ids, included.
+     * @return rows of {@code (blog id, tag id, post count)}.
+     */
+    @Query(
+        "select post.blog.id, tag.id, count(post) from Post post join post.tags tag" +
+        " where post.blog.id > :fromId and post.blog.id <= :toId group by post.blog.id, tag.id"
+    )
+    List<Object[]> countPostsByBlogIdBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update BlogTagRollup rollup set rollup.postCount = rollup.postCount + :delta" +
+        " where rollup.blogId = :blogId and rollup.tagId in :tagIds"
+    )
+    int addToPostCount(@Param("blogId") Long blogId, @Param("tagIds") Collection<Long> tagIds, @Param("delta") long delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from BlogTagRollup rollup where rollup.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+}
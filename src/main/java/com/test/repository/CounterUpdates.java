@@ -0,0 +1,25 @@
+package com.test.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * The native updates shared by the {@code WithCounters} fragments.
+ * <p>
+ * A bulk update of a cached entity makes Hibernate evict its whole second-level cache region. The post counters are
+ * updated with native SQL synchronized on an empty query space instead, which evicts nothing: the counters are read
+ * from the uncached {@code BlogCounters} and {@code TagCounters} views of the same tables.
+ */
+final class CounterUpdates {
+
+    private CounterUpdates() {}
+
+    /**
+     * Create a native update, once the pending changes are flushed: the update does not flush them by itself.
+     */
+    static Query create(EntityManager entityManager, String sql) {
+        entityManager.flush();
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace("");
+    }
+}
@@ -0,0 +1,58 @@
+package com.test.repository;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Table;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The native updates shared by the {@code WithUpdates} fragments, which update given columns of an entity without
+ * reading it, in a single statement.
+ * <p>
+ * As {@link CounterUpdates}, the updates are synchronized on an empty query space, for Hibernate not to evict the whole
+ * second-level cache region of the entity: only the updated entity is evicted, once the transaction commits.
+ */
+final class InPlaceUpdates {
+
+    private InPlaceUpdates() {}
+
+    /**
+     * Update columns of an entity and increment its {@code @Version}.
+     *
+     * @param entityManager the entity manager.
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     * @param columns the values by column, not empty: the names are not escaped.
+     * @return the number of updated rows, 0 if the entity does not exist.
+     */
+    static int update(EntityManager entityManager, Class<?> entityClass, Long id, Map<String, Object> columns) {
+        String assignments = columns.keySet().stream().map(column -> column + " = :" + column).collect(Collectors.joining(", "));
+        String sql = "update " + table(entityClass) + " set " + assignments + ", version = version + 1 where id = :id";
+        Query query = create(entityManager, sql).setParameter("id", id);
+        columns.forEach(query::setParameter);
+        int count = query.executeUpdate();
+        if (count > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        entityManager.getEntityManagerFactory().getCache().evict(entityClass, id);
+                    }
+                }
+            );
+        }
+        return count;
+    }
+
+    static Query create(EntityManager entityManager, String sql) {
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace("");
+    }
+
+    static String table(Class<?> entityClass) {
+        return entityClass.getAnnotation(Table.class).name();
+    }
+}
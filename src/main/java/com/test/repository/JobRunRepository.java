@@ -0,0 +1,20 @@
+package com.test.repository;
+
+import com.test.domain.JobRun;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the JobRun entity.
+ */
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    List<JobRun> findByJobOrderByIdAsc(String job);
+
+    @Modifying
+    @Query("delete from JobRun jobRun where jobRun.startedDate < :before")
+    int deleteByStartedDateBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,46 @@
+package com.test.repository;
+
+import com.test.domain.MailMessage;
+import com.test.domain.enumeration.MailStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the MailMessage entity.
+ */
+@Repository
+public interface MailMessageRepository extends JpaRepository<MailMessage, Long> {
+    /**
+     * Lock the next emails due to be sent, skipping those locked by other workers: the pending emails due, and those
+     * whose claim expired while sending.
+     *
+     * @param now the current date.
+     * @param pageable the batch size.
+     * @return the locked emails, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is Hibernate's SKIP LOCKED
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select mailMessage from MailMessage mailMessage where mailMessage.status in" +
+        " (com.test.domain.enumeration.MailStatus.PENDING, com.test.domain.enumeration.MailStatus.SENDING)" +
+        " and mailMessage.nextAttemptDate <= :now order by mailMessage.id asc"
+    )
+    List<MailMessage> findDueSkipLocked(@Param("now") Instant now, Pageable pageable);
+
+    long countByStatusIn(Collection<MailStatus> statuses);
+
+    Optional<MailMessage> findFirstByStatusInOrderByIdAsc(Collection<MailStatus> statuses);
+
+    @Modifying
+    @Query("delete from MailMessage mailMessage where mailMessage.status = :status and mailMessage.createdDate < :before")
+    int deleteByStatusAndCreatedDateBefore(@Param("status") MailStatus status, @Param("before") Instant before);
+}
@@ -0,0 +1,49 @@
+package com.test.repository;
+
+import com.test.domain.MaintenanceJob;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the MaintenanceJob entity.
+ */
+@Repository
+public interface MaintenanceJobRepository extends JpaRepository<MaintenanceJob, String> {
+    @Query("select job.lastId from MaintenanceJob job where job.name = :name")
+    long findLastIdByName(@Param("name") String name);
+
+    /**
+     * Record the progress of a job, if its lease was not acquired again since.
+     *
+     * @param name the name of the job.
+     * @param leaseName the name of the lease of the job.
+     * @param token the fencing token of the lease.
+     * @param lastId the last id processed.
+     * @return 1 if the lease is still held with the token, 0 otherwise.
+     */
+    @Modifying
+    @Query(
+        "update MaintenanceJob job set job.lastId = :lastId where job.name = :name and exists" +
+        " (select lease.name from SchedulerLease lease where lease.name = :leaseName and lease.token = :token)"
+    )
+    int progress(
+        @Param("name") String name,
+        @Param("leaseName") String leaseName,
+        @Param("token") long token,
+        @Param("lastId") long lastId
+    );
+
+    /**
+     * Record the completion of a run of a job, if its lease was not acquired again since.
+     *
+     * @return 1 if the lease is still held with the token, 0 otherwise.
+     */
+    @Modifying
+    @Query(
+        "update MaintenanceJob job set job.lastId = 0, job.lastCompletedDate = :now where job.name = :name and exists" +
+        " (select lease.name from SchedulerLease lease where lease.name = :leaseName and lease.token = :token)"
+    )
+    int complete(@Param("name") String name, @Param("leaseName") String leaseName, @Param("token") long token, @Param("now") Instant now);
+}
@@ -0,0 +1,32 @@
+package com.test.repository;
+
+import com.test.domain.OutboxEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends OutboxEventRepositoryWithInserts, JpaRepository<OutboxEvent, Long> {
+    /**
+     * @param id the id of the last delivered event.
+     * @param pageable the batch size.
+     * @return the next events, in order.
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("select max(outboxEvent.id) from OutboxEvent outboxEvent")
+    Optional<Long> findMaxId();
+
+    @Modifying
+    @Query("delete from OutboxEvent outboxEvent where outboxEvent.id <= :id and outboxEvent.createdDate < :before")
+    int deleteByIdLessThanEqualAndCreatedDateBefore(@Param("id") long id, @Param("before") Instant before);
+}
@@ -0,0 +1,21 @@
+package com.test.repository;
+
+import com.test.domain.OutboxEvent;
+import com.test.domain.enumeration.OutboxEventType;
+import java.time.Instant;
+
+/**
+ * Spring Data fragment for writing {@link OutboxEvent}s of entities which are not read.
+ */
+public interface OutboxEventRepositoryWithInserts {
+    /**
+     * Insert the event of a change of an entity, at the version of the entity in the database: the entity is not read.
+     *
+     * @param entityClass the class of the entity, whose simple name is the aggregate type.
+     * @param id the id of the entity.
+     * @param eventType the kind of change.
+     * @param createdDate the date of the event.
+     * @return the number of inserted events, 0 if the entity does not exist.
+     */
+    int insertAtCurrentVersion(Class<?> entityClass, Long id, OutboxEventType eventType, Instant createdDate);
+}
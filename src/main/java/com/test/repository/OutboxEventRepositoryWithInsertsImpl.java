@@ -0,0 +1,36 @@
+package com.test.repository;
+
+import com.test.domain.OutboxEvent;
+import com.test.domain.enumeration.OutboxEventType;
+import java.time.Instant;
+import javax.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+
+public class OutboxEventRepositoryWithInsertsImpl implements OutboxEventRepositoryWithInserts {
+
+    private final EntityManager entityManager;
+
+    public OutboxEventRepositoryWithInsertsImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int insertAtCurrentVersion(Class<?> entityClass, Long id, OutboxEventType eventType, Instant createdDate) {
+        // The same dedup key as OutboxService, from the version read by the insert itself
+        return entityManager
+            .createNativeQuery(
+                "insert into outbox_event (aggregate_type, aggregate_id, event_type, aggregate_version, dedup_key, created_date)" +
+                " select :aggregateType, id, :eventType, version, concat(:aggregateType, ':', id, ':', :eventType, ':', version)," +
+                " :createdDate from " +
+                InPlaceUpdates.table(entityClass) +
+                " where id = :id"
+            )
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(OutboxEvent.class)
+            .setParameter("aggregateType", entityClass.getSimpleName())
+            .setParameter("eventType", eventType.name())
+            .setParameter("createdDate", createdDate)
+            .setParameter("id", id)
+            .executeUpdate();
+    }
+}
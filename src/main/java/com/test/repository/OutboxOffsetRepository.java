@@ -0,0 +1,33 @@
+package com.test.repository;
+
+import com.test.domain.OutboxOffset;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the OutboxOffset entity.
+ */
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+    /**
+     * Lock the offset of a subscriber, unless another instance of the application holds it.
+     *
+     * @param subscriber the name of the subscriber.
+     * @return the offset, empty if it does not exist or is locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is Hibernate's SKIP LOCKED
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select outboxOffset from OutboxOffset outboxOffset where outboxOffset.subscriber = :subscriber")
+    Optional<OutboxOffset> findBySubscriberSkipLocked(@Param("subscriber") String subscriber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OutboxOffset> findWithLockBySubscriber(String subscriber);
+
+    @Query("select min(outboxOffset.lastEventId) from OutboxOffset outboxOffset")
+    Optional<Long> findMinLastEventId();
+}
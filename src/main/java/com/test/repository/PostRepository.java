@@ -1,9 +1,9 @@
 package com.test.repository;
 
 import com.test.domain.Post;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
@@ -13,16 +13,45 @@ import org.springframework.stereotype.Repository;
  * Spring Data SQL repository for the Post entity.
  */
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
-    @Query(
-        value = "select distinct post from Post post left join fetch post.tags",
-        countQuery = "select count(distinct post) from Post post"
-    )
-    Page<Post> findAllWithEagerRelationships(Pageable pageable);
-
+public interface PostRepository
+    extends
+        PostRepositoryWithStreams,
+        PostRepositoryWithEagerRelationships,
+        PostRepositoryWithUpdates,
+        JpaRepository<Post, Long>,
+        JpaSpecificationExecutor<Post> {
     @Query("select distinct post from Post post left join fetch post.tags")
     List<Post> findAllWithEagerRelationships();
 
-    @Query("select post from Post post left join fetch post.tags where post.id =:id")
+    @Query("select post from Post post left join fetch post.blog left join fetch post.tags where post.id =:id")
     Optional<Post> findOneWithEagerRelationships(@Param("id") Long id);
+
+    @Query("select distinct post from Post post left join fetch post.blog left join fetch post.tags where post.id in :ids")
+    List<Post> findAllWithEagerRelationshipsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Get the version of a post, of its blog and of its tags, one row per tag.
+     *
+     * @param id the id of the post.
+     * @return rows of {@code (post version, blog id, blog version, tag id, tag version)}, empty if the post does not exist.
+     */
+    @Query(
+        "select post.version, blog.id, blog.version, tag.id, tag.version from Post post left join post.blog blog left join post.tags tag where post.id = :id"
+    )
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    @Query("select post from Post post where post.blog.id = :blogId order by post.date desc, post.id desc")
+    List<Post> findLatestByBlogId(@Param("blogId") Long blogId, Pageable pageable);
+
+    @Query("select post.id from Post post where post.id > :id order by post.id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("select post.id from Post post where post.blog.id = :blogId")
+    List<Long> findIdsByBlogId(@Param("blogId") Long blogId);
+
+    @Query("select post.id from Post post join post.tags tag where tag.id = :tagId")
+    List<Long> findIdsByTagId(@Param("tagId") Long tagId);
+
+    @Query("select distinct post.blog.id from Post post where post.id in :ids")
+    List<Long> findBlogIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.test.repository;
+
+import com.test.domain.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Spring Data fragment for reading pages of {@link Post}s with their relationships.
+ */
+public interface PostRepositoryWithEagerRelationships {
+    /**
+     * Get a page of posts with their blog and tags. The ids of the page are selected first, then the posts are
+     * fetched by id, as a collection fetch cannot be paginated in SQL. The posts deleted between the two queries
+     * are left out of the page.
+     *
+     * @param pageable the pagination information.
+     * @return the page of posts, in the requested order.
+     */
+    Page<Post> findAllWithEagerRelationships(Pageable pageable);
+}
@@ -0,0 +1,60 @@
+package com.test.repository;
+
+import com.test.domain.Post;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+public class PostRepositoryWithEagerRelationshipsImpl implements PostRepositoryWithEagerRelationships {
+
+    private final EntityManager entityManager;
+
+    public PostRepositoryWithEagerRelationshipsImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Post> findAllWithEagerRelationships(Pageable pageable) {
+        Page<Long> ids = findAllIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Post> posts = entityManager
+            .createQuery(
+                "select distinct post from Post post left join fetch post.blog left join fetch post.tags where post.id in :ids",
+                Post.class
+            )
+            .setParameter("ids", ids.getContent())
+            .getResultList()
+            .stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> content = ids.stream().map(posts::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    private Page<Long> findAllIds(Pageable pageable) {
+        TypedQuery<Long> query = entityManager.createQuery(
+            QueryUtils.applySorting("select post.id from Post post", pageable.getSort(), "post"),
+            Long.class
+        );
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(
+            query.getResultList(),
+            pageable,
+            () -> entityManager.createQuery("select count(post) from Post post", Long.class).getSingleResult()
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.test.repository;
+
+import com.test.domain.Post;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Spring Data fragment for reading {@link Post} entities as a forward-only stream.
+ */
+public interface PostRepositoryWithStreams {
+    /**
+     * Stream the posts matching the specification, with their blog fetched. Rows are read from the database
+     * {@code fetchSize} at a time and the posts are read-only, so the caller only has to clear the persistence context
+     * periodically to keep memory flat. The stream must be consumed in a transaction and closed.
+     *
+     * @param specification the specification the posts should match, may be {@code null}.
+     * @param sort the sort order.
+     * @param fetchSize the JDBC fetch size.
+     * @return the matching posts.
+     */
+    Stream<Post> streamAll(Specification<Post> specification, Sort sort, int fetchSize);
+}
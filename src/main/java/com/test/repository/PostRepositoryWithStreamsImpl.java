@@ -0,0 +1,53 @@
+package com.test.repository;
+
+import com.test.domain.Blog;
+import com.test.domain.Blog_;
+import com.test.domain.Post;
+import com.test.domain.Post_;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class PostRepositoryWithStreamsImpl implements PostRepositoryWithStreams {
+
+    private final EntityManager entityManager;
+
+    public PostRepositoryWithStreamsImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<Post> streamAll(Specification<Post> specification, Sort sort, int fetchSize) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Post> query = builder.createQuery(Post.class);
+        Root<Post> root = query.from(Post.class);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        // Blog and its user are eagerly loaded anyway: join them instead of issuing one select per row
+        Fetch<Post, Blog> blog = root.fetch(Post_.blog, JoinType.LEFT);
+        blog.fetch(Blog_.user, JoinType.LEFT);
+        query.select(root);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+
+        return entityManager
+            .createQuery(query)
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultStream();
+    }
+}
@@ -0,0 +1,18 @@
+package com.test.repository;
+
+import com.test.domain.Post;
+
+/**
+ * Spring Data fragment for updating {@link Post}s without reading them.
+ */
+public interface PostRepositoryWithUpdates {
+    /**
+     * Update the given fields of a post in a single statement, and increment its version.
+     *
+     * @param id the id of the post.
+     * @param title the new title, {@code null} to keep it.
+     * @param content the new content, {@code null} to keep it.
+     * @return the number of updated posts, 0 if the post does not exist.
+     */
+    int updateInPlace(Long id, String title, String content);
+}
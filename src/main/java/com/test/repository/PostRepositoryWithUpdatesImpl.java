@@ -0,0 +1,27 @@
+package com.test.repository;
+
+import com.test.domain.Post;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.persistence.EntityManager;
+
+public class PostRepositoryWithUpdatesImpl implements PostRepositoryWithUpdates {
+
+    private final EntityManager entityManager;
+
+    public PostRepositoryWithUpdatesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateInPlace(Long id, String title, String content) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (title != null) {
+            columns.put("title", title);
+        }
+        if (content != null) {
+            columns.put("content", content);
+        }
+        return InPlaceUpdates.update(entityManager, Post.class, id, columns);
+    }
+}
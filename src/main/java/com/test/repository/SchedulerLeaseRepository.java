@@ -0,0 +1,45 @@
+package com.test.repository;
+
+import com.test.domain.SchedulerLease;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the SchedulerLease entity.
+ */
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    /**
+     * Acquire a lease, unless it is held until after the current date, with a new fencing token.
+     *
+     * @param name the name of the lease.
+     * @param owner the instance acquiring the lease.
+     * @param now the current date.
+     * @param until the expiry date of the lease.
+     * @return 1 if the lease is acquired, 0 otherwise.
+     */
+    @Modifying
+    @Query(
+        "update SchedulerLease lease set lease.owner = :owner, lease.token = lease.token + 1, lease.lockedUntil = :until," +
+        " lease.acquiredDate = :now where lease.name = :name and (lease.lockedUntil is null or lease.lockedUntil <= :now)"
+    )
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+
+    @Query("select lease.token from SchedulerLease lease where lease.name = :name and lease.owner = :owner")
+    Optional<Long> findTokenByNameAndOwner(@Param("name") String name, @Param("owner") String owner);
+
+    /**
+     * Extend or shorten a lease, if it was not acquired again since.
+     *
+     * @param name the name of the lease.
+     * @param token the fencing token of the acquisition.
+     * @param until the new expiry date of the lease.
+     * @return 1 if the lease is still held with the token, 0 otherwise.
+     */
+    @Modifying
+    @Query("update SchedulerLease lease set lease.lockedUntil = :until where lease.name = :name and lease.token = :token")
+    int updateLockedUntil(@Param("name") String name, @Param("token") long token, @Param("until") Instant until);
+}
@@ -0,0 +1,68 @@
+package com.test.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading the row count estimates that the database maintains for its query planner.
+ * <p>
+ * These are refreshed by {@code ANALYZE} (or autovacuum) on PostgreSQL, so they are cheap to read but may be off by
+ * the rows written since. Other databases have no estimate.
+ */
+@Repository
+public class TableStatisticsRepository {
+
+    private static final String POSTGRESQL_ESTIMATE = "select cast(reltuples as bigint) from pg_class where oid = to_regclass(?1)";
+
+    private static final String H2_ESTIMATE =
+        "select row_count_estimate from information_schema.tables where table_schema = schema() and lower(table_name) = lower(?1)";
+
+    private final Logger log = LoggerFactory.getLogger(TableStatisticsRepository.class);
+
+    private final EntityManager entityManager;
+
+    private final String estimateQuery;
+
+    public TableStatisticsRepository(EntityManager entityManager, DataSource dataSource) throws SQLException {
+        this.entityManager = entityManager;
+        String product;
+        try (Connection connection = dataSource.getConnection()) {
+            product = connection.getMetaData().getDatabaseProductName();
+        }
+        switch (product) {
+            case "PostgreSQL":
+                this.estimateQuery = POSTGRESQL_ESTIMATE;
+                break;
+            case "H2":
+                this.estimateQuery = H2_ESTIMATE;
+                break;
+            default:
+                log.info("No row count estimates on {}: estimated counts are exact", product);
+                this.estimateQuery = null;
+        }
+    }
+
+    /**
+     * @param table the name of the table.
+     * @return the estimated number of rows of the table, empty if the database has no estimate for it.
+     */
+    public OptionalLong estimateRowCount(String table) {
+        if (estimateQuery == null) {
+            return OptionalLong.empty();
+        }
+        List<?> rows = entityManager.createNativeQuery(estimateQuery).setParameter(1, table).getResultList();
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return OptionalLong.empty();
+        }
+        long estimate = ((Number) rows.get(0)).longValue();
+        // PostgreSQL reports -1 for a table that was never analyzed
+        return estimate < 0 ? OptionalLong.empty() : OptionalLong.of(estimate);
+    }
+}
@@ -1,7 +1,14 @@
 package com.test.repository;
 
 import com.test.domain.Tag;
+import com.test.service.dto.TagStatsDTO;
+import com.test.service.dto.TagSuggestionDTO;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,50 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long>, JpaSpecificationExecutor<Tag> {}
+public interface TagRepository
+    extends
+        TagRepositoryWithSlices,
+        TagRepositoryWithCounters,
+        TagRepositoryWithUpdates,
+        JpaRepository<Tag, Long>,
+        JpaSpecificationExecutor<Tag> {
+    /**
+     * Get the version and the post count of a tag.
+     *
+     * @param id the id of the tag.
+     * @return a row of {@code (version, post count)}, empty if the tag does not exist.
+     */
+    @Query("select tag.version, counters.postCount from Tag tag, TagCounters counters where counters.id = tag.id and tag.id = :id")
+    List<Object[]> findVersionAndCountersById(@Param("id") Long id);
+
+    @Query(
+        "select new com.test.service.dto.TagSuggestionDTO(tag.id, tag.name, counters.postCount) from Tag tag, TagCounters counters" +
+        " where counters.id = tag.id"
+    )
+    List<TagSuggestionDTO> findAllSuggestions();
+
+    @Query(
+        "select new com.test.service.dto.TagSuggestionDTO(tag.id, tag.name, counters.postCount) from Tag tag, TagCounters counters" +
+        " where counters.id = tag.id and tag.id in :ids"
+    )
+    List<TagSuggestionDTO> findSuggestionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        value = "select new com.test.service.dto.TagStatsDTO(tag.id, tag.name, counters.postCount) from Tag tag, TagCounters counters" +
+        " where counters.id = tag.id",
+        countQuery = "select count(tag) from Tag tag"
+    )
+    Page<TagStatsDTO> findAllStats(Pageable pageable);
+
+    /**
+     * Get the most used tags, without counting: the page is read backwards from the {@code (post_count, id)} index.
+     *
+     * @param pageable the number of tags.
+     * @return the tags with their number of posts, the most used first.
+     */
+    @Query(
+        "select new com.test.service.dto.TagStatsDTO(tag.id, tag.name, counters.postCount) from TagCounters counters, Tag tag" +
+        " where tag.id = counters.id and counters.postCount > 0 order by counters.postCount desc, counters.id desc"
+    )
+    List<TagStatsDTO> findTop(Pageable pageable);
+}
@@ -0,0 +1,33 @@
+package com.test.repository;
+
+import com.test.domain.Tag;
+import com.test.domain.TagCounters;
+import java.util.Collection;
+
+/**
+ * Spring Data fragment for updating the post counts of {@link Tag}s without evicting the cached tags.
+ */
+public interface TagRepositoryWithCounters {
+    /**
+     * Add to the post counts of tags.
+     *
+     * @param ids the ids of the tags.
+     * @param delta the number of posts to add, negative to remove posts.
+     * @return the number of updated tags.
+     */
+    int addToPostCount(Collection<Long> ids, long delta);
+
+    /**
+     * Recompute the post counts of all the tags from their posts.
+     *
+     * @return the number of updated tags.
+     */
+    int recomputePostCounts();
+
+    /**
+     * Set the post counts of tags, read from {@link TagCounters}: the cached tags do not have them.
+     *
+     * @param tags the tags.
+     */
+    void readCounters(Collection<Tag> tags);
+}
@@ -0,0 +1,50 @@
+package com.test.repository;
+
+import com.test.domain.Tag;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+
+public class TagRepositoryWithCountersImpl implements TagRepositoryWithCounters {
+
+    private final EntityManager entityManager;
+
+    public TagRepositoryWithCountersImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int addToPostCount(Collection<Long> ids, long delta) {
+        return CounterUpdates
+            .create(entityManager, "update tag set post_count = post_count + :delta where id in (:ids)")
+            .setParameter("ids", ids)
+            .setParameter("delta", delta)
+            .executeUpdate();
+    }
+
+    @Override
+    public int recomputePostCounts() {
+        return CounterUpdates
+            .create(
+                entityManager,
+                "update tag set post_count = (select count(*) from rel_post__tag post_tag where post_tag.tag_id = tag.id)"
+            )
+            .executeUpdate();
+    }
+
+    @Override
+    public void readCounters(Collection<Tag> tags) {
+        Map<Long, List<Tag>> tagsById = tags.stream().filter(tag -> tag.getId() != null).collect(Collectors.groupingBy(Tag::getId));
+        if (tagsById.isEmpty()) {
+            return;
+        }
+        // A projection rather than the entities, which the native updates would leave stale in the persistence context
+        entityManager
+            .createQuery("select counters.id, counters.postCount from TagCounters counters where counters.id in :ids", Object[].class)
+            .setParameter("ids", tagsById.keySet())
+            .getResultList()
+            .forEach(row -> tagsById.get((Long) row[0]).forEach(tag -> tag.setPostCount((Long) row[1])));
+    }
+}
@@ -0,0 +1,21 @@
+package com.test.repository;
+
+import com.test.domain.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Spring Data fragment for reading {@link Tag} slices without issuing a count query.
+ */
+public interface TagRepositoryWithSlices {
+    /**
+     * Return a {@link Slice} of the tags matching the specification. One extra row is fetched
+     * to find out whether a next slice exists, so no {@code count(*)} query is run.
+     *
+     * @param specification the specification the tags should match, may be {@code null}.
+     * @param pageable the slice offset, size and sort.
+     * @return the matching tags.
+     */
+    Slice<Tag> findAllWithoutCount(Specification<Tag> specification, Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.test.repository;
+
+import com.test.domain.Tag;
+import javax.persistence.EntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public class TagRepositoryWithSlicesImpl implements TagRepositoryWithSlices {
+
+    private final EntityManager entityManager;
+
+    public TagRepositoryWithSlicesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Tag> findAllWithoutCount(Specification<Tag> specification, Pageable pageable) {
+        return SliceQueries.findAllWithoutCount(entityManager, Tag.class, specification, pageable);
+    }
+}
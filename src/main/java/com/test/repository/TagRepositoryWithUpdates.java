@@ -0,0 +1,17 @@
+package com.test.repository;
+
+import com.test.domain.Tag;
+
+/**
+ * Spring Data fragment for updating {@link Tag}s without reading them.
+ */
+public interface TagRepositoryWithUpdates {
+    /**
+     * Rename a tag in a single statement, and increment its version.
+     *
+     * @param id the id of the tag.
+     * @param name the new name.
+     * @return the number of updated tags, 0 if the tag does not exist.
+     */
+    int updateInPlace(Long id, String name);
+}
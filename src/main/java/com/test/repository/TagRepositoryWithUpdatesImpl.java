@@ -0,0 +1,19 @@
+package com.test.repository;
+
+import com.test.domain.Tag;
+import java.util.Collections;
+import javax.persistence.EntityManager;
+
+public class TagRepositoryWithUpdatesImpl implements TagRepositoryWithUpdates {
+
+    private final EntityManager entityManager;
+
+    public TagRepositoryWithUpdatesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateInPlace(Long id, String name) {
+        return InPlaceUpdates.update(entityManager, Tag.class, id, Collections.singletonMap("name", name));
+    }
+}
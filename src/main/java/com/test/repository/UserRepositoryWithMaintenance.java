@@ -0,0 +1,20 @@
+package com.test.repository;
+
+import com.test.domain.User;
+import java.time.Instant;
+
+/**
+ * Spring Data fragment for the set-based maintenance of the {@link User} entities.
+ */
+public interface UserRepositoryWithMaintenance {
+    /**
+     * Delete the not activated users with an activation key created before a date, and their authorities, in a range
+     * of ids. The users are locked first, so that none is activated between the two deletes.
+     *
+     * @param fromId the lower bound of the ids, excluded.
+     * @param toId the upper bound of the ids, included.
+     * @param createdBefore the date the users were created before.
+     * @return the number of deleted users.
+     */
+    int deleteNotActivatedByIdBetween(long fromId, long toId, Instant createdBefore);
+}
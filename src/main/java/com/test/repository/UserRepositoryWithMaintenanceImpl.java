@@ -0,0 +1,42 @@
+package com.test.repository;
+
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import org.hibernate.query.NativeQuery;
+
+public class UserRepositoryWithMaintenanceImpl implements UserRepositoryWithMaintenance {
+
+    private final EntityManager entityManager;
+
+    public UserRepositoryWithMaintenanceImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int deleteNotActivatedByIdBetween(long fromId, long toId, Instant createdBefore) {
+        List<Long> ids = entityManager
+            .createQuery(
+                "select user.id from User user where user.id > :fromId and user.id <= :toId and user.activated = false" +
+                " and user.activationKey is not null and user.createdDate < :createdBefore",
+                Long.class
+            )
+            .setParameter("fromId", fromId)
+            .setParameter("toId", toId)
+            .setParameter("createdBefore", createdBefore)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The join table has no entity: only evict the cached User.authorities, not every region as by default
+        entityManager
+            .createNativeQuery("delete from jhi_user_authority where user_id in (:ids)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace("jhi_user_authority")
+            .setParameterList("ids", ids)
+            .executeUpdate();
+        return entityManager.createQuery("delete from User user where user.id in (:ids)").setParameter("ids", ids).executeUpdate();
+    }
+}
@@ -0,0 +1,284 @@
+package com.test.repository.search;
+
+import com.test.config.ApplicationProperties;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.service.dto.PostSearchHitDTO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Full-text search repository for the {@link Post} entity, backed by an embedded Lucene index.
+ * <p>
+ * Title, content, tag names and blog name are indexed; hits are ranked with BM25, title and tag matches weighing
+ * more than content matches. Writes are visible to the next search, and committed to disk every 30 seconds.
+ */
+@Repository
+public class PostSearchRepository {
+
+    /**
+     * Upper bound of {@code page * size + size}, as each page requires collecting all the hits before it.
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String TAGS = "tags";
+    private static final String BLOG = "blog";
+    private static final String DATE = "date";
+
+    private static final String[] HIGHLIGHTED_FIELDS = { TITLE, CONTENT };
+    private static final int[] HIGHLIGHTED_PASSAGES = { 1, 3 };
+
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2f, TAGS, 1.5f, BLOG, 1f, CONTENT, 1f);
+
+    /**
+     * Stored text, with offsets in the postings so that highlighting does not need to re-analyze it.
+     */
+    private static final FieldType HIGHLIGHTED_TEXT = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        HIGHLIGHTED_TEXT.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        HIGHLIGHTED_TEXT.freeze();
+    }
+
+    private final Logger log = LoggerFactory.getLogger(PostSearchRepository.class);
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final Directory directory;
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    public PostSearchRepository(ApplicationProperties applicationProperties) throws IOException {
+        String indexPath = applicationProperties.getSearch().getIndexPath();
+        if (indexPath == null || indexPath.isBlank()) {
+            log.debug("Using an in-memory post index");
+            this.directory = new ByteBuffersDirectory();
+        } else {
+            log.debug("Using the post index in {}", indexPath);
+            this.directory = FSDirectory.open(Paths.get(indexPath));
+        }
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+            .setSimilarity(new BM25Similarity());
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Index or re-index a post. Its blog and tags must be initialized.
+     *
+     * @param post the post.
+     */
+    public void save(Post post) {
+        saveAll(Collections.singletonList(post));
+    }
+
+    /**
+     * Index or re-index posts. Their blog and tags must be initialized.
+     *
+     * @param posts the posts.
+     */
+    public void saveAll(Collection<Post> posts) {
+        try {
+            for (Post post : posts) {
+                writer.updateDocument(new Term(ID, post.getId().toString()), toDocument(post));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Remove a post from the index.
+     *
+     * @param id the id of the post.
+     */
+    public void deleteById(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Remove all the posts from the index.
+     */
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of indexed posts.
+     */
+    public long count() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Search the posts, most relevant first.
+     *
+     * @param query the query, in {@link SimpleQueryParser} syntax; all the terms must match unless {@code |} is used.
+     * @param pageable the pagination information; the sort is ignored.
+     * @return the matching posts, with highlighted title and content fragments.
+     * @throws IllegalArgumentException if the page is beyond {@link #MAX_RESULT_WINDOW}.
+     */
+    public Page<PostSearchHitDTO> search(String query, Pageable pageable) {
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Result window is too large, page * size must be less than " + MAX_RESULT_WINDOW);
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query luceneQuery = parser.parse(query);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int offset = (int) pageable.getOffset();
+                TopScoreDocCollector collector = TopScoreDocCollector.create(offset + pageable.getPageSize(), Integer.MAX_VALUE);
+                searcher.search(luceneQuery, collector);
+                TopDocs page = collector.topDocs(offset, pageable.getPageSize());
+                return new PageImpl<>(toHits(searcher, luceneQuery, page), pageable, collector.getTotalHits());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Commit pending writes, so that they survive a restart.
+     */
+    @Scheduled(fixedDelay = 30_000)
+    public void commit() {
+        if (writer.hasUncommittedChanges()) {
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private List<PostSearchHitDTO> toHits(IndexSearcher searcher, Query query, TopDocs page) throws IOException {
+        if (page.scoreDocs.length == 0) {
+            return Collections.emptyList();
+        }
+        UnifiedHighlighter highlighter = new UnifiedHighlighter(searcher, analyzer);
+        highlighter.setFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "… ", true));
+        Map<String, String[]> highlights = highlighter.highlightFields(HIGHLIGHTED_FIELDS, query, page, HIGHLIGHTED_PASSAGES);
+        PostSearchHitDTO[] hits = new PostSearchHitDTO[page.scoreDocs.length];
+        for (int i = 0; i < hits.length; i++) {
+            ScoreDoc scoreDoc = page.scoreDocs[i];
+            Document document = searcher.doc(scoreDoc.doc);
+            PostSearchHitDTO hit = new PostSearchHitDTO();
+            hit.setId(Long.valueOf(document.get(ID)));
+            hit.setTitle(document.get(TITLE));
+            String date = document.get(DATE);
+            hit.setDate(date == null ? null : Instant.parse(date));
+            hit.setScore(scoreDoc.score);
+            Map<String, String> fragments = new LinkedHashMap<>();
+            for (String field : HIGHLIGHTED_FIELDS) {
+                String fragment = highlights.get(field)[i];
+                if (fragment != null) {
+                    fragments.put(field, fragment);
+                }
+            }
+            hit.setHighlights(fragments);
+            hits[i] = hit;
+        }
+        return List.of(hits);
+    }
+
+    private static Document toDocument(Post post) {
+        Document document = new Document();
+        document.add(new StringField(ID, post.getId().toString(), Field.Store.YES));
+        if (post.getTitle() != null) {
+            document.add(new Field(TITLE, post.getTitle(), HIGHLIGHTED_TEXT));
+        }
+        if (post.getContent() != null) {
+            document.add(new Field(CONTENT, post.getContent(), HIGHLIGHTED_TEXT));
+        }
+        if (post.getDate() != null) {
+            document.add(new StoredField(DATE, post.getDate().toString()));
+        }
+        if (post.getBlog() != null && post.getBlog().getName() != null) {
+            document.add(new TextField(BLOG, post.getBlog().getName(), Field.Store.NO));
+        }
+        for (Tag tag : post.getTags()) {
+            if (tag.getName() != null) {
+                document.add(new TextField(TAGS, tag.getName(), Field.Store.NO));
+            }
+        }
+        return document;
+    }
+}
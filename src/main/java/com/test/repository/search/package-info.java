@@ -0,0 +1,4 @@
+/**
+ * Full-text search repositories, backed by an embedded Lucene index.
+ */
+package com.test.repository.search;
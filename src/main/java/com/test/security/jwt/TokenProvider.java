@@ -1,11 +1,23 @@
 package com.test.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.test.config.ApplicationProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +45,20 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    /**
+     * Authentications already built from a token, keyed by the token hash, each one expiring with its token.
+     */
+    private final Cache<String, CachedAuthentication> authenticationCache;
+
+    /**
+     * Interned authority lists, keyed by {@code auth} claim. Claims come from tokens signed by us, so there are only
+     * as many entries as distinct role combinations.
+     */
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
+    private final Timer parseTimer;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -52,6 +77,22 @@ public class TokenProvider {
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+
+        this.authenticationCache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(applicationProperties.getSecurity().getAuthenticationCache().getMaxEntries())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        this.parseTimer =
+            Timer.builder("jwt.authentication.parse").description("Time spent parsing JWT tokens on a cache miss").register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, authenticationCache, "jwtAuthentication");
+        Gauge
+            .builder("jwt.authentication.cache.saved", this, TokenProvider::savedSeconds)
+            .description("Estimated parsing time saved by the JWT authentication cache")
+            .baseUnit("seconds")
+            .register(meterRegistry);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -75,13 +116,48 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return buildAuthentication(token, jwtParser.parseClaimsJws(token).getBody());
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+    /**
+     * Validate the token and build its {@link Authentication}, parsing it only if it is not already cached.
+     *
+     * @param token the JWT token.
+     * @return the authentication, or {@code null} if the token is not valid.
+     */
+    public Authentication resolveAuthentication(String token) {
+        String tokenHash = hash(token);
+        CachedAuthentication cached = authenticationCache.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached.authentication;
+        }
+        long start = System.nanoTime();
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            Authentication authentication = buildAuthentication(token, claims);
+            if (claims.getExpiration() != null) {
+                authenticationCache.put(tokenHash, new CachedAuthentication(authentication, claims.getExpiration().getTime()));
+            }
+            return authentication;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+            return null;
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Authentication buildAuthentication(String token, Claims claims) {
+        List<GrantedAuthority> authorities = authoritiesByClaim.computeIfAbsent(
+            claims.get(AUTHORITIES_KEY).toString(),
+            claim ->
+                Arrays
+                    .stream(claim.split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toUnmodifiableList())
+        );
 
         User principal = new User(claims.getSubject(), "", authorities);
 
@@ -98,4 +174,50 @@ public class TokenProvider {
         }
         return false;
     }
+
+    private double savedSeconds() {
+        return authenticationCache.stats().hitCount() * parseTimer.mean(TimeUnit.SECONDS);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+
+        private final Authentication authentication;
+
+        private final long expiresAtMillis;
+
+        private CachedAuthentication(Authentication authentication, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * Evicts a cached authentication when its token expires.
+     */
+    private static final class TokenExpiry implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String tokenHash, CachedAuthentication cached, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, cached.expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, CachedAuthentication cached, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenHash, cached, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, CachedAuthentication cached, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package com.test.service;
+
+import java.util.Optional;
+
+/**
+ * A maintenance job processing a table in chunks of ids, run by {@link MaintenanceService}.
+ */
+public interface BatchedMaintenanceJob {
+    /**
+     * @return the unique name of the job, which keys its state.
+     */
+    String getName();
+
+    /**
+     * @return the id after which the job starts, 0 by default.
+     */
+    default long getFromId() {
+        return 0;
+    }
+
+    /**
+     * @return the greatest id the job may have to process, included, empty if the table is empty.
+     */
+    Optional<Long> findMaxId();
+
+    /**
+     * Process a chunk of ids, with set-based statements, in the transaction of the chunk.
+     *
+     * @param fromId the last id of the previous chunk, excluded.
+     * @param toId the last id of the chunk, included.
+     * @return the number of rows processed.
+     */
+    int processChunk(long fromId, long toId);
+}
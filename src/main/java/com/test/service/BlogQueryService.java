@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,8 +30,11 @@ public class BlogQueryService extends QueryService<Blog> {
 
     private final BlogRepository blogRepository;
 
-    public BlogQueryService(BlogRepository blogRepository) {
+    private final PageCountService pageCountService;
+
+    public BlogQueryService(BlogRepository blogRepository, PageCountService pageCountService) {
         this.blogRepository = blogRepository;
+        this.pageCountService = pageCountService;
     }
 
     /**
@@ -42,7 +46,9 @@ public class BlogQueryService extends QueryService<Blog> {
     public List<Blog> findByCriteria(BlogCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
         final Specification<Blog> specification = createSpecification(criteria);
-        return blogRepository.findAll(specification);
+        List<Blog> blogs = blogRepository.findAll(specification);
+        blogRepository.readCounters(blogs);
+        return blogs;
     }
 
     /**
@@ -55,7 +61,27 @@ public class BlogQueryService extends QueryService<Blog> {
     public Page<Blog> findByCriteria(BlogCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Blog> specification = createSpecification(criteria);
-        return blogRepository.findAll(specification, page);
+        Page<Blog> result = blogRepository.findAll(specification, page);
+        blogRepository.readCounters(result.getContent());
+        return result;
+    }
+
+    /**
+     * Return a {@link Page} of {@link Blog} which matches the criteria from the database.
+     * The total count is computed according to the count mode, and skipped when the page is the last one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param countMode How to compute the total count.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Blog> findByCriteria(BlogCriteria criteria, Pageable page, CountMode countMode) {
+        log.debug("find by criteria : {}, page: {}, count: {}", criteria, page, countMode);
+        final Specification<Blog> specification = createSpecification(criteria);
+        Slice<Blog> slice = blogRepository.findAllWithoutCount(specification, page);
+        blogRepository.readCounters(slice.getContent());
+        boolean filtered = criteria != null && !criteria.equals(new BlogCriteria());
+        return pageCountService.toPage(slice, "blog", criteria, filtered, countMode, () -> blogRepository.count(specification));
     }
 
     /**
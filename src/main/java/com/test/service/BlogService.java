@@ -1,8 +1,15 @@
 package com.test.service;
 
 import com.test.domain.Blog;
+import com.test.domain.enumeration.OutboxEventType;
 import com.test.repository.BlogRepository;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -21,8 +28,34 @@ public class BlogService {
 
     private final BlogRepository blogRepository;
 
-    public BlogService(BlogRepository blogRepository) {
+    private final ETagService eTagService;
+
+    private final PageCountService pageCountService;
+
+    private final OutboxService outboxService;
+
+    private final FeedService feedService;
+
+    private final PostRollupService postRollupService;
+
+    private final Validator validator;
+
+    public BlogService(
+        BlogRepository blogRepository,
+        ETagService eTagService,
+        PageCountService pageCountService,
+        OutboxService outboxService,
+        FeedService feedService,
+        PostRollupService postRollupService,
+        Validator validator
+    ) {
         this.blogRepository = blogRepository;
+        this.eTagService = eTagService;
+        this.pageCountService = pageCountService;
+        this.outboxService = outboxService;
+        this.feedService = feedService;
+        this.postRollupService = postRollupService;
+        this.validator = validator;
     }
 
     /**
@@ -33,21 +66,62 @@ public class BlogService {
      */
     public Blog save(Blog blog) {
         log.debug("Request to save Blog : {}", blog);
-        return blogRepository.save(blog);
+        Blog result = blogRepository.save(blog);
+        outboxService.record(OutboxEventType.CREATED, result);
+        eTagService.evictBlog(result.getId());
+        // Its handle may be remembered as having no blog
+        feedService.evictBlog(result.getId());
+        pageCountService.evictAll();
+        return result;
+    }
+
+    /**
+     * Update a blog.
+     *
+     * @param blog the entity to update.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
+     * @return the persisted entity, or empty if the blog does not exist.
+     * @throws PreconditionFailedException if the precondition is not met.
+     */
+    public Optional<Blog> update(Blog blog, String ifMatch) {
+        log.debug("Request to update Blog : {}, If-Match: {}", blog, ifMatch);
+
+        return blogRepository
+            .findById(blog.getId())
+            .map(this::withCounters)
+            .map(existingBlog -> {
+                eTagService.checkIfMatch(ifMatch, () -> eTagService.of(existingBlog));
+                // A concurrent update committed from now on fails with an optimistic locking error
+                blog.setVersion(existingBlog.getVersion());
+
+                return blogRepository.save(blog);
+            })
+            .map(savedBlog -> {
+                outboxService.record(OutboxEventType.UPDATED, savedBlog);
+                eTagService.evictBlog(savedBlog.getId());
+                feedService.evictBlog(savedBlog.getId());
+                pageCountService.evictAll();
+
+                return savedBlog;
+            });
     }
 
     /**
      * Partially update a blog.
      *
      * @param blog the entity to update partially.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
      * @return the persisted entity.
+     * @throws PreconditionFailedException if the precondition is not met.
      */
-    public Optional<Blog> partialUpdate(Blog blog) {
-        log.debug("Request to partially update Blog : {}", blog);
+    public Optional<Blog> partialUpdate(Blog blog, String ifMatch) {
+        log.debug("Request to partially update Blog : {}, If-Match: {}", blog, ifMatch);
 
         return blogRepository
             .findById(blog.getId())
+            .map(this::withCounters)
             .map(existingBlog -> {
+                eTagService.checkIfMatch(ifMatch, () -> eTagService.of(existingBlog));
                 if (blog.getName() != null) {
                     existingBlog.setName(blog.getName());
                 }
@@ -57,7 +131,52 @@ public class BlogService {
 
                 return existingBlog;
             })
-            .map(blogRepository::save);
+            .map(blogRepository::save)
+            .map(savedBlog -> {
+                outboxService.record(OutboxEventType.UPDATED, savedBlog);
+                eTagService.evictBlog(savedBlog.getId());
+                feedService.evictBlog(savedBlog.getId());
+                pageCountService.evictAll();
+
+                return savedBlog;
+            });
+    }
+
+    /**
+     * Partially update a blog without reading it, when there is no precondition: the counters of the blog are not
+     * needed. Otherwise the blog is updated as by {@link #partialUpdate(Blog, String)}.
+     *
+     * @param blog the entity to update partially.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
+     * @return whether the blog exists.
+     * @throws PreconditionFailedException if the precondition is not met.
+     * @throws ConstraintViolationException if a given field is not valid.
+     */
+    public boolean partialUpdateInPlace(Blog blog, String ifMatch) {
+        log.debug("Request to partially update Blog in place : {}, If-Match: {}", blog, ifMatch);
+        if (ifMatch != null || (blog.getName() == null && blog.getHandle() == null)) {
+            return partialUpdate(blog, ifMatch).isPresent();
+        }
+
+        // The entity is not flushed, so not validated by Hibernate
+        Set<ConstraintViolation<Blog>> violations = new HashSet<>();
+        if (blog.getName() != null) {
+            violations.addAll(validator.validateProperty(blog, "name"));
+        }
+        if (blog.getHandle() != null) {
+            violations.addAll(validator.validateProperty(blog, "handle"));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (blogRepository.updateInPlace(blog.getId(), blog.getName(), blog.getHandle()) == 0) {
+            return false;
+        }
+        outboxService.recordUpdatedInPlace(Blog.class, blog.getId());
+        eTagService.evictBlog(blog.getId());
+        feedService.evictBlog(blog.getId());
+        pageCountService.evictAll();
+        return true;
     }
 
     /**
@@ -69,7 +188,9 @@ public class BlogService {
     @Transactional(readOnly = true)
     public Page<Blog> findAll(Pageable pageable) {
         log.debug("Request to get all Blogs");
-        return blogRepository.findAll(pageable);
+        Page<Blog> page = blogRepository.findAll(pageable);
+        blogRepository.readCounters(page.getContent());
+        return page;
     }
 
     /**
@@ -81,7 +202,7 @@ public class BlogService {
     @Transactional(readOnly = true)
     public Optional<Blog> findOne(Long id) {
         log.debug("Request to get Blog : {}", id);
-        return blogRepository.findById(id);
+        return blogRepository.findById(id).map(this::withCounters);
     }
 
     /**
@@ -91,6 +212,21 @@ public class BlogService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Blog : {}", id);
-        blogRepository.deleteById(id);
+        blogRepository
+            .findById(id)
+            .ifPresent(blog -> {
+                outboxService.record(OutboxEventType.DELETED, blog);
+                blogRepository.delete(blog);
+                postRollupService.blogDeleted(id);
+            });
+        eTagService.evictBlog(id);
+        feedService.evictBlog(id);
+        pageCountService.evictAll();
     }
+
+    private Blog withCounters(Blog blog) {
+        blogRepository.readCounters(List.of(blog));
+        return blog;
+    }
+
 }
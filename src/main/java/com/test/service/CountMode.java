@@ -0,0 +1,22 @@
+package com.test.service;
+
+/**
+ * How the total count of a page of results is computed, see {@link PageCountService}.
+ */
+public enum CountMode {
+    /**
+     * A {@code count(*)} query, unless the page is the last one.
+     */
+    EXACT,
+
+    /**
+     * An exact count, cached per criteria until the next write.
+     */
+    CACHED,
+
+    /**
+     * The row count estimate of the query planner when there is no filter and the table is large, a cached count
+     * otherwise.
+     */
+    ESTIMATED,
+}
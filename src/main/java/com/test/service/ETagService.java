@@ -0,0 +1,247 @@
+package com.test.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.config.ApplicationProperties;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.repository.BlogRepository;
+import com.test.repository.PostRepository;
+import com.test.repository.TagRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service computing the strong ETags of the {@link Post}, {@link Blog} and {@link Tag} resources from their
+ * {@code @Version}, and from the post counters of blogs and tags, which change without changing their version.
+ * <p>
+ * A post is serialized with its blog and tags, without their counters, so its ETag also covers their versions. The ETags of the current
+ * versions are cached, so that conditional requests can be answered without querying the database; the services
+ * evict them once their changes are committed, and the cache expiry bounds the staleness of changes made by other
+ * instances.
+ */
+@Service
+public class ETagService {
+
+    private static final String POST = "Post#";
+    private static final String BLOG = "Blog#";
+    private static final String TAG = "Tag#";
+
+    private final Logger log = LoggerFactory.getLogger(ETagService.class);
+
+    private final PostRepository postRepository;
+
+    private final BlogRepository blogRepository;
+
+    private final TagRepository tagRepository;
+
+    private final Cache<String, String> eTags;
+
+    public ETagService(
+        PostRepository postRepository,
+        BlogRepository blogRepository,
+        TagRepository tagRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.postRepository = postRepository;
+        this.blogRepository = blogRepository;
+        this.tagRepository = tagRepository;
+        ApplicationProperties.ETag properties = applicationProperties.getEtag();
+        this.eTags =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(properties.getTimeToLiveSeconds()))
+                .build();
+    }
+
+    public String of(Post post) {
+        SortedMap<Long, Long> tagVersions = new TreeMap<>();
+        post.getTags().forEach(tag -> tagVersions.put(tag.getId(), tag.getVersion()));
+        Blog blog = post.getBlog();
+        return postETag(post.getVersion(), blog == null ? null : blog.getId(), blog == null ? null : blog.getVersion(), tagVersions);
+    }
+
+    public String of(Blog blog) {
+        return countersETag(blog.getVersion(), blog.getPostCount(), blog.getLastPostDate());
+    }
+
+    public String of(Tag tag) {
+        return countersETag(tag.getVersion(), tag.getPostCount(), null);
+    }
+
+    /**
+     * @param id the id of the post.
+     * @return the ETag of the current version of the post, empty if it does not exist.
+     */
+    public Optional<String> findPostETag(Long id) {
+        return Optional.ofNullable(eTags.get(POST + id, key -> currentPostETag(id)));
+    }
+
+    /**
+     * @param id the id of the blog.
+     * @return the ETag of the current version of the blog, empty if it does not exist.
+     */
+    public Optional<String> findBlogETag(Long id) {
+        return Optional.ofNullable(
+            eTags.get(
+                BLOG + id,
+                key ->
+                    blogRepository
+                        .findVersionAndCountersById(id)
+                        .stream()
+                        .findFirst()
+                        .map(row -> countersETag((Long) row[0], (Long) row[1], (Instant) row[2]))
+                        .orElse(null)
+            )
+        );
+    }
+
+    /**
+     * @param id the id of the tag.
+     * @return the ETag of the current version of the tag, empty if it does not exist.
+     */
+    public Optional<String> findTagETag(Long id) {
+        return Optional.ofNullable(
+            eTags.get(
+                TAG + id,
+                key ->
+                    tagRepository
+                        .findVersionAndCountersById(id)
+                        .stream()
+                        .findFirst()
+                        .map(row -> countersETag((Long) row[0], (Long) row[1], null))
+                        .orElse(null)
+            )
+        );
+    }
+
+    /**
+     * Check the {@code If-Match} precondition of an update, with the strong comparison function of RFC 7232.
+     *
+     * @param ifMatch the {@code If-Match} header, {@code null} if absent.
+     * @param currentETag the ETag of the current version of the entity, only computed if there is a precondition.
+     * @throws PreconditionFailedException if the precondition is not met.
+     */
+    public void checkIfMatch(String ifMatch, Supplier<String> currentETag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        String eTag = currentETag.get();
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || eTag.equals(trimmed)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException(eTag);
+    }
+
+    /**
+     * Evict the ETag of a post once the current transaction commits.
+     *
+     * @param id the id of the post.
+     */
+    public void evictPost(Long id) {
+        TransactionHooks.afterCommit(() -> eTags.invalidate(POST + id));
+    }
+
+    /**
+     * Evict the ETag of a blog, and those of all the posts, once the current transaction commits.
+     *
+     * @param id the id of the blog.
+     */
+    public void evictBlog(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            eTags.invalidate(BLOG + id);
+            evictAllPosts();
+        });
+    }
+
+    /**
+     * Evict the ETag of a tag, and those of all the posts, once the current transaction commits.
+     *
+     * @param id the id of the tag.
+     */
+    public void evictTag(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            eTags.invalidate(TAG + id);
+            evictAllPosts();
+        });
+    }
+
+    /**
+     * Evict the ETags of blogs and tags whose post counters changed, once the current transaction commits.
+     *
+     * @param blogIds the ids of the blogs.
+     * @param tagIds the ids of the tags.
+     */
+    public void evictCounters(Collection<Long> blogIds, Collection<Long> tagIds) {
+        TransactionHooks.afterCommit(() -> {
+            blogIds.forEach(id -> eTags.invalidate(BLOG + id));
+            tagIds.forEach(id -> eTags.invalidate(TAG + id));
+        });
+    }
+
+    /**
+     * Evict the ETags of all the blogs and tags, once the current transaction commits.
+     */
+    public void evictAllCounters() {
+        TransactionHooks.afterCommit(() -> eTags.asMap().keySet().removeIf(key -> key.startsWith(BLOG) || key.startsWith(TAG)));
+    }
+
+    private void evictAllPosts() {
+        log.debug("Evicting the ETags of all the posts");
+        eTags.asMap().keySet().removeIf(key -> key.startsWith(POST));
+    }
+
+    private String currentPostETag(Long id) {
+        List<Object[]> rows = postRepository.findVersionsById(id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        SortedMap<Long, Long> tagVersions = new TreeMap<>();
+        for (Object[] row : rows) {
+            if (row[3] != null) {
+                tagVersions.put((Long) row[3], (Long) row[4]);
+            }
+        }
+        Object[] first = rows.get(0);
+        return postETag((Long) first[0], (Long) first[1], (Long) first[2], tagVersions);
+    }
+
+    private String versionETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private String countersETag(long version, long postCount, Instant lastPostDate) {
+        String lastPost = lastPostDate == null ? "" : "." + lastPostDate.toEpochMilli();
+        return "\"" + version + "." + postCount + lastPost + "\"";
+    }
+
+    private String postETag(long version, Long blogId, Long blogVersion, SortedMap<Long, Long> tagVersions) {
+        if (blogId == null && tagVersions.isEmpty()) {
+            return versionETag(version);
+        }
+        StringBuilder related = new StringBuilder();
+        if (blogId != null) {
+            related.append('b').append(blogId).append(':').append(blogVersion);
+        }
+        tagVersions.forEach((tagId, tagVersion) -> related.append('t').append(tagId).append(':').append(tagVersion));
+        CRC32 checksum = new CRC32();
+        checksum.update(related.toString().getBytes(StandardCharsets.US_ASCII));
+        return "\"" + version + "-" + Long.toHexString(checksum.getValue()) + "\"";
+    }
+}
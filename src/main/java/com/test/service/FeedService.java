@@ -0,0 +1,339 @@
+package com.test.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.test.config.ApplicationProperties;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.repository.BlogRepository;
+import com.test.repository.PostRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the Atom and RSS feeds of the latest {@link Post}s of each {@link Blog}.
+ * <p>
+ * A feed is rendered once, gzipped, and kept in memory with its ETag until a post of its blog, or the blog itself,
+ * changes: feed readers polling an unchanged blog are answered without querying the database. The services evict the
+ * feeds once their changes are committed, and the cache expiry bounds the staleness of changes made by other
+ * instances. The handles without a blog are remembered for a shorter time, so that polling them does not query the
+ * database either.
+ * <p>
+ * The {@code Last-Modified} of a feed is the date of its latest post, the same on every instance and rendering. An edit
+ * changes no post date, but it changes the ETag, which takes precedence over {@code If-Modified-Since}.
+ */
+@Service
+public class FeedService {
+
+    private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+    private static final DateTimeFormatter RSS_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    /**
+     * The marker of a handle without a blog.
+     */
+    private static final RenderedFeed NOT_FOUND = new RenderedFeed(null, null, new byte[0], null, null);
+
+    private final Logger log = LoggerFactory.getLogger(FeedService.class);
+
+    private final BlogRepository blogRepository;
+
+    private final PostRepository postRepository;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final String baseUrl;
+
+    private final int entries;
+
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    private final Cache<String, RenderedFeed> feeds;
+
+    public FeedService(
+        BlogRepository blogRepository,
+        PostRepository postRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties
+    ) {
+        this.blogRepository = blogRepository;
+        this.postRepository = postRepository;
+        // Only the renderings use a connection, not the feeds served from memory
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        ApplicationProperties.Feed properties = applicationProperties.getFeed();
+        this.entries = properties.getEntries();
+        long timeToLiveNanos = TimeUnit.SECONDS.toNanos(properties.getTimeToLiveSeconds());
+        long notFoundTimeToLiveNanos = TimeUnit.SECONDS.toNanos(properties.getNotFoundTimeToLiveSeconds());
+        this.feeds =
+            Caffeine
+                .newBuilder()
+                .maximumWeight(properties.getMaxSizeMegabytes() * 1024 * 1024)
+                .<String, RenderedFeed>weigher((key, feed) -> key.length() + feed.getGzipped().length)
+                .expireAfter(
+                    new Expiry<String, RenderedFeed>() {
+                        @Override
+                        public long expireAfterCreate(String key, RenderedFeed feed, long currentTime) {
+                            return feed == NOT_FOUND ? notFoundTimeToLiveNanos : timeToLiveNanos;
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, RenderedFeed feed, long currentTime, long currentDuration) {
+                            return expireAfterCreate(key, feed, currentTime);
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, RenderedFeed feed, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    }
+                )
+                .build();
+    }
+
+    /**
+     * The formats of the feeds.
+     */
+    public enum Format {
+        ATOM("application/atom+xml"),
+        RSS("application/rss+xml");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * Get the feed of a blog, rendered if it is not in memory.
+     *
+     * @param handle the handle of the blog.
+     * @param format the format of the feed.
+     * @return the rendered feed, empty if the blog does not exist.
+     */
+    public Optional<RenderedFeed> findFeed(String handle, Format format) {
+        RenderedFeed feed = feeds.get(
+            format + ":" + handle,
+            key ->
+                readOnlyTransactionTemplate.execute(status ->
+                    blogRepository.findFirstByHandleOrderByIdAsc(handle).map(blog -> render(blog, format)).orElse(NOT_FOUND)
+                )
+        );
+        return feed == NOT_FOUND ? Optional.empty() : Optional.of(feed);
+    }
+
+    /**
+     * Evict the feeds of a blog once the current transaction commits.
+     *
+     * @param blogId the id of the blog, {@code null} for none.
+     */
+    public void evictBlog(Long blogId) {
+        if (blogId != null) {
+            evictBlogs(List.of(blogId));
+        }
+    }
+
+    /**
+     * Evict the feeds of blogs once the current transaction commits, with the handles known to have no blog: one of
+     * the blogs may have taken it.
+     *
+     * @param blogIds the ids of the blogs.
+     */
+    public void evictBlogs(Collection<Long> blogIds) {
+        if (blogIds.isEmpty()) {
+            return;
+        }
+        // Keyed by handle: the handle of the blog may have changed since its feeds were rendered
+        TransactionHooks.afterCommit(() ->
+            feeds.asMap().values().removeIf(feed -> feed == NOT_FOUND || blogIds.contains(feed.getBlogId()))
+        );
+    }
+
+    /**
+     * Evict all the feeds once the current transaction commits.
+     */
+    public void evictAll() {
+        TransactionHooks.afterCommit(feeds::invalidateAll);
+    }
+
+    private RenderedFeed render(Blog blog, Format format) {
+        log.debug("Rendering the {} feed of Blog : {}", format, blog.getId());
+        List<Post> posts = postRepository.findLatestByBlogId(blog.getId(), PageRequest.of(0, entries));
+        Instant updated = posts.stream().map(Post::getDate).max(Instant::compareTo).orElse(null);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        CRC32 checksum = new CRC32();
+        try (OutputStream out = new CheckedOutputStream(new GZIPOutputStream(gzipped), checksum)) {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            if (format == Format.ATOM) {
+                writeAtom(xml, blog, posts, updated);
+            } else {
+                writeRss(xml, blog, posts, updated);
+            }
+            xml.writeEndDocument();
+            xml.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not render the " + format + " feed of blog " + blog.getId(), e);
+        }
+        // Weak: the gzipped and identity encodings of a feed are the same representation
+        String eTag = "W/\"" + Long.toHexString(checksum.getValue()) + "\"";
+        return new RenderedFeed(blog.getId(), format, gzipped.toByteArray(), eTag, updated);
+    }
+
+    private void writeAtom(XMLStreamWriter xml, Blog blog, List<Post> posts, Instant updated) throws XMLStreamException {
+        String feedUrl = baseUrl + "/feeds/blogs/" + blog.getHandle() + ".atom";
+        xml.writeStartElement("feed");
+        xml.writeDefaultNamespace(ATOM_NAMESPACE);
+        writeElement(xml, "title", blog.getName());
+        writeElement(xml, "id", feedUrl);
+        writeLink(xml, "self", feedUrl);
+        writeLink(xml, "alternate", blogUrl(blog));
+        writeElement(xml, "updated", DateTimeFormatter.ISO_INSTANT.format(Objects.requireNonNullElse(updated, Instant.EPOCH)));
+        xml.writeStartElement("author");
+        writeElement(xml, "name", blog.getName());
+        xml.writeEndElement();
+        for (Post post : posts) {
+            xml.writeStartElement("entry");
+            writeElement(xml, "title", post.getTitle());
+            writeElement(xml, "id", postUrl(post));
+            writeLink(xml, "alternate", postUrl(post));
+            writeElement(xml, "updated", DateTimeFormatter.ISO_INSTANT.format(post.getDate()));
+            xml.writeStartElement("content");
+            xml.writeAttribute("type", "text");
+            xml.writeCharacters(post.getContent());
+            xml.writeEndElement();
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private void writeRss(XMLStreamWriter xml, Blog blog, List<Post> posts, Instant updated) throws XMLStreamException {
+        xml.writeStartElement("rss");
+        xml.writeAttribute("version", "2.0");
+        xml.writeStartElement("channel");
+        writeElement(xml, "title", blog.getName());
+        writeElement(xml, "link", blogUrl(blog));
+        writeElement(xml, "description", blog.getName());
+        if (updated != null) {
+            writeElement(xml, "lastBuildDate", RSS_DATE.format(updated));
+        }
+        for (Post post : posts) {
+            xml.writeStartElement("item");
+            writeElement(xml, "title", post.getTitle());
+            writeElement(xml, "link", postUrl(post));
+            xml.writeStartElement("guid");
+            xml.writeAttribute("isPermaLink", "true");
+            xml.writeCharacters(postUrl(post));
+            xml.writeEndElement();
+            writeElement(xml, "pubDate", RSS_DATE.format(post.getDate()));
+            writeElement(xml, "description", post.getContent());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private static void writeLink(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private String blogUrl(Blog blog) {
+        return baseUrl + "/blog/" + blog.getId();
+    }
+
+    private String postUrl(Post post) {
+        return baseUrl + "/post/" + post.getId();
+    }
+
+    /**
+     * A feed as rendered, gzipped.
+     */
+    public static final class RenderedFeed {
+
+        private final Long blogId;
+
+        private final Format format;
+
+        private final byte[] gzipped;
+
+        private final String eTag;
+
+        private final Instant lastModified;
+
+        private RenderedFeed(Long blogId, Format format, byte[] gzipped, String eTag, Instant lastModified) {
+            this.blogId = blogId;
+            this.format = format;
+            this.gzipped = gzipped;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public Long getBlogId() {
+            return blogId;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+
+        /**
+         * @return the gzipped feed, not to be modified.
+         */
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return the date of the latest post of the feed, empty if it has none.
+         */
+        public Optional<Instant> getLastModified() {
+            return Optional.ofNullable(lastModified);
+        }
+    }
+}
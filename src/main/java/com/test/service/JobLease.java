@@ -0,0 +1,63 @@
+package com.test.service;
+
+/**
+ * The lock of a scheduled job, or of a shard of it, held by this instance of the application, see
+ * {@link SchedulerCoordinator}.
+ */
+public final class JobLease {
+
+    private final String name;
+
+    private final long token;
+
+    private final int shard;
+
+    private final long fromKey;
+
+    private final long toKey;
+
+    JobLease(String name, long token, int shard, long fromKey, long toKey) {
+        this.name = name;
+        this.token = token;
+        this.shard = shard;
+        this.fromKey = fromKey;
+        this.toKey = toKey;
+    }
+
+    /**
+     * @return the name of the lease: the name of the job, suffixed with the shard if the job is sharded.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the fencing token: greater than the tokens of all the previous holders of the lease.
+     */
+    public long getToken() {
+        return token;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * @return the lower bound of the keys of the shard, excluded.
+     */
+    public long getFromKey() {
+        return fromKey;
+    }
+
+    /**
+     * @return the upper bound of the keys of the shard, included.
+     */
+    public long getToKey() {
+        return toKey;
+    }
+
+    @Override
+    public String toString() {
+        return "JobLease{name='" + name + "', token=" + token + ", fromKey=" + fromKey + ", toKey=" + toKey + "}";
+    }
+}
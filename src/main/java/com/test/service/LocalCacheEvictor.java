@@ -0,0 +1,106 @@
+package com.test.service;
+
+import com.test.domain.OutboxEvent;
+import com.test.domain.enumeration.OutboxEventType;
+import com.test.repository.PostRepository;
+import com.test.repository.TagRepository;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local subscriber of the outbox evicting the changed posts, blogs and tags from the caches of its instance: ETags,
+ * page counts, feeds and tag suggestions. The instance which made a change evicts them as soon as it commits, for
+ * its clients to read their own writes; the others do when they get its events, instead of waiting for the expiry.
+ * <p>
+ * The feeds of the blogs of the changed posts are evicted, and all the feeds once a post is deleted. The feed of the
+ * blog which a post was moved from is left to its expiry.
+ */
+@Service
+public class LocalCacheEvictor implements OutboxSubscriber {
+
+    private final ETagService eTagService;
+
+    private final PageCountService pageCountService;
+
+    private final FeedService feedService;
+
+    private final TagSuggestService tagSuggestService;
+
+    private final PostRepository postRepository;
+
+    private final TagRepository tagRepository;
+
+    public LocalCacheEvictor(
+        ETagService eTagService,
+        PageCountService pageCountService,
+        FeedService feedService,
+        TagSuggestService tagSuggestService,
+        PostRepository postRepository,
+        TagRepository tagRepository
+    ) {
+        this.eTagService = eTagService;
+        this.pageCountService = pageCountService;
+        this.feedService = feedService;
+        this.tagSuggestService = tagSuggestService;
+        this.postRepository = postRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "local-cache-eviction";
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        Set<Long> postIds = new HashSet<>();
+        Set<Long> blogIds = new HashSet<>();
+        Set<Long> savedTagIds = new HashSet<>();
+        boolean postDeleted = false;
+        for (OutboxEvent event : events) {
+            Long id = event.getAggregateId();
+            boolean deleted = event.getEventType() == OutboxEventType.DELETED;
+            switch (event.getAggregateType()) {
+                case "Post":
+                    eTagService.evictPost(id);
+                    postIds.add(id);
+                    postDeleted |= deleted;
+                    break;
+                case "Blog":
+                    eTagService.evictBlog(id);
+                    blogIds.add(id);
+                    break;
+                case "Tag":
+                    eTagService.evictTag(id);
+                    if (deleted) {
+                        savedTagIds.remove(id);
+                        tagSuggestService.tagDeleted(id);
+                    } else {
+                        savedTagIds.add(id);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        pageCountService.evictAll();
+        if (postDeleted) {
+            feedService.evictAll();
+        } else {
+            if (!postIds.isEmpty()) {
+                blogIds.addAll(postRepository.findBlogIdsByIdIn(postIds));
+            }
+            feedService.evictBlogs(blogIds);
+        }
+        if (!savedTagIds.isEmpty()) {
+            tagRepository.findAllById(savedTagIds).forEach(tagSuggestService::tagSaved);
+        }
+    }
+}
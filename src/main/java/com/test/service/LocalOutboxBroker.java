@@ -0,0 +1,25 @@
+package com.test.service;
+
+import com.test.domain.OutboxEvent;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stand-in for a message broker, which logs the events it gets, for development and tests.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.outbox", name = "broker", havingValue = "local")
+public class LocalOutboxBroker implements OutboxBroker {
+
+    private final Logger log = LoggerFactory.getLogger(LocalOutboxBroker.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(event ->
+            log.info("Published {} {} #{} [{}]", event.getAggregateType(), event.getEventType(), event.getAggregateId(), event.getDedupKey())
+        );
+    }
+}
@@ -0,0 +1,317 @@
+package com.test.service;
+
+import com.test.config.ApplicationProperties;
+import com.test.domain.MailMessage;
+import com.test.domain.enumeration.MailStatus;
+import com.test.repository.MailMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails queued by {@link MailService}.
+ * <p>
+ * Each worker of the {@code mailTaskExecutor} claims a batch of due emails in a short transaction, skipping those locked
+ * by the other workers or instances, and sends them over a single SMTP connection, outside any transaction. Sent
+ * emails are then deleted in a second short transaction. A claim expires after
+ * {@code application.mail-queue.claim-seconds}, for the emails of a worker which died while sending them to be claimed
+ * again: delivery is at least once. A failed email is tried again after a delay doubling on each attempt, and given up
+ * on after {@code application.mail-queue.max-attempts}.
+ */
+@Service
+public class MailDispatcher {
+
+    private final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final MailMessageRepository mailMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor mailTaskExecutor;
+
+    private final String from;
+
+    private final ApplicationProperties.MailQueue properties;
+
+    private final SchedulerCoordinator schedulerCoordinator;
+
+    private final AtomicInteger runningWorkers = new AtomicInteger();
+
+    private final AtomicLong pendingMails = new AtomicLong();
+
+    private final AtomicLong failedMails = new AtomicLong();
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private final Timer delivery;
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter abandoned;
+
+    public MailDispatcher(
+        MailMessageRepository mailMessageRepository,
+        JavaMailSender javaMailSender,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("mailTaskExecutor") Executor mailTaskExecutor,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SchedulerCoordinator schedulerCoordinator,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailTaskExecutor = mailTaskExecutor;
+        this.from = jHipsterProperties.getMail().getFrom();
+        this.properties = applicationProperties.getMailQueue();
+        this.schedulerCoordinator = schedulerCoordinator;
+        Gauge
+            .builder("mail.queue.pending", pendingMails, AtomicLong::get)
+            .description("Number of queued emails not yet sent")
+            .register(meterRegistry);
+        Gauge
+            .builder("mail.queue.failed", failedMails, AtomicLong::get)
+            .description("Number of queued emails given up on")
+            .register(meterRegistry);
+        Gauge
+            .builder("mail.queue.lag", lagSeconds, AtomicLong::get)
+            .description("Age in seconds of the oldest queued email not yet sent")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.delivery =
+            Timer.builder("mail.delivery").description("Time from the queuing of the emails to their sending").register(meterRegistry);
+        this.sent = Counter.builder("mail.sent").description("Number of emails sent").register(meterRegistry);
+        this.retried =
+            Counter
+                .builder("mail.failures")
+                .description("Number of failed attempts to send an email")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.abandoned =
+            Counter
+                .builder("mail.failures")
+                .description("Number of failed attempts to send an email")
+                .tag("outcome", "abandoned")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start sending the due emails, on each worker until none is left, unless the workers started before are still
+     * sending: they take the emails queued since.
+     * <p>
+     * This is scheduled to run every second. It returns once the workers are started, for the emails not to hold the
+     * scheduler threads shared with the other scheduled tasks.
+     */
+    @Scheduled(initialDelay = 1_000, fixedDelay = 1_000)
+    public void dispatch() {
+        if (!properties.isEnabled() || !runningWorkers.compareAndSet(0, properties.getWorkers())) {
+            return;
+        }
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            try {
+                mailTaskExecutor.execute(() -> {
+                    try {
+                        dispatchBatches();
+                    } finally {
+                        runningWorkers.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                runningWorkers.decrementAndGet();
+                log.warn("Could not start a worker sending the queued emails: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Refresh the gauges of the queue.
+     * <p>
+     * This is scheduled to run every 15 seconds.
+     */
+    @Scheduled(initialDelay = 1_000, fixedDelay = 15_000)
+    public void updateQueueMetrics() {
+        List<MailStatus> queued = List.of(MailStatus.PENDING, MailStatus.SENDING);
+        pendingMails.set(mailMessageRepository.countByStatusIn(queued));
+        failedMails.set(mailMessageRepository.countByStatusIn(List.of(MailStatus.FAILED)));
+        lagSeconds.set(
+            mailMessageRepository
+                .findFirstByStatusInOrderByIdAsc(queued)
+                .map(mail -> Math.max(Duration.between(mail.getCreatedDate(), Instant.now()).getSeconds(), 0))
+                .orElse(0L)
+        );
+    }
+
+    /**
+     * Delete the emails given up on, once they are older than the retention period.
+     * <p>
+     * This is scheduled to run every day, at 02:45 (am), on one instance of the application.
+     */
+    @Scheduled(cron = "0 45 2 * * ?")
+    public void purge() {
+        schedulerCoordinator.runExclusive(
+            "purge-failed-mails",
+            () -> {
+                Instant before = Instant.now().minus(Duration.ofDays(properties.getRetentionDays()));
+                Integer deleted = transactionTemplate.execute(status ->
+                    mailMessageRepository.deleteByStatusAndCreatedDateBefore(MailStatus.FAILED, before)
+                );
+                log.debug("Purged {} failed emails", deleted);
+            }
+        );
+    }
+
+    private void dispatchBatches() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == properties.getBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Could not dispatch the queued emails, retrying: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the number of emails tried.
+     */
+    private int dispatchBatch() {
+        Instant now = Instant.now();
+        List<MailMessage> mails = transactionTemplate.execute(status -> claim(now));
+        if (!mails.isEmpty()) {
+            send(mails, now);
+        }
+        return mails.size();
+    }
+
+    private List<MailMessage> claim(Instant now) {
+        List<MailMessage> mails = mailMessageRepository.findDueSkipLocked(now, PageRequest.of(0, properties.getBatchSize()));
+        Instant claimedUntil = now.plusSeconds(properties.getClaimSeconds());
+        for (MailMessage mail : mails) {
+            mail.setStatus(MailStatus.SENDING);
+            mail.setNextAttemptDate(claimedUntil);
+        }
+        return mails;
+    }
+
+    /**
+     * Send claimed emails, then delete those sent and reschedule the others.
+     */
+    private void send(List<MailMessage> mails, Instant now) {
+        List<MailMessage> unsentMails = new ArrayList<>();
+        Map<MimeMessage, MailMessage> messages = new LinkedHashMap<>();
+        for (MailMessage mail : mails) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                fail(mail, e, now);
+                unsentMails.add(mail);
+            }
+        }
+        Map<Object, Exception> failures = Map.of();
+        try {
+            if (!messages.isEmpty()) {
+                // Over one connection
+                javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            // Also thrown if the server is unavailable, with all the messages failed
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            failures = new LinkedHashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failures.put(message, e);
+            }
+        }
+        List<MailMessage> sentMails = new ArrayList<>();
+        for (Map.Entry<MimeMessage, MailMessage> message : messages.entrySet()) {
+            MailMessage mail = message.getValue();
+            Exception failure = failures.get(message.getKey());
+            if (failure != null) {
+                fail(mail, failure, now);
+                unsentMails.add(mail);
+            } else {
+                log.debug("Sent email #{} to '{}'", mail.getId(), mail.getRecipient());
+                delivery.record(Duration.between(mail.getCreatedDate(), Instant.now()));
+                sentMails.add(mail);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentMails.isEmpty()) {
+                mailMessageRepository.deleteAllByIdInBatch(sentMails.stream().map(MailMessage::getId).collect(Collectors.toList()));
+            }
+            mailMessageRepository.saveAll(unsentMails);
+        });
+        sent.increment(sentMails.size());
+    }
+
+    private MimeMessage toMimeMessage(MailMessage mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(from);
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.isHtml());
+        return mimeMessage;
+    }
+
+    private void fail(MailMessage mail, Exception e, Instant now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(StringUtils.abbreviate(e.getMessage(), 255));
+        if (attempts >= properties.getMaxAttempts()) {
+            mail.setStatus(MailStatus.FAILED);
+            abandoned.increment();
+            log.error("Email #{} could not be sent to '{}' after {} attempts, giving up", mail.getId(), mail.getRecipient(), attempts, e);
+        } else {
+            Duration backoff = backoff(attempts);
+            mail.setStatus(MailStatus.PENDING);
+            mail.setNextAttemptDate(now.plus(backoff));
+            retried.increment();
+            log.warn("Email #{} could not be sent to '{}', retrying in {}: {}", mail.getId(), mail.getRecipient(), backoff, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the delay after the given number of failed attempts.
+     */
+    private Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoffSeconds();
+        long max = properties.getMaxBackoffSeconds();
+        // Doubled on each attempt, until the maximum: the shift stays well below an overflow
+        return Duration.ofSeconds(Math.min(initial << Math.min(attempts - 1, 20), max));
+    }
+}
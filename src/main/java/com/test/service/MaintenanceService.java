@@ -0,0 +1,160 @@
+package com.test.service;
+
+import com.test.config.ApplicationProperties;
+import com.test.domain.MaintenanceJob;
+import com.test.repository.MaintenanceJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service running the {@link BatchedMaintenanceJob}s.
+ * <p>
+ * A job processes its table in chunks of {@code application.maintenance.chunk-size} ids, each in its own
+ * transaction: a large run neither holds locks nor grows a persistence context for its whole duration. The last id
+ * processed is saved with each chunk, so that a run interrupted by a failure or a restart resumes where it stopped.
+ * <p>
+ * A job runs under the {@link JobLease} of its scheduled job, see {@link SchedulerCoordinator}. The lease is renewed
+ * before each chunk, and the progress of a chunk is only saved while the lease has its fencing token: a chunk is
+ * rolled back if another instance acquired the lease since, and the run stops.
+ */
+@Service
+public class MaintenanceService {
+
+    private final Logger log = LoggerFactory.getLogger(MaintenanceService.class);
+
+    private final MaintenanceJobRepository maintenanceJobRepository;
+
+    private final SchedulerCoordinator schedulerCoordinator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Maintenance properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicLong> remainingIds = new ConcurrentHashMap<>();
+
+    public MaintenanceService(
+        MaintenanceJobRepository maintenanceJobRepository,
+        SchedulerCoordinator schedulerCoordinator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.maintenanceJobRepository = maintenanceJobRepository;
+        this.schedulerCoordinator = schedulerCoordinator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMaintenance();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a job until it processed all its ids, resuming its interrupted run if any.
+     *
+     * @param job the job to run.
+     * @param lease the lease of the job, held by this instance.
+     * @return the number of rows processed.
+     * @throws IllegalStateException if another instance acquired the lease during the run.
+     */
+    public long run(BatchedMaintenanceJob job, JobLease lease) {
+        String name = job.getName();
+        createState(name);
+        long processed = 0;
+        try {
+            long maxId = transactionTemplate.execute(status -> job.findMaxId().orElse(0L));
+            long savedLastId = transactionTemplate.execute(status -> maintenanceJobRepository.findLastIdByName(name));
+            long lastId = Math.max(savedLastId, job.getFromId());
+            if (savedLastId > job.getFromId()) {
+                log.info("Resuming maintenance job {} after id {}", name, lastId);
+            }
+            AtomicLong remaining = remainingIds(name);
+            Timer chunks = Timer
+                .builder("maintenance.chunks")
+                .description("Execution time of the chunks of the maintenance jobs")
+                .tag("job", name)
+                .register(meterRegistry);
+            Counter rows = Counter
+                .builder("maintenance.rows")
+                .description("Number of rows processed by the maintenance jobs")
+                .tag("job", name)
+                .register(meterRegistry);
+            while (lastId < maxId) {
+                long fromId = lastId;
+                long toId = Math.min(lastId + properties.getChunkSize(), maxId);
+                if (!schedulerCoordinator.renew(lease)) {
+                    throw lostLease(job, lease);
+                }
+                int chunk = chunks.record(() -> processChunk(job, lease, fromId, toId));
+                processed += chunk;
+                rows.increment(chunk);
+                lastId = toId;
+                remaining.set(maxId - lastId);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (maintenanceJobRepository.complete(name, lease.getName(), lease.getToken(), Instant.now()) == 0) {
+                    throw lostLease(job, lease);
+                }
+            });
+            log.info("Completed maintenance job {}: {} rows processed", name, processed);
+            return processed;
+        } catch (RuntimeException e) {
+            log.warn("Maintenance job {} stopped after {} rows, its next run resumes it: {}", name, processed, e.getMessage());
+            throw e;
+        }
+    }
+
+    private int processChunk(BatchedMaintenanceJob job, JobLease lease, long fromId, long toId) {
+        return transactionTemplate.execute(status -> {
+            int processed = job.processChunk(fromId, toId);
+            if (maintenanceJobRepository.progress(job.getName(), lease.getName(), lease.getToken(), toId) == 0) {
+                throw lostLease(job, lease);
+            }
+            return processed;
+        });
+    }
+
+    private void createState(String name) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!maintenanceJobRepository.existsById(name)) {
+                    MaintenanceJob maintenanceJob = new MaintenanceJob();
+                    maintenanceJob.setName(name);
+                    maintenanceJobRepository.save(maintenanceJob);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created by another instance
+        }
+    }
+
+    private IllegalStateException lostLease(BatchedMaintenanceJob job, JobLease lease) {
+        return new IllegalStateException("Lost the lease " + lease + " of maintenance job " + job.getName());
+    }
+
+    private AtomicLong remainingIds(String name) {
+        return remainingIds.computeIfAbsent(
+            name,
+            key -> {
+                AtomicLong remaining = new AtomicLong();
+                Gauge
+                    .builder("maintenance.remaining", remaining, AtomicLong::get)
+                    .description("Number of ids the maintenance job has left to process in its current run")
+                    .tag("job", key)
+                    .register(meterRegistry);
+                return remaining;
+            }
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.test.service;
+
+import com.test.domain.OutboxEvent;
+import java.util.List;
+
+/**
+ * A message broker the {@link OutboxRelay} publishes the events to, as the {@value OutboxRelay#BROKER} subscriber.
+ * <p>
+ * {@link LocalOutboxBroker} stands in for a real one, with {@code application.outbox.broker: local}.
+ */
+public interface OutboxBroker {
+    /**
+     * Publish events in order, keyed by their dedup key, and return once the broker acknowledged them.
+     *
+     * @param events the events.
+     */
+    void publish(List<OutboxEvent> events);
+}
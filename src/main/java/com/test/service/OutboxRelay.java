@@ -0,0 +1,351 @@
+package com.test.service;
+
+import com.test.config.ApplicationProperties;
+import com.test.domain.OutboxEvent;
+import com.test.domain.OutboxOffset;
+import com.test.repository.OutboxEventRepository;
+import com.test.repository.OutboxOffsetRepository;
+import com.test.service.dto.OutboxSubscriberDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service relaying the {@link OutboxEvent}s to the {@link OutboxSubscriber}s, and to the {@link OutboxBroker} if any.
+ * <p>
+ * Each subscriber has its own offset, the id of the last event it handled: batches of the following events are
+ * delivered in order, and the offset is moved in the transaction that read them, once the subscriber returned. A
+ * failed batch is delivered again on the next run, so delivery is at least once. The offset row is locked while
+ * delivering, so that one instance of the application relays to a given subscriber at a time. The offsets of the
+ * {@link OutboxSubscriber#isLocal() local} subscribers are kept in memory instead, from the last event at startup:
+ * every instance relays to its own.
+ * <p>
+ * Event ids are assigned on insert, but transactions commit in any order: an event can appear after events with
+ * greater ids. The relay stops at a gap in the ids until the events after it are older than
+ * {@code application.outbox.gap-timeout-seconds}; past that, the missing ids are taken as rolled back.
+ */
+@Service
+public class OutboxRelay {
+
+    /**
+     * The name of the {@link OutboxBroker} subscriber.
+     */
+    public static final String BROKER = "broker";
+
+    /**
+     * The offset of a local subscriber until the application is ready.
+     */
+    private static final long NOT_STARTED = -1;
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxOffsetRepository outboxOffsetRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Outbox properties;
+
+    private final SchedulerCoordinator schedulerCoordinator;
+
+    private final Map<String, Subscription> subscriptions = new LinkedHashMap<>();
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        OutboxOffsetRepository outboxOffsetRepository,
+        PlatformTransactionManager transactionManager,
+        List<OutboxSubscriber> subscribers,
+        ObjectProvider<OutboxBroker> broker,
+        ApplicationProperties applicationProperties,
+        SchedulerCoordinator schedulerCoordinator,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getOutbox();
+        this.schedulerCoordinator = schedulerCoordinator;
+        for (OutboxSubscriber subscriber : subscribers) {
+            subscriptions.put(
+                subscriber.getName(),
+                new Subscription(subscriber.getName(), subscriber::onEvents, subscriber.isLocal(), meterRegistry)
+            );
+        }
+        broker.ifAvailable(outboxBroker ->
+            subscriptions.put(BROKER, new Subscription(BROKER, outboxBroker::publish, false, meterRegistry))
+        );
+    }
+
+    /**
+     * Create the offsets of the new subscribers, from the first retained event, and those of the local subscribers,
+     * from the last event.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createOffsets() {
+        long maxId = outboxEventRepository.findMaxId().orElse(0L);
+        for (Subscription subscription : subscriptions.values()) {
+            String name = subscription.name;
+            if (subscription.local) {
+                subscription.lastEventId.compareAndSet(NOT_STARTED, maxId);
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!outboxOffsetRepository.existsById(name)) {
+                        outboxOffsetRepository.save(offset(name, 0));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Created by another instance
+            }
+        }
+    }
+
+    /**
+     * Deliver the pending events to all the subscribers.
+     * <p>
+     * This is scheduled to run every second.
+     */
+    @Scheduled(initialDelay = 1_000, fixedDelay = 1_000)
+    public void relay() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        long maxId = outboxEventRepository.findMaxId().orElse(0L);
+        for (Subscription subscription : subscriptions.values()) {
+            try {
+                int delivered;
+                do {
+                    delivered = relayBatch(subscription, now);
+                } while (delivered == properties.getBatchSize());
+            } catch (RuntimeException e) {
+                subscription.failures.increment();
+                log.warn("Could not deliver the outbox events to {}, retrying: {}", subscription.name, e.getMessage(), e);
+            }
+            updateLag(subscription, maxId, now);
+        }
+    }
+
+    /**
+     * Deliver the events again to a subscriber, from an offset.
+     *
+     * @param subscriber the name of the subscriber.
+     * @param lastEventId the id of the last event the subscriber is considered to have handled.
+     * @return the state of the subscriber, empty if it does not exist.
+     */
+    public Optional<OutboxSubscriberDTO> replay(String subscriber, long lastEventId) {
+        if (!subscriptions.containsKey(subscriber)) {
+            return Optional.empty();
+        }
+        log.info("Replaying the outbox events to {} after #{}", subscriber, lastEventId);
+        Subscription subscription = subscriptions.get(subscriber);
+        if (!subscription.local) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Waits for the delivery in progress, if any
+                OutboxOffset offset = outboxOffsetRepository
+                    .findWithLockBySubscriber(subscriber)
+                    .orElseGet(() -> offset(subscriber, 0));
+                offset.setLastEventId(lastEventId);
+                offset.setLastModifiedDate(Instant.now());
+                outboxOffsetRepository.save(offset);
+            });
+        }
+        subscription.lastEventId.set(lastEventId);
+        return Optional.of(toDTO(subscription));
+    }
+
+    /**
+     * @return the state of the subscribers.
+     */
+    public List<OutboxSubscriberDTO> findAllSubscribers() {
+        return subscriptions.values().stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Delete the events that all the subscribers handled, once they are older than the retention period.
+     * <p>
+     * This is scheduled to run every day, at 02:30 (am), on one instance of the application.
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void purge() {
+        schedulerCoordinator.runExclusive(
+            "purge-outbox-events",
+            () -> {
+                Instant before = Instant.now().minus(Duration.ofDays(properties.getRetentionDays()));
+                Integer deleted = transactionTemplate.execute(status -> {
+                    long handled = outboxOffsetRepository.findMinLastEventId().orElse(Long.MAX_VALUE);
+                    return outboxEventRepository.deleteByIdLessThanEqualAndCreatedDateBefore(handled, before);
+                });
+                log.debug("Purged {} outbox events", deleted);
+            }
+        );
+    }
+
+    /**
+     * @return the number of delivered events.
+     */
+    private int relayBatch(Subscription subscription, Instant now) {
+        Integer delivered = transactionTemplate.execute(status -> {
+            OutboxOffset offset = null;
+            long lastEventId;
+            if (subscription.local) {
+                lastEventId = subscription.lastEventId.get();
+                if (lastEventId == NOT_STARTED) {
+                    return 0;
+                }
+            } else {
+                Optional<OutboxOffset> locked = outboxOffsetRepository.findBySubscriberSkipLocked(subscription.name);
+                if (locked.isEmpty()) {
+                    // Another instance is delivering
+                    return 0;
+                }
+                offset = locked.get();
+                lastEventId = offset.getLastEventId();
+            }
+            List<OutboxEvent> events = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(
+                lastEventId,
+                PageRequest.of(0, properties.getBatchSize())
+            );
+            events = withoutRecentGap(lastEventId, events, now.minusSeconds(properties.getGapTimeoutSeconds()));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            subscription.handler.accept(events);
+            long deliveredEventId = events.get(events.size() - 1).getId();
+            if (offset == null) {
+                // Unless replayed meanwhile
+                subscription.lastEventId.compareAndSet(lastEventId, deliveredEventId);
+            } else {
+                offset.setLastEventId(deliveredEventId);
+                offset.setLastModifiedDate(Instant.now());
+            }
+            return events.size();
+        });
+        subscription.delivered.increment(delivered);
+        // A batch cut at a gap does not fill the batch size, which ends the run
+        return delivered;
+    }
+
+    /**
+     * @return the events before the first gap in their ids, if the event after it is recent enough for the missing
+     * ids to be held by transactions still running.
+     */
+    private static List<OutboxEvent> withoutRecentGap(long lastEventId, List<OutboxEvent> events, Instant settled) {
+        long expectedId = lastEventId + 1;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (event.getId() != expectedId && event.getCreatedDate().isAfter(settled)) {
+                return events.subList(0, i);
+            }
+            expectedId = event.getId() + 1;
+        }
+        return events;
+    }
+
+    private void updateLag(Subscription subscription, long maxId, Instant now) {
+        Optional<Long> offset = subscription.local
+            ? Optional.of(subscription.lastEventId.get()).filter(lastEventId -> lastEventId != NOT_STARTED)
+            : outboxOffsetRepository.findById(subscription.name).map(OutboxOffset::getLastEventId);
+        offset.ifPresent(lastEventId -> {
+            subscription.lastEventId.set(lastEventId);
+            subscription.pendingEvents.set(Math.max(maxId - lastEventId, 0));
+            subscription.lagSeconds.set(
+                outboxEventRepository
+                    .findFirstByIdGreaterThanOrderByIdAsc(lastEventId)
+                    .map(event -> Math.max(Duration.between(event.getCreatedDate(), now).getSeconds(), 0))
+                    .orElse(0L)
+            );
+        });
+    }
+
+    private OutboxSubscriberDTO toDTO(Subscription subscription) {
+        return new OutboxSubscriberDTO(
+            subscription.name,
+            subscription.lastEventId.get(),
+            subscription.pendingEvents.get(),
+            subscription.lagSeconds.get()
+        );
+    }
+
+    private static OutboxOffset offset(String subscriber, long lastEventId) {
+        OutboxOffset offset = new OutboxOffset();
+        offset.setSubscriber(subscriber);
+        offset.setLastEventId(lastEventId);
+        offset.setLastModifiedDate(Instant.now());
+        return offset;
+    }
+
+    /**
+     * A subscriber with its metrics, as of the last run.
+     */
+    private static final class Subscription {
+
+        private final String name;
+
+        private final Consumer<List<OutboxEvent>> handler;
+
+        private final boolean local;
+
+        private final AtomicLong lastEventId;
+
+        private final AtomicLong pendingEvents = new AtomicLong();
+
+        private final AtomicLong lagSeconds = new AtomicLong();
+
+        private final Counter delivered;
+
+        private final Counter failures;
+
+        private Subscription(String name, Consumer<List<OutboxEvent>> handler, boolean local, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.handler = handler;
+            this.local = local;
+            this.lastEventId = new AtomicLong(local ? NOT_STARTED : 0);
+            Gauge
+                .builder("outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Number of outbox events not yet delivered to the subscriber")
+                .tag("subscriber", name)
+                .register(meterRegistry);
+            Gauge
+                .builder("outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest outbox event not yet delivered to the subscriber")
+                .tag("subscriber", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+            this.delivered =
+                Counter
+                    .builder("outbox.delivered")
+                    .description("Number of outbox events delivered to the subscriber")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+            this.failures =
+                Counter
+                    .builder("outbox.failures")
+                    .description("Number of failed deliveries of outbox events to the subscriber")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.test.service;
+
+import com.test.domain.Blog;
+import com.test.domain.OutboxEvent;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.domain.enumeration.OutboxEventType;
+import com.test.repository.OutboxEventRepository;
+import java.time.Instant;
+import java.util.Collection;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service writing the change events of {@link Post}, {@link Blog} and {@link Tag} to the outbox, in the transaction
+ * of the change: an event exists if and only if its change is committed.
+ * <p>
+ * The dedup key of an event is made of the entity, the kind of change and the {@code @Version} the change was made
+ * to. Optimistic locking commits at most one change per version, so the same key means the same change. The changes
+ * are flushed before they are recorded, for the version to be incremented: an update which changed nothing keeps the
+ * version, and the key, of the change before it.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Record a change of a post.
+     *
+     * @param eventType the kind of change.
+     * @param post the managed post, with its id.
+     */
+    public void record(OutboxEventType eventType, Post post) {
+        outboxEventRepository.flush();
+        record("Post", post.getId(), post.getVersion(), eventType);
+    }
+
+    /**
+     * Record the creation of posts.
+     *
+     * @param posts the new posts, with their ids.
+     */
+    public void recordCreated(Collection<Post> posts) {
+        outboxEventRepository.flush();
+        posts.forEach(post -> record("Post", post.getId(), post.getVersion(), OutboxEventType.CREATED));
+    }
+
+    /**
+     * Record a change of a blog.
+     *
+     * @param eventType the kind of change.
+     * @param blog the managed blog, with its id.
+     */
+    public void record(OutboxEventType eventType, Blog blog) {
+        outboxEventRepository.flush();
+        record("Blog", blog.getId(), blog.getVersion(), eventType);
+    }
+
+    /**
+     * Record a change of a tag.
+     *
+     * @param eventType the kind of change.
+     * @param tag the managed tag, with its id.
+     */
+    public void record(OutboxEventType eventType, Tag tag) {
+        outboxEventRepository.flush();
+        record("Tag", tag.getId(), tag.getVersion(), eventType);
+    }
+
+    /**
+     * Record an update of a post, blog or tag made in place by its repository, at the version it was updated to.
+     *
+     * @param entityClass the class of the entity.
+     * @param id the id of the updated entity.
+     */
+    public void recordUpdatedInPlace(Class<?> entityClass, Long id) {
+        outboxEventRepository.insertAtCurrentVersion(entityClass, id, OutboxEventType.UPDATED, Instant.now());
+    }
+
+    private void record(String aggregateType, Long aggregateId, long version, OutboxEventType eventType) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setAggregateVersion(version);
+        event.setDedupKey(aggregateType + ':' + aggregateId + ':' + eventType + ':' + version);
+        event.setCreatedDate(Instant.now());
+        outboxEventRepository.save(event);
+    }
+}
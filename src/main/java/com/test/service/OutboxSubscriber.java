@@ -0,0 +1,35 @@
+package com.test.service;
+
+import com.test.domain.OutboxEvent;
+import java.util.List;
+
+/**
+ * An in-process subscriber of the outbox: the {@link OutboxRelay} delivers the events to every bean implementing it.
+ * <p>
+ * Delivery is at least once: a batch is delivered again until it is handled without exception, so subscribers
+ * must skip the events whose {@link OutboxEvent#getDedupKey() dedup key} they already handled, or be idempotent.
+ * <p>
+ * A subscriber is shared by the instances of the application, which deliver each event to it once, unless it is
+ * local: a local subscriber keeps state of its own instance, such as a cache, and gets all the events on every
+ * instance, from the last event at startup.
+ */
+public interface OutboxSubscriber {
+    /**
+     * @return the name of the subscriber, which keys its offset: at most 50 characters.
+     */
+    String getName();
+
+    /**
+     * Handle a batch of events, in the order of the changes.
+     *
+     * @param events the events.
+     */
+    void onEvents(List<OutboxEvent> events);
+
+    /**
+     * @return whether the subscriber is local to each instance of the application: its offset is then kept in memory.
+     */
+    default boolean isLocal() {
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.test.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.config.ApplicationProperties;
+import com.test.repository.TableStatisticsRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service computing the total count of a page of criteria query results, according to a {@link CountMode}.
+ * <p>
+ * Pages are read as slices, with one extra row: when there is no next page, the total is known without counting.
+ * Otherwise, exact counts are run on every request, cached counts are kept per table and criteria until the services
+ * evict them once their writes commit, and estimated counts are read from the planner statistics for unfiltered
+ * queries on large tables.
+ */
+@Service
+public class PageCountService {
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final Cache<String, Long> counts;
+
+    private final long estimateThreshold;
+
+    public PageCountService(TableStatisticsRepository tableStatisticsRepository, ApplicationProperties applicationProperties) {
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        ApplicationProperties.Count properties = applicationProperties.getCount();
+        this.counts =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(properties.getTimeToLiveSeconds()))
+                .build();
+        this.estimateThreshold = properties.getEstimateThreshold();
+    }
+
+    /**
+     * Turn a slice of results into a page, with its total count.
+     *
+     * @param slice the results.
+     * @param table the table of the queried entity.
+     * @param criteria the criteria of the query, whose {@code toString()} is the key of the cached count.
+     * @param filtered whether the criteria has any filter.
+     * @param mode how to compute the count.
+     * @param count the exact count query.
+     * @return the page, an {@link EstimatedPage} if its total is an estimate.
+     */
+    public <T> Page<T> toPage(Slice<T> slice, String table, Object criteria, boolean filtered, CountMode mode, LongSupplier count) {
+        Pageable pageable = slice.getPageable();
+        List<T> content = slice.getContent();
+        long known = pageable.isPaged() ? pageable.getOffset() + content.size() : content.size();
+        if (!slice.hasNext() && (!content.isEmpty() || pageable.isUnpaged() || pageable.getOffset() == 0)) {
+            return new PageImpl<>(content, pageable, known);
+        }
+        // A stale count must not hide the rows that were just read
+        long minimum = slice.hasNext() ? known + 1 : known;
+        if (mode == CountMode.EXACT) {
+            return new PageImpl<>(content, pageable, count.getAsLong());
+        }
+        if (mode == CountMode.ESTIMATED && !filtered) {
+            OptionalLong estimate = tableStatisticsRepository.estimateRowCount(table);
+            if (estimate.isPresent() && estimate.getAsLong() >= estimateThreshold) {
+                return new EstimatedPage<>(content, pageable, Math.max(estimate.getAsLong(), minimum));
+            }
+        }
+        // Filtered, or not large enough for the estimate to be worth its inaccuracy
+        long cached = counts.get(table + ':' + criteria, key -> count.getAsLong());
+        return new PageImpl<>(content, pageable, Math.max(cached, minimum));
+    }
+
+    /**
+     * Evict all the cached counts once the current transaction commits.
+     * <p>
+     * Criteria can filter on relationships, so any write can change the count of any criteria.
+     */
+    public void evictAll() {
+        TransactionHooks.afterCommit(counts::invalidateAll);
+    }
+
+    /**
+     * A page whose total count is a planner estimate.
+     */
+    public static class EstimatedPage<T> extends PageImpl<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        EstimatedPage(List<T> content, Pageable pageable, long total) {
+            super(content, pageable, total);
+        }
+    }
+}
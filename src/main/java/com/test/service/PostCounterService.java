@@ -0,0 +1,215 @@
+package com.test.service;
+
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.repository.BlogRepository;
+import com.test.repository.TagRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the post counters of {@link Blog} and {@link Tag}: the number of posts of each blog and tag,
+ * and the date of the most recent post of each blog. The rollups of {@link PostRollupService} are updated with them.
+ * <p>
+ * Counters are updated in the transaction that saves or deletes the posts, with relative updates that are safe under
+ * concurrent writes. They are recomputed from scratch every night, to repair any drift. The counters are not in the
+ * second-level cache, which the updates leave alone: they are read from {@link com.test.domain.BlogCounters} and
+ * {@link com.test.domain.TagCounters}, and only the ETags of the blogs and tags whose counters changed are evicted.
+ */
+@Service
+@Transactional
+public class PostCounterService {
+
+    private final Logger log = LoggerFactory.getLogger(PostCounterService.class);
+
+    private final BlogRepository blogRepository;
+
+    private final TagRepository tagRepository;
+
+    private final ETagService eTagService;
+
+    private final SchedulerCoordinator schedulerCoordinator;
+
+    private final PostRollupService postRollupService;
+
+    public PostCounterService(
+        BlogRepository blogRepository,
+        TagRepository tagRepository,
+        ETagService eTagService,
+        SchedulerCoordinator schedulerCoordinator,
+        PostRollupService postRollupService
+    ) {
+        this.blogRepository = blogRepository;
+        this.tagRepository = tagRepository;
+        this.eTagService = eTagService;
+        this.schedulerCoordinator = schedulerCoordinator;
+        this.postRollupService = postRollupService;
+    }
+
+    /**
+     * Count new posts.
+     *
+     * @param posts the new posts.
+     */
+    public void postsAdded(Collection<Post> posts) {
+        Map<Long, Long> postsByTag = new HashMap<>();
+        Map<Long, Long> postsByBlog = new HashMap<>();
+        Map<Long, Instant> lastPostDateByBlog = new HashMap<>();
+        List<PostState> states = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            PostState state = PostState.of(post);
+            states.add(state);
+            state.tagIds.forEach(tagId -> postsByTag.merge(tagId, 1L, Long::sum));
+            if (state.blogId != null) {
+                postsByBlog.merge(state.blogId, 1L, Long::sum);
+                lastPostDateByBlog.merge(state.blogId, state.date, (date, other) -> date.isAfter(other) ? date : other);
+            }
+        }
+        // One update per distinct count rather than per tag
+        postsByTag
+            .entrySet()
+            .stream()
+            .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+            .forEach((count, tagIds) -> tagRepository.addToPostCount(tagIds, count));
+        postsByBlog.forEach((blogId, count) -> blogRepository.addPosts(blogId, count, lastPostDateByBlog.get(blogId)));
+        // Under the locks of the blogs, taken by their updates
+        postRollupService.postsAdded(states);
+        evictCounters(postsByBlog.keySet(), postsByTag.keySet());
+    }
+
+    /**
+     * Update the counters of an updated post.
+     *
+     * @param previous the state of the post before the update.
+     * @param post the updated post.
+     */
+    public void postUpdated(PostState previous, Post post) {
+        PostState current = PostState.of(post);
+        Set<Long> removedTagIds = new HashSet<>(previous.tagIds);
+        removedTagIds.removeAll(current.tagIds);
+        Set<Long> addedTagIds = new HashSet<>(current.tagIds);
+        addedTagIds.removeAll(previous.tagIds);
+        if (!removedTagIds.isEmpty()) {
+            tagRepository.addToPostCount(removedTagIds, -1);
+        }
+        if (!addedTagIds.isEmpty()) {
+            tagRepository.addToPostCount(addedTagIds, 1);
+        }
+
+        List<Long> blogIds = new ArrayList<>(2);
+        if (!Objects.equals(previous.blogId, current.blogId)) {
+            if (previous.blogId != null) {
+                blogRepository.removePosts(previous.blogId, 1);
+                blogIds.add(previous.blogId);
+            }
+            if (current.blogId != null) {
+                blogRepository.addPosts(current.blogId, 1, current.date);
+                blogIds.add(current.blogId);
+            }
+        } else if (current.blogId != null && !Objects.equals(previous.date, current.date)) {
+            blogRepository.recomputeLastPostDate(current.blogId);
+            blogIds.add(current.blogId);
+        }
+        postRollupService.postUpdated(previous, current);
+
+        Set<Long> tagIds = new HashSet<>(removedTagIds);
+        tagIds.addAll(addedTagIds);
+        if (!blogIds.isEmpty() || !tagIds.isEmpty()) {
+            evictCounters(blogIds, tagIds);
+        }
+    }
+
+    /**
+     * Uncount a deleted post.
+     *
+     * @param state the state of the post before it was deleted.
+     */
+    public void postRemoved(PostState state) {
+        if (!state.tagIds.isEmpty()) {
+            tagRepository.addToPostCount(state.tagIds, -1);
+        }
+        if (state.blogId != null) {
+            // Recomputes the last post date, without the post
+            blogRepository.removePosts(state.blogId, 1);
+        }
+        postRollupService.postRemoved(state);
+        evictCounters(state.blogId == null ? Collections.emptySet() : Set.of(state.blogId), state.tagIds);
+    }
+
+    /**
+     * Recompute all the counters from the posts.
+     * <p>
+     * This is scheduled to run every day, at 02:00 (am), on one instance of the application.
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void recomputeCounters() {
+        schedulerCoordinator.runExclusive(
+            "recompute-post-counters",
+            () -> {
+                int blogs = blogRepository.recomputePostCounters();
+                int tags = tagRepository.recomputePostCounts();
+                eTagService.evictAllCounters();
+                log.debug("Recomputed the post counters of {} blogs and {} tags", blogs, tags);
+            }
+        );
+    }
+
+    private void evictCounters(Collection<Long> blogIds, Collection<Long> tagIds) {
+        eTagService.evictCounters(blogIds, tagIds);
+    }
+
+    /**
+     * The state of a post that its counters depend on.
+     */
+    public static final class PostState {
+
+        private final Long blogId;
+
+        private final Instant date;
+
+        private final Set<Long> tagIds;
+
+        private PostState(Long blogId, Instant date, Set<Long> tagIds) {
+            this.blogId = blogId;
+            this.date = date;
+            this.tagIds = tagIds;
+        }
+
+        /**
+         * @param post the post, with its tags initialized.
+         * @return the current state of the post.
+         */
+        public static PostState of(Post post) {
+            Long blogId = post.getBlog() == null ? null : post.getBlog().getId();
+            Set<Long> tagIds = post.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+            return new PostState(blogId, post.getDate(), tagIds);
+        }
+
+        public Long getBlogId() {
+            return blogId;
+        }
+
+        public Instant getDate() {
+            return date;
+        }
+
+        public Set<Long> getTagIds() {
+            return tagIds;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.test.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.config.ApplicationProperties;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.repository.PostRepository;
+import com.test.service.criteria.PostCriteria;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting {@link Post} entities which match the criteria.
+ * <p>
+ * Posts are streamed from a forward-only cursor and written as they are read, and the persistence context is cleared
+ * every {@code fetchSize} rows, so memory stays flat whatever the number of matching posts.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PostExportService {
+
+    /**
+     * The supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param name the format name, case-insensitive.
+         * @return the format.
+         * @throws IllegalArgumentException if the format is not supported.
+         */
+        public static Format of(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final String[] CSV_HEADER = { "id", "title", "content", "date", "blog_id", "blog_name" };
+
+    private final Logger log = LoggerFactory.getLogger(PostExportService.class);
+
+    private final PostRepository postRepository;
+
+    private final PostQueryService postQueryService;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Export exportProperties;
+
+    public PostExportService(
+        PostRepository postRepository,
+        PostQueryService postQueryService,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.postRepository = postRepository;
+        this.postQueryService = postQueryService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.exportProperties = applicationProperties.getExport();
+    }
+
+    /**
+     * Write the posts matching the criteria, ordered by id.
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param format the output format.
+     * @param out the stream to write to; it is flushed but not closed.
+     * @return the number of exported posts.
+     * @throws IOException if the output cannot be written.
+     */
+    public long export(PostCriteria criteria, Format format, OutputStream out) throws IOException {
+        log.debug("export by criteria : {}, format: {}", criteria, format);
+        int fetchSize = exportProperties.getFetchSize();
+        try (Stream<Post> posts = postRepository.streamAll(postQueryService.createSpecification(criteria), Sort.by("id"), fetchSize)) {
+            Iterator<Post> iterator = posts.iterator();
+            return format == Format.CSV ? writeCsv(iterator, fetchSize, out) : writeNdjson(iterator, fetchSize, out);
+        }
+    }
+
+    private long writeNdjson(Iterator<Post> posts, int fetchSize, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (posts.hasNext()) {
+                Post post = posts.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", post.getId());
+                generator.writeStringField("title", post.getTitle());
+                generator.writeStringField("content", post.getContent());
+                generator.writeStringField("date", post.getDate() == null ? null : post.getDate().toString());
+                Blog blog = post.getBlog();
+                if (blog == null) {
+                    generator.writeNullField("blog");
+                } else {
+                    generator.writeObjectFieldStart("blog");
+                    generator.writeNumberField("id", blog.getId());
+                    generator.writeStringField("name", blog.getName());
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++count % fetchSize == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Post> posts, int fetchSize, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRecord(writer, (Object[]) CSV_HEADER);
+        while (posts.hasNext()) {
+            Post post = posts.next();
+            Blog blog = post.getBlog();
+            writeCsvRecord(
+                writer,
+                post.getId(),
+                post.getTitle(),
+                post.getContent(),
+                post.getDate(),
+                blog == null ? null : blog.getId(),
+                blog == null ? null : blog.getName()
+            );
+            if (++count % fetchSize == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Write one RFC 4180 record: fields containing a separator, a quote or a line break are quoted.
+     */
+    private static void writeCsvRecord(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] == null) {
+                continue;
+            }
+            String field = fields[i].toString();
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
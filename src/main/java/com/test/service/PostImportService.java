@@ -0,0 +1,275 @@
+package com.test.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.test.config.ApplicationProperties;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.repository.BlogRepository;
+import com.test.repository.TagRepository;
+import com.test.service.dto.PostImportReport;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service Implementation for importing {@link Post} entities in bulk.
+ * <p>
+ * The input is read one line at a time and persisted in chunks, each chunk in its own transaction, so that the
+ * inserts are sent as JDBC batches and memory stays bounded whatever the input size. Blog and tag references of a
+ * chunk are resolved with one query each.
+ */
+@Service
+public class PostImportService {
+
+    private final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    private final BlogRepository blogRepository;
+
+    private final TagRepository tagRepository;
+
+    private final EntityManager entityManager;
+
+    private final TagSuggestService tagSuggestService;
+
+    private final PostCounterService postCounterService;
+
+    private final PageCountService pageCountService;
+
+    private final OutboxService outboxService;
+
+    private final FeedService feedService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ObjectReader postReader;
+
+    private final ApplicationProperties.BulkImport bulkImportProperties;
+
+    public PostImportService(
+        BlogRepository blogRepository,
+        TagRepository tagRepository,
+        EntityManager entityManager,
+        TagSuggestService tagSuggestService,
+        PostCounterService postCounterService,
+        PageCountService pageCountService,
+        OutboxService outboxService,
+        FeedService feedService,
+        PlatformTransactionManager transactionManager,
+        Validator validator,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.blogRepository = blogRepository;
+        this.tagRepository = tagRepository;
+        this.entityManager = entityManager;
+        this.tagSuggestService = tagSuggestService;
+        this.postCounterService = postCounterService;
+        this.pageCountService = pageCountService;
+        this.outboxService = outboxService;
+        this.feedService = feedService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.postReader = objectMapper.readerFor(Post.class);
+        this.bulkImportProperties = applicationProperties.getBulkImport();
+    }
+
+    /**
+     * Import posts from newline-delimited JSON, one post per line. A line that cannot be imported is reported and
+     * does not prevent the other lines from being imported.
+     *
+     * @param input the NDJSON input.
+     * @return the import report.
+     * @throws IOException if the input cannot be read.
+     */
+    public PostImportReport importPosts(Reader input) throws IOException {
+        log.debug("Request to import Posts");
+        PostImportReport report = new PostImportReport(bulkImportProperties.getMaxReportedErrors());
+        int chunkSize = bulkImportProperties.getChunkSize();
+        List<PendingPost> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(input);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Post post = parse(lineNumber, line, report);
+            if (post != null) {
+                chunk.add(new PendingPost(lineNumber, post));
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        log.debug("Imported Posts : {}", report);
+        return report;
+    }
+
+    private Post parse(long lineNumber, String line, PostImportReport report) {
+        Post post;
+        try {
+            post = postReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            report.addError(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (post.getId() != null) {
+            report.addError(lineNumber, "A new post cannot already have an ID");
+            return null;
+        }
+        Set<ConstraintViolation<Post>> violations = validator.validate(post);
+        if (!violations.isEmpty()) {
+            report.addError(
+                lineNumber,
+                violations.stream().map(v -> v.getPropertyPath() + " " + v.getMessage()).sorted().collect(Collectors.joining(", "))
+            );
+            return null;
+        }
+        return post;
+    }
+
+    /**
+     * Persist a chunk in one transaction. If the database rejects it, the chunk is retried one line per transaction
+     * so that only the offending lines are reported.
+     */
+    private void importChunk(List<PendingPost> chunk, PostImportReport report) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> persist(chunk));
+        } catch (DataAccessException | PersistenceException e) {
+            log.debug("Chunk rejected, retrying line by line : {}", e.getMessage());
+            result = new ChunkResult();
+            for (PendingPost pending : chunk) {
+                try {
+                    result.add(transactionTemplate.execute(status -> persist(Collections.singletonList(pending))));
+                } catch (DataAccessException | PersistenceException lineError) {
+                    result.errors.put(pending.lineNumber, "Rejected by the database: " + rootCauseMessage(lineError));
+                }
+            }
+        }
+        report.addImported(result.imported);
+        result.errors.forEach(report::addError);
+    }
+
+    private ChunkResult persist(List<PendingPost> chunk) {
+        ChunkResult result = new ChunkResult();
+        List<Post> persisted = new ArrayList<>(chunk.size());
+        Map<Long, Blog> blogs = findAllById(
+            chunk.stream().map(pending -> pending.post.getBlog()).filter(Objects::nonNull).map(Blog::getId),
+            blogRepository::findAllById,
+            Blog::getId
+        );
+        Map<Long, Tag> tags = findAllById(
+            chunk.stream().flatMap(pending -> pending.post.getTags().stream()).map(Tag::getId),
+            tagRepository::findAllById,
+            Tag::getId
+        );
+        for (PendingPost pending : chunk) {
+            Post post = pending.post;
+            Blog blog = post.getBlog() == null ? null : blogs.get(post.getBlog().getId());
+            if (post.getBlog() != null && blog == null) {
+                result.errors.put(pending.lineNumber, "Blog not found: " + post.getBlog().getId());
+                continue;
+            }
+            Optional<Tag> missingTag = post.getTags().stream().filter(tag -> !tags.containsKey(tag.getId())).findFirst();
+            if (missingTag.isPresent()) {
+                result.errors.put(pending.lineNumber, "Tag not found: " + missingTag.get().getId());
+                continue;
+            }
+            Set<Tag> managedTags = post.getTags().stream().map(tag -> tags.get(tag.getId())).collect(Collectors.toSet());
+            // A previous attempt that was rolled back may have assigned an id
+            Post toPersist = new Post()
+                .title(post.getTitle())
+                .content(post.getContent())
+                .date(post.getDate())
+                .blog(blog)
+                .tags(managedTags);
+            entityManager.persist(toPersist);
+            persisted.add(toPersist);
+            result.imported++;
+        }
+        entityManager.flush();
+        postCounterService.postsAdded(persisted);
+        outboxService.recordCreated(persisted);
+        pageCountService.evictAll();
+        feedService.evictBlogs(blogs.keySet());
+        tagSuggestService.refreshUsage(tags.keySet());
+        entityManager.clear();
+        return result;
+    }
+
+    private static <T> Map<Long, T> findAllById(
+        Stream<Long> ids,
+        Function<Set<Long>, List<T>> finder,
+        Function<T, Long> idGetter
+    ) {
+        Set<Long> distinctIds = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return finder.apply(distinctIds).stream().collect(Collectors.toMap(idGetter, Function.identity()));
+    }
+
+    private static String rootCauseMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private static final class PendingPost {
+
+        private final long lineNumber;
+
+        private final Post post;
+
+        private PendingPost(long lineNumber, Post post) {
+            this.lineNumber = lineNumber;
+            this.post = post;
+        }
+    }
+
+    private static final class ChunkResult {
+
+        private long imported;
+
+        private final Map<Long, String> errors = new TreeMap<>();
+
+        private void add(ChunkResult other) {
+            imported += other.imported;
+            errors.putAll(other.errors);
+        }
+    }
+}
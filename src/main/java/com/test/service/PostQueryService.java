@@ -4,13 +4,31 @@ import com.test.domain.*; // for static metamodels
 import com.test.domain.Post;
 import com.test.repository.PostRepository;
 import com.test.service.criteria.PostCriteria;
+import com.test.service.dto.PostCursor;
+import com.test.service.dto.PostSummaryDTO;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -27,10 +45,23 @@ public class PostQueryService extends QueryService<Post> {
 
     private final Logger log = LoggerFactory.getLogger(PostQueryService.class);
 
+    /**
+     * Upper bound of the excerpt length of {@link PostSummaryDTO}.
+     */
+    public static final int MAX_EXCERPT_LENGTH = 1000;
+
+    private static final String ELLIPSIS = "\u2026";
+
     private final PostRepository postRepository;
 
-    public PostQueryService(PostRepository postRepository) {
+    private final EntityManager entityManager;
+
+    private final PageCountService pageCountService;
+
+    public PostQueryService(PostRepository postRepository, EntityManager entityManager, PageCountService pageCountService) {
         this.postRepository = postRepository;
+        this.entityManager = entityManager;
+        this.pageCountService = pageCountService;
     }
 
     /**
@@ -58,6 +89,72 @@ public class PostQueryService extends QueryService<Post> {
         return postRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link Page} of {@link PostSummaryDTO} which matches the criteria from the database.
+     * The content of the posts is not read, except for the first {@code excerptLength} characters.
+     * The count query is skipped when the page is the last one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param excerptLength The length of the content excerpt, {@code 0} for no excerpt.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> findSummariesByCriteria(PostCriteria criteria, Pageable page, int excerptLength) {
+        return findSummariesByCriteria(criteria, page, excerptLength, CountMode.EXACT);
+    }
+
+    /**
+     * Return a {@link Page} of {@link PostSummaryDTO} which matches the criteria from the database.
+     * The content of the posts is not read, except for the first {@code excerptLength} characters.
+     * The total count is computed according to the count mode, and skipped when the page is the last one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param excerptLength The length of the content excerpt, {@code 0} for no excerpt.
+     * @param countMode How to compute the total count.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> findSummariesByCriteria(PostCriteria criteria, Pageable page, int excerptLength, CountMode countMode) {
+        log.debug("find summaries by criteria : {}, page: {}, excerptLength: {}, count: {}", criteria, page, excerptLength, countMode);
+        final Specification<Post> specification = createSpecification(criteria);
+        Slice<PostSummaryDTO> slice;
+        if (page.isPaged()) {
+            // One more row tells whether there is a next page
+            int size = page.getPageSize();
+            List<PostSummaryDTO> content = findSummaries(specification, page.getSort(), (int) page.getOffset(), size + 1, excerptLength);
+            boolean hasNext = content.size() > size;
+            slice = new SliceImpl<>(hasNext ? content.subList(0, size) : content, page, hasNext);
+        } else {
+            slice = new SliceImpl<>(findSummaries(specification, page.getSort(), 0, Integer.MAX_VALUE, excerptLength), page, false);
+        }
+        boolean filtered = criteria != null && !criteria.equals(new PostCriteria());
+        return pageCountService.toPage(slice, "post", criteria, filtered, countMode, () -> postRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link PostSummaryDTO} which matches the criteria from the database, using keyset
+     * pagination. Posts are ordered by {@link PostCursor#SORT} and no count query is run.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the last post of the previous slice, or {@code null} for the first slice.
+     * @param size The maximum number of entities to return.
+     * @param excerptLength The length of the content excerpt, {@code 0} for no excerpt.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PostSummaryDTO> findSummariesByCriteria(PostCriteria criteria, PostCursor after, int size, int excerptLength) {
+        log.debug("find summaries by criteria : {}, after: {}, size: {}, excerptLength: {}", criteria, after, size, excerptLength);
+        Specification<Post> specification = createSpecification(criteria);
+        if (after != null) {
+            specification = specification.and(seekAfter(after));
+        }
+        List<PostSummaryDTO> content = findSummaries(specification, PostCursor.SORT, 0, size + 1, excerptLength);
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size, PostCursor.SORT), hasNext);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -98,8 +195,116 @@ public class PostQueryService extends QueryService<Post> {
             if (criteria.getTagId() != null) {
                 specification =
                     specification.and(buildSpecification(criteria.getTagId(), root -> root.join(Post_.tags, JoinType.LEFT).get(Tag_.id)));
+                // A post with several of the given tags is joined once per tag
+                specification = specification.and(distinct(true));
             }
         }
         return specification;
     }
+
+    /**
+     * Run the summary projection, then load the tags of the returned posts with one more query.
+     */
+    private List<PostSummaryDTO> findSummaries(
+        Specification<Post> specification,
+        Sort sort,
+        int offset,
+        int limit,
+        int excerptLength
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PostSummaryDTO> query = builder.createQuery(PostSummaryDTO.class);
+        Root<Post> root = query.from(Post.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Join<Post, Blog> blog = blogJoin(root);
+        int length = Math.min(Math.max(excerptLength, 0), MAX_EXCERPT_LENGTH);
+        if (length > 0) {
+            // One more character tells whether the excerpt is truncated
+            query.select(
+                builder.construct(
+                    PostSummaryDTO.class,
+                    root.get(Post_.id),
+                    root.get(Post_.title),
+                    root.get(Post_.date),
+                    blog.get(Blog_.id),
+                    blog.get(Blog_.name),
+                    builder.substring(root.get(Post_.content), 1, length + 1)
+                )
+            );
+        } else {
+            query.select(
+                builder.construct(
+                    PostSummaryDTO.class,
+                    root.get(Post_.id),
+                    root.get(Post_.title),
+                    root.get(Post_.date),
+                    blog.get(Blog_.id),
+                    blog.get(Blog_.name)
+                )
+            );
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        List<PostSummaryDTO> summaries = entityManager.createQuery(query).setFirstResult(offset).setMaxResults(limit).getResultList();
+        for (PostSummaryDTO summary : summaries) {
+            String excerpt = summary.getExcerpt();
+            if (excerpt != null && excerpt.length() > length) {
+                summary.setExcerpt(excerpt.substring(0, length) + ELLIPSIS);
+            }
+        }
+        fetchTags(summaries);
+        return summaries;
+    }
+
+    /**
+     * @return the join of the blog made by the {@code blogId} filter, or a new one: joining the blog twice would read
+     * the blog table twice.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Post, Blog> blogJoin(Root<Post> root) {
+        return root
+            .getJoins()
+            .stream()
+            .filter(join -> join.getAttribute().equals(Post_.blog) && join.getJoinType() == JoinType.LEFT)
+            .map(join -> (Join<Post, Blog>) join)
+            .findFirst()
+            .orElseGet(() -> root.join(Post_.blog, JoinType.LEFT));
+    }
+
+    private void fetchTags(List<PostSummaryDTO> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        // The summaries are distinct: the query is, when the tags are joined
+        Map<Long, PostSummaryDTO> summariesById = summaries.stream().collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+        List<Tuple> rows = entityManager
+            .createQuery("select post.id, tag.id, tag.name from Post post join post.tags tag where post.id in :ids", Tuple.class)
+            .setParameter("ids", summariesById.keySet())
+            .getResultList();
+        for (Tuple row : rows) {
+            summariesById.get(row.get(0, Long.class)).getTags().add(new PostSummaryDTO.TagSummary(row.get(1, Long.class), row.get(2, String.class)));
+        }
+        summariesById.values().forEach(summary -> summary.getTags().sort(Comparator.comparing(PostSummaryDTO.TagSummary::getName)));
+    }
+
+    /**
+     * Function to build the keyset predicate {@code (date, id) < (cursor.date, cursor.id)}.
+     * The redundant {@code date <= cursor.date} bound lets the database start the index scan at the cursor.
+     * @param cursor The cursor of the last post of the previous slice.
+     * @return the matching {@link Specification}.
+     */
+    protected Specification<Post> seekAfter(PostCursor cursor) {
+        return (root, query, builder) ->
+            builder.and(
+                builder.lessThanOrEqualTo(root.get(Post_.date), cursor.getDate()),
+                builder.or(
+                    builder.lessThan(root.get(Post_.date), cursor.getDate()),
+                    builder.lessThan(root.get(Post_.id), cursor.getId())
+                )
+            );
+    }
 }
@@ -0,0 +1,346 @@
+package com.test.service;
+
+import com.test.domain.Blog;
+import com.test.domain.BlogMonthRollup;
+import com.test.domain.BlogTagRollup;
+import com.test.domain.Tag;
+import com.test.repository.BlogMonthRollupRepository;
+import com.test.repository.BlogRepository;
+import com.test.repository.BlogTagRollupRepository;
+import com.test.repository.TagRepository;
+import com.test.service.PostCounterService.PostState;
+import com.test.service.dto.BlogArchiveDTO;
+import com.test.service.dto.TagStatsDTO;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the rollups of the posts of each {@link Blog}: the number of its posts by month, in UTC, and
+ * by {@link Tag}. The archive and top tags widgets read them from their primary key or index, without counting posts.
+ * <p>
+ * Rollups are updated by {@link PostCounterService}, in the transaction that saves or deletes the posts, with relative
+ * updates. The rows of a blog are only written under the lock of the blog, which the post writes take anyway to update
+ * its post counters: a missing row is inserted by the write which needs it without racing another writer, and the
+ * recomputation of a range of blogs, which locks them, sees no write in progress.
+ * <p>
+ * They are recomputed from scratch every night, in chunks of blogs, to repair any drift: the recomputation resumes
+ * where it stopped, and is split by range of blog ids between the instances with {@code application.scheduler.shards}.
+ */
+@Service
+@Transactional
+public class PostRollupService {
+
+    public static final String RECOMPUTE_POST_ROLLUPS = "recompute-post-rollups";
+
+    /**
+     * The maximum number of top tags.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private final Logger log = LoggerFactory.getLogger(PostRollupService.class);
+
+    private final BlogMonthRollupRepository blogMonthRollupRepository;
+
+    private final BlogTagRollupRepository blogTagRollupRepository;
+
+    private final BlogRepository blogRepository;
+
+    private final TagRepository tagRepository;
+
+    private final MaintenanceService maintenanceService;
+
+    private final SchedulerCoordinator schedulerCoordinator;
+
+    public PostRollupService(
+        BlogMonthRollupRepository blogMonthRollupRepository,
+        BlogTagRollupRepository blogTagRollupRepository,
+        BlogRepository blogRepository,
+        TagRepository tagRepository,
+        MaintenanceService maintenanceService,
+        SchedulerCoordinator schedulerCoordinator
+    ) {
+        this.blogMonthRollupRepository = blogMonthRollupRepository;
+        this.blogTagRollupRepository = blogTagRollupRepository;
+        this.blogRepository = blogRepository;
+        this.tagRepository = tagRepository;
+        this.maintenanceService = maintenanceService;
+        this.schedulerCoordinator = schedulerCoordinator;
+    }
+
+    /**
+     * Get the archive of a blog.
+     *
+     * @param blogId the id of the blog.
+     * @return the number of posts of each month with posts, the latest first, empty if the blog does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<BlogArchiveDTO>> findArchive(Long blogId) {
+        log.debug("Request to get the archive of Blog : {}", blogId);
+        List<BlogArchiveDTO> archive = blogMonthRollupRepository.findArchiveByBlogId(blogId);
+        if (archive.isEmpty() && !blogRepository.existsById(blogId)) {
+            return Optional.empty();
+        }
+        return Optional.of(archive);
+    }
+
+    /**
+     * Get the most used tags, of all the blogs or of one.
+     *
+     * @param blogId the id of the blog, {@code null} for all the blogs.
+     * @param limit the maximum number of tags, at most {@value #MAX_LIMIT}.
+     * @return the tags with their number of posts, the most used first.
+     */
+    @Transactional(readOnly = true)
+    public List<TagStatsDTO> findTopTags(Long blogId, int limit) {
+        log.debug("Request to get the top {} Tags of Blog : {}", limit, blogId);
+        PageRequest page = PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_LIMIT));
+        if (blogId == null) {
+            return tagRepository.findTop(page);
+        }
+        return blogTagRollupRepository.findTopByBlogId(blogId, page);
+    }
+
+    /**
+     * Count new posts, once the post counters of their blogs are updated.
+     *
+     * @param states the states of the new posts.
+     */
+    public void postsAdded(Collection<PostState> states) {
+        Deltas deltas = new Deltas();
+        states.forEach(state -> deltas.add(state, 1));
+        apply(deltas);
+    }
+
+    /**
+     * Update the rollups of an updated post, once the post counters of its blogs are updated.
+     *
+     * @param previous the state of the post before the update.
+     * @param current the state of the post after the update.
+     */
+    public void postUpdated(PostState previous, PostState current) {
+        Deltas deltas = new Deltas();
+        deltas.add(previous, -1);
+        deltas.add(current, 1);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        boolean sameBlog = previous.getBlogId() != null && previous.getBlogId().equals(current.getBlogId());
+        if (sameBlog && previous.getDate().equals(current.getDate())) {
+            // Only the tags changed: the post counters of the blog were left alone, and so was its lock
+            blogRepository.lockId(current.getBlogId());
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Uncount a deleted post, once the post counters of its blog are updated.
+     *
+     * @param state the state of the post before it was deleted.
+     */
+    public void postRemoved(PostState state) {
+        Deltas deltas = new Deltas();
+        deltas.add(state, -1);
+        apply(deltas);
+    }
+
+    /**
+     * Delete the rollups of a deleted blog.
+     *
+     * @param blogId the id of the blog.
+     */
+    public void blogDeleted(Long blogId) {
+        blogMonthRollupRepository.deleteByBlogId(blogId);
+        blogTagRollupRepository.deleteByBlogId(blogId);
+    }
+
+    /**
+     * Recompute all the rollups from the posts, in chunks of blogs.
+     * <p>
+     * This is scheduled to run every day, at 02:30 (am), each shard of the blogs on one instance of the application.
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void recomputeRollups() {
+        long maxId = blogRepository.findMaxId().orElse(0L);
+        schedulerCoordinator.runSharded(
+            RECOMPUTE_POST_ROLLUPS,
+            maxId,
+            lease -> {
+                long recomputed = maintenanceService.run(
+                    new BatchedMaintenanceJob() {
+                        @Override
+                        public String getName() {
+                            return lease.getName();
+                        }
+
+                        @Override
+                        public long getFromId() {
+                            return lease.getFromKey();
+                        }
+
+                        @Override
+                        public Optional<Long> findMaxId() {
+                            return Optional.of(lease.getToKey());
+                        }
+
+                        @Override
+                        public int processChunk(long fromId, long toId) {
+                            return recomputeChunk(fromId, toId);
+                        }
+                    },
+                    lease
+                );
+                log.debug("Recomputed the rollups of {} blogs in {}", recomputed, lease);
+            }
+        );
+    }
+
+    /**
+     * Recompute the rollups of a range of blogs, in the current transaction.
+     *
+     * @param fromId the lower bound of the blog ids, excluded.
+     * @param toId the upper bound of the blog ids, included.
+     * @return the number of blogs.
+     */
+    int recomputeChunk(long fromId, long toId) {
+        // Waits for the post writes in progress, and holds back the next ones until the chunk commits
+        int blogs = blogRepository.lockIdsBetween(fromId, toId).size();
+
+        Map<BlogMonthRollup.Key, Long> postsByMonth = new HashMap<>();
+        for (Object[] row : blogMonthRollupRepository.countPostsByBlogIdBetween(fromId, toId)) {
+            BlogMonthRollup.Key key = new BlogMonthRollup.Key(
+                (Long) row[0],
+                ((Number) row[1]).intValue(),
+                ((Number) row[2]).intValue()
+            );
+            postsByMonth.put(key, (Long) row[3]);
+        }
+        for (BlogMonthRollup rollup : blogMonthRollupRepository.findAllByBlogIdBetween(fromId, toId)) {
+            rollup.setPostCount(postsByMonth.getOrDefault(rollup.getKey(), 0L));
+            postsByMonth.remove(rollup.getKey());
+        }
+        postsByMonth.forEach((key, count) -> {
+            blogMonthRollupRepository.save(new BlogMonthRollup(key.getBlogId(), key.getYear(), key.getMonth()).postCount(count));
+        });
+
+        Map<BlogTagRollup.Key, Long> postsByTag = new HashMap<>();
+        for (Object[] row : blogTagRollupRepository.countPostsByBlogIdBetween(fromId, toId)) {
+            postsByTag.put(new BlogTagRollup.Key((Long) row[0], (Long) row[1]), (Long) row[2]);
+        }
+        for (BlogTagRollup rollup : blogTagRollupRepository.findAllByBlogIdBetween(fromId, toId)) {
+            rollup.setPostCount(postsByTag.getOrDefault(rollup.getKey(), 0L));
+            postsByTag.remove(rollup.getKey());
+        }
+        postsByTag.forEach((key, count) -> {
+            blogTagRollupRepository.save(new BlogTagRollup(key.getBlogId(), key.getTagId()).postCount(count));
+        });
+        return blogs;
+    }
+
+    private void apply(Deltas deltas) {
+        Set<BlogMonthRollup.Key> createdMonths = createMissing(
+            blogMonthRollupRepository,
+            deltas.postsByMonth,
+            BlogMonthRollup::getKey,
+            (key, count) -> new BlogMonthRollup(key.getBlogId(), key.getYear(), key.getMonth()).postCount(count)
+        );
+        Set<BlogTagRollup.Key> createdTags = createMissing(
+            blogTagRollupRepository,
+            deltas.postsByTag,
+            BlogTagRollup::getKey,
+            (key, count) -> new BlogTagRollup(key.getBlogId(), key.getTagId()).postCount(count)
+        );
+        deltas.postsByMonth.forEach((key, delta) -> {
+            if (delta != 0 && !createdMonths.contains(key)) {
+                blogMonthRollupRepository.addToPostCount(key.getBlogId(), key.getYear(), key.getMonth(), delta);
+            }
+        });
+        // One update per blog and distinct delta rather than per tag
+        deltas.postsByTag
+            .entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() != 0 && !createdTags.contains(entry.getKey()))
+            .collect(
+                Collectors.groupingBy(
+                    entry -> Map.entry(entry.getKey().getBlogId(), entry.getValue()),
+                    Collectors.mapping(entry -> entry.getKey().getTagId(), Collectors.toList())
+                )
+            )
+            .forEach((blogAndDelta, tagIds) ->
+                blogTagRollupRepository.addToPostCount(blogAndDelta.getKey(), tagIds, blogAndDelta.getValue())
+            );
+    }
+
+    /**
+     * Create the missing rows of rollups which posts are added to, in the current transaction: under the lock of
+     * their blog, no other writer creates them meanwhile.
+     *
+     * @return the keys of the created rows, which already count their posts.
+     */
+    private <T, K> Set<K> createMissing(
+        JpaRepository<T, K> repository,
+        Map<K, Long> deltas,
+        Function<T, K> keyGetter,
+        BiFunction<K, Long, T> creator
+    ) {
+        Set<K> added = deltas
+            .entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() > 0)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+        if (added.isEmpty()) {
+            return added;
+        }
+        Set<K> missing = new HashSet<>(added);
+        repository.findAllById(added).forEach(row -> missing.remove(keyGetter.apply(row)));
+        missing.forEach(key -> repository.save(creator.apply(key, deltas.get(key))));
+        return missing;
+    }
+
+    /**
+     * The changes of the rollups made by post writes.
+     */
+    private static final class Deltas {
+
+        private final Map<BlogMonthRollup.Key, Long> postsByMonth = new HashMap<>();
+
+        private final Map<BlogTagRollup.Key, Long> postsByTag = new HashMap<>();
+
+        private void add(PostState state, long delta) {
+            if (state.getBlogId() == null) {
+                return;
+            }
+            ZonedDateTime date = state.getDate().atZone(ZoneOffset.UTC);
+            postsByMonth.merge(new BlogMonthRollup.Key(state.getBlogId(), date.getYear(), date.getMonthValue()), delta, Long::sum);
+            for (Long tagId : state.getTagIds()) {
+                postsByTag.merge(new BlogTagRollup.Key(state.getBlogId(), tagId), delta, Long::sum);
+            }
+        }
+
+        private boolean isEmpty() {
+            return (
+                postsByMonth.values().stream().allMatch(delta -> delta == 0) &&
+                postsByTag.values().stream().allMatch(delta -> delta == 0)
+            );
+        }
+    }
+}
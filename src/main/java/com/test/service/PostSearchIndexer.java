@@ -0,0 +1,70 @@
+package com.test.service;
+
+import com.test.domain.OutboxEvent;
+import com.test.domain.enumeration.OutboxEventType;
+import com.test.repository.PostRepository;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local subscriber of the outbox keeping the post index of its instance in sync with the database, from the changes
+ * of the posts, and of the blog names and tag names indexed with them.
+ * <p>
+ * The posts are indexed from their committed state, once the relay transaction commits: handling an event twice
+ * indexes the same post twice.
+ */
+@Service
+public class PostSearchIndexer implements OutboxSubscriber {
+
+    private final PostSearchService postSearchService;
+
+    private final PostRepository postRepository;
+
+    public PostSearchIndexer(PostSearchService postSearchService, PostRepository postRepository) {
+        this.postSearchService = postSearchService;
+        this.postRepository = postRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "post-search-index";
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        Set<Long> indexedIds = new LinkedHashSet<>();
+        Set<Long> removedIds = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            Long id = event.getAggregateId();
+            boolean deleted = event.getEventType() == OutboxEventType.DELETED;
+            switch (event.getAggregateType()) {
+                case "Post":
+                    (deleted ? removedIds : indexedIds).add(id);
+                    break;
+                case "Blog":
+                    // A blog or tag with posts cannot be deleted
+                    if (!deleted) {
+                        indexedIds.addAll(postRepository.findIdsByBlogId(id));
+                    }
+                    break;
+                case "Tag":
+                    if (!deleted) {
+                        indexedIds.addAll(postRepository.findIdsByTagId(id));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        indexedIds.removeAll(removedIds);
+        postSearchService.index(indexedIds);
+        removedIds.forEach(postSearchService::remove);
+    }
+}
@@ -0,0 +1,151 @@
+package com.test.service;
+
+import com.test.config.ApplicationProperties;
+import com.test.domain.Post;
+import com.test.repository.PostRepository;
+import com.test.repository.search.PostSearchRepository;
+import com.test.service.dto.PostSearchHitDTO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for searching {@link Post} entities, and for keeping the full-text index in sync with the database.
+ * <p>
+ * Index updates requested within a transaction are applied once it commits, from the committed state of the posts,
+ * so that rolled back changes never reach the index. They are requested by {@link PostSearchIndexer}, from the outbox.
+ */
+@Service
+public class PostSearchService {
+
+    private final Logger log = LoggerFactory.getLogger(PostSearchService.class);
+
+    private final PostRepository postRepository;
+
+    private final PostSearchRepository postSearchRepository;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.Search searchProperties;
+
+    public PostSearchService(
+        PostRepository postRepository,
+        PostSearchRepository postSearchRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.postRepository = postRepository;
+        this.postSearchRepository = postSearchRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        // Index updates run after the commit of the caller's transaction, whose resources are still bound
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.searchProperties = applicationProperties.getSearch();
+    }
+
+    /**
+     * Search for the posts matching the query.
+     *
+     * @param query the query.
+     * @param pageable the pagination information.
+     * @return the matching posts, most relevant first.
+     */
+    public Page<PostSearchHitDTO> search(String query, Pageable pageable) {
+        log.debug("Request to search for a page of Posts for query {}", query);
+        return postSearchRepository.search(query, pageable);
+    }
+
+    /**
+     * Index posts once the current transaction commits, in batches of {@code application.search.reindex-batch-size}.
+     *
+     * @param ids the ids of the posts.
+     */
+    public void index(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> batches = new ArrayList<>(ids);
+        int batchSize = searchProperties.getReindexBatchSize();
+        afterCommit(() -> {
+            for (int from = 0; from < batches.size(); from += batchSize) {
+                List<Long> batch = batches.subList(from, Math.min(from + batchSize, batches.size()));
+                readOnlyTransactionTemplate.executeWithoutResult(status -> indexNow(batch));
+            }
+        });
+    }
+
+    /**
+     * Remove a post from the index once the current transaction commits.
+     *
+     * @param id the id of the post.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> postSearchRepository.deleteById(id));
+    }
+
+    /**
+     * Rebuild the index from the database. Searches may miss posts until it completes.
+     *
+     * @return the number of indexed posts.
+     */
+    public long reindex() {
+        log.info("Rebuilding the post index");
+        int batchSize = searchProperties.getReindexBatchSize();
+        postSearchRepository.deleteAll();
+        long count = 0;
+        Long lastId = Long.MIN_VALUE;
+        while (true) {
+            Long after = lastId;
+            List<Long> ids = readOnlyTransactionTemplate.execute(status ->
+                postRepository.findIdsGreaterThan(after, PageRequest.of(0, batchSize))
+            );
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            readOnlyTransactionTemplate.executeWithoutResult(status -> indexNow(ids));
+            count += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        postSearchRepository.commit();
+        log.info("Rebuilt the post index: {} posts", count);
+        return count;
+    }
+
+    /**
+     * Build the index at startup when it is empty, which is always the case for an in-memory index.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfEmpty() {
+        if (postSearchRepository.count() == 0 && postRepository.count() > 0) {
+            reindex();
+        }
+    }
+
+    private void indexNow(Collection<Long> ids) {
+        postSearchRepository.saveAll(postRepository.findAllWithEagerRelationshipsByIdIn(ids));
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The database change is committed: the index is stale until the next update or rebuild
+                log.warn("Could not update the post index: {}", e.getMessage(), e);
+            }
+        });
+    }
+}
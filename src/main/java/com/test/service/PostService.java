@@ -1,8 +1,16 @@
 package com.test.service;
 
 import com.test.domain.Post;
+import com.test.domain.enumeration.OutboxEventType;
 import com.test.repository.PostRepository;
+import com.test.service.PostCounterService.PostState;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -21,8 +29,34 @@ public class PostService {
 
     private final PostRepository postRepository;
 
-    public PostService(PostRepository postRepository) {
+    private final ETagService eTagService;
+
+    private final TagSuggestService tagSuggestService;
+
+    private final PostCounterService postCounterService;
+
+    private final PageCountService pageCountService;
+
+    private final OutboxService outboxService;
+
+    private final FeedService feedService;
+
+    public PostService(
+        PostRepository postRepository,
+        ETagService eTagService,
+        TagSuggestService tagSuggestService,
+        PostCounterService postCounterService,
+        PageCountService pageCountService,
+        OutboxService outboxService,
+        FeedService feedService
+    ) {
         this.postRepository = postRepository;
+        this.eTagService = eTagService;
+        this.tagSuggestService = tagSuggestService;
+        this.postCounterService = postCounterService;
+        this.pageCountService = pageCountService;
+        this.outboxService = outboxService;
+        this.feedService = feedService;
     }
 
     /**
@@ -33,21 +67,72 @@ public class PostService {
      */
     public Post save(Post post) {
         log.debug("Request to save Post : {}", post);
-        return postRepository.save(post);
+        Post result = postRepository.save(post);
+        postCounterService.postsAdded(Collections.singletonList(result));
+        outboxService.record(OutboxEventType.CREATED, result);
+        eTagService.evictPost(result.getId());
+        pageCountService.evictAll();
+        PostState state = PostState.of(result);
+        feedService.evictBlog(state.getBlogId());
+        tagSuggestService.refreshUsage(state.getTagIds());
+        return result;
+    }
+
+    /**
+     * Update a post.
+     *
+     * @param post the entity to update.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
+     * @return the persisted entity, or empty if the post does not exist.
+     * @throws PreconditionFailedException if the precondition is not met.
+     */
+    public Optional<Post> update(Post post, String ifMatch) {
+        log.debug("Request to update Post : {}, If-Match: {}", post, ifMatch);
+
+        // The post is read once, with its blog and tags: the merge and the ETag need no other query
+        return postRepository
+            .findOneWithEagerRelationships(post.getId())
+            .map(existingPost -> {
+                eTagService.checkIfMatch(ifMatch, () -> eTagService.of(existingPost));
+                PostState previous = PostState.of(existingPost);
+                // A concurrent update committed from now on fails with an optimistic locking error
+                post.setVersion(existingPost.getVersion());
+
+                Post savedPost = postRepository.save(post);
+                postCounterService.postUpdated(previous, savedPost);
+                PostState state = PostState.of(savedPost);
+                // The post may have moved to another blog
+                feedService.evictBlogs(
+                    Stream.of(previous.getBlogId(), state.getBlogId()).filter(Objects::nonNull).collect(Collectors.toSet())
+                );
+                tagSuggestService.refreshUsage(changedTagIds(previous.getTagIds(), state.getTagIds()));
+                return savedPost;
+            })
+            .map(savedPost -> {
+                outboxService.record(OutboxEventType.UPDATED, savedPost);
+                eTagService.evictPost(savedPost.getId());
+                pageCountService.evictAll();
+
+                return savedPost;
+            });
     }
 
     /**
      * Partially update a post.
      *
      * @param post the entity to update partially.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
      * @return the persisted entity.
+     * @throws PreconditionFailedException if the precondition is not met.
      */
-    public Optional<Post> partialUpdate(Post post) {
-        log.debug("Request to partially update Post : {}", post);
+    public Optional<Post> partialUpdate(Post post, String ifMatch) {
+        log.debug("Request to partially update Post : {}, If-Match: {}", post, ifMatch);
 
         return postRepository
-            .findById(post.getId())
+            .findOneWithEagerRelationships(post.getId())
             .map(existingPost -> {
+                eTagService.checkIfMatch(ifMatch, () -> eTagService.of(existingPost));
+                PostState previous = PostState.of(existingPost);
                 if (post.getTitle() != null) {
                     existingPost.setTitle(post.getTitle());
                 }
@@ -58,9 +143,45 @@ public class PostService {
                     existingPost.setDate(post.getDate());
                 }
 
-                return existingPost;
+                Post savedPost = postRepository.save(existingPost);
+                postCounterService.postUpdated(previous, savedPost);
+                feedService.evictBlog(previous.getBlogId());
+                return savedPost;
             })
-            .map(postRepository::save);
+            .map(savedPost -> {
+                outboxService.record(OutboxEventType.UPDATED, savedPost);
+                eTagService.evictPost(savedPost.getId());
+                pageCountService.evictAll();
+
+                return savedPost;
+            });
+    }
+
+    /**
+     * Partially update a post without reading it, when only its title or its content is given and there is no
+     * precondition: the state of the post is not needed for its counters, its feed or its tags. Otherwise the post is
+     * updated as by {@link #partialUpdate(Post, String)}.
+     * <p>
+     * The feed of its blog is evicted by {@link LocalCacheEvictor}, which reads the blog from the event of the update.
+     *
+     * @param post the entity to update partially.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
+     * @return whether the post exists.
+     * @throws PreconditionFailedException if the precondition is not met.
+     */
+    public boolean partialUpdateInPlace(Post post, String ifMatch) {
+        log.debug("Request to partially update Post in place : {}, If-Match: {}", post, ifMatch);
+        if (ifMatch != null || post.getDate() != null || (post.getTitle() == null && post.getContent() == null)) {
+            return partialUpdate(post, ifMatch).isPresent();
+        }
+
+        if (postRepository.updateInPlace(post.getId(), post.getTitle(), post.getContent()) == 0) {
+            return false;
+        }
+        outboxService.recordUpdatedInPlace(Post.class, post.getId());
+        eTagService.evictPost(post.getId());
+        pageCountService.evictAll();
+        return true;
     }
 
     /**
@@ -80,7 +201,9 @@ public class PostService {
      *
      * @return the list of entities.
      */
+    @Transactional(readOnly = true)
     public Page<Post> findAllWithEagerRelationships(Pageable pageable) {
+        log.debug("Request to get all Posts with eager relationships");
         return postRepository.findAllWithEagerRelationships(pageable);
     }
 
@@ -103,6 +226,26 @@ public class PostService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Post : {}", id);
-        postRepository.deleteById(id);
+        postRepository
+            .findOneWithEagerRelationships(id)
+            .ifPresent(post -> {
+                PostState state = PostState.of(post);
+                outboxService.record(OutboxEventType.DELETED, post);
+                postRepository.delete(post);
+                postCounterService.postRemoved(state);
+                feedService.evictBlog(state.getBlogId());
+                tagSuggestService.refreshUsage(state.getTagIds());
+            });
+        eTagService.evictPost(id);
+        pageCountService.evictAll();
+    }
+
+    private static Set<Long> changedTagIds(Set<Long> previousTagIds, Set<Long> tagIds) {
+        Set<Long> unchanged = new HashSet<>(previousTagIds);
+        unchanged.retainAll(tagIds);
+        Set<Long> changed = new HashSet<>(previousTagIds);
+        changed.addAll(tagIds);
+        changed.removeAll(unchanged);
+        return changed;
     }
 }
@@ -0,0 +1,13 @@
+package com.test.service;
+
+/**
+ * Thrown when the {@code If-Match} precondition of an update does not match the current version of the entity.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String currentETag) {
+        super("The entity was modified, its current ETag is " + currentETag);
+    }
+}
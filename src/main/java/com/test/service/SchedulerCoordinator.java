@@ -0,0 +1,352 @@
+package com.test.service;
+
+import com.test.config.ApplicationProperties;
+import com.test.domain.JobRun;
+import com.test.domain.SchedulerLease;
+import com.test.domain.enumeration.JobRunStatus;
+import com.test.repository.JobRunRepository;
+import com.test.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service coordinating the scheduled jobs of the instances of the application, with leases in the database.
+ * <p>
+ * Every instance fires the same schedules. A job which must run once across the cluster is run with
+ * {@link #runExclusive}: the first instance to acquire its lease runs it, and keeps the lease for
+ * {@code application.scheduler.min-lock-seconds} after the start, so that the instances firing late skip it. Each
+ * acquisition of a lease increments its fencing token: a holder whose lease expired finds out with {@link #renew}.
+ * A large job can be split by key range with {@link #runSharded}, each shard having its own lease. Each run is
+ * recorded in the {@code job_run} table, with its duration and outcome.
+ * <p>
+ * The instances also elect a leader, which holds the {@value #LEADER} lease as long as it renews it: the jobs which
+ * must not wait for a schedule slot, as the purge of the job runs, only run on the leader.
+ */
+@Service
+public class SchedulerCoordinator {
+
+    /**
+     * The name of the lease of the leader.
+     */
+    public static final String LEADER = "leader";
+
+    private final Logger log = LoggerFactory.getLogger(SchedulerCoordinator.class);
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+
+    private final JobRunRepository jobRunRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Scheduler properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String owner;
+
+    /**
+     * The thread renewing the leadership, apart from the scheduler threads: the scheduled jobs running long do not
+     * delay the renewal until the lease expires.
+     */
+    private final ThreadPoolTaskScheduler leadershipScheduler = new ThreadPoolTaskScheduler();
+
+    private volatile JobLease leadership;
+
+    private volatile Instant leadershipUntil = Instant.EPOCH;
+
+    public SchedulerCoordinator(
+        SchedulerLeaseRepository schedulerLeaseRepository,
+        JobRunRepository jobRunRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.jobRunRepository = jobRunRepository;
+        // The leases are seen by the other instances at once, even if taken in a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getScheduler();
+        this.meterRegistry = meterRegistry;
+        // pid@host, and a random part for the instances sharing both
+        this.owner = StringUtils.left(ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID(), 100);
+        this.leadershipScheduler.setThreadNamePrefix("scheduler-leader-");
+        Gauge
+            .builder("scheduler.leader", this, coordinator -> coordinator.isLeader() ? 1 : 0)
+            .description("Whether this instance is the leader of the scheduler")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the identifier of this instance of the application in the leases.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * @return whether this instance holds the leadership, as of its last renewal.
+     */
+    public boolean isLeader() {
+        return leadership != null && Instant.now().isBefore(leadershipUntil);
+    }
+
+    /**
+     * Start renewing the leadership, every 10 seconds.
+     */
+    @PostConstruct
+    public void startLeaderElection() {
+        if (properties.isLeaderElectionEnabled()) {
+            leadershipScheduler.initialize();
+            leadershipScheduler.scheduleWithFixedDelay(this::renewLeadership, Duration.ofSeconds(10));
+        }
+    }
+
+    /**
+     * Renew the leadership of this instance, or acquire it if it is free.
+     * <p>
+     * This runs every 10 seconds on a thread of its own, started by {@link #startLeaderElection}.
+     */
+    public void renewLeadership() {
+        if (!properties.isLeaderElectionEnabled()) {
+            return;
+        }
+        Instant until = Instant.now().plusSeconds(properties.getLeaderLeaseSeconds());
+        try {
+            JobLease current = leadership;
+            if (current != null && renew(current, until)) {
+                leadershipUntil = until;
+                return;
+            }
+            Optional<JobLease> acquired = acquire(LEADER, 0, 0, 0, until);
+            if (acquired.isPresent()) {
+                log.info("This instance is the scheduler leader, with token {}", acquired.get().getToken());
+                leadershipUntil = until;
+            } else if (current != null) {
+                log.warn("This instance lost the scheduler leadership");
+            }
+            leadership = acquired.orElse(null);
+        } catch (RuntimeException e) {
+            leadership = null;
+            log.warn("Could not renew the scheduler leadership: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Release the leadership on shutdown, for another instance to take it over at once.
+     */
+    @PreDestroy
+    public void resign() {
+        leadershipScheduler.shutdown();
+        JobLease current = leadership;
+        leadership = null;
+        if (current != null) {
+            try {
+                release(current, Instant.now());
+            } catch (RuntimeException e) {
+                log.warn("Could not release the scheduler leadership: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run a job, unless another instance holds it.
+     *
+     * @param job the name of the job.
+     * @param task the job.
+     * @return whether the job ran on this instance.
+     */
+    public boolean runExclusive(String job, Consumer<JobLease> task) {
+        return runIfAcquired(job, job, 0, 0, Long.MAX_VALUE, task);
+    }
+
+    /**
+     * Run a job, unless another instance holds it.
+     *
+     * @param job the name of the job.
+     * @param task the job.
+     * @return whether the job ran on this instance.
+     */
+    public boolean runExclusive(String job, Runnable task) {
+        return runExclusive(job, lease -> task.run());
+    }
+
+    /**
+     * Run the shards of a job which no other instance holds, each shard covering an equal range of keys.
+     * <p>
+     * The number of shards is {@code application.scheduler.shards} of the job, 1 by default. The instances may see
+     * different maximum keys, so the ranges of the shards may overlap or leave keys out at their boundaries: the job
+     * must be idempotent, and the keys created since it started must not need it.
+     *
+     * @param job the name of the job.
+     * @param maxKey the greatest key, included.
+     * @param task the job, given the range of keys of the shard by the lease.
+     * @return the number of shards run on this instance.
+     */
+    public int runSharded(String job, long maxKey, Consumer<JobLease> task) {
+        int shards = Math.max(properties.getShards().getOrDefault(job, 1), 1);
+        if (shards == 1) {
+            // The whole range of keys, up to the maximum key rather than to any key as an exclusive job
+            return runIfAcquired(job, job, 0, 0, maxKey, task) ? 1 : 0;
+        }
+        int ran = 0;
+        // From a random shard, so that the instances firing at once do not compete for the same shards
+        int first = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = (first + i) % shards;
+            long fromKey = maxKey / shards * shard;
+            long toKey = shard == shards - 1 ? maxKey : maxKey / shards * (shard + 1);
+            if (runIfAcquired(job, job + "-" + shard, shard, fromKey, toKey, task)) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Extend a lease of this instance up to {@code application.scheduler.max-lock-seconds}, as a long job should.
+     *
+     * @param lease the lease.
+     * @return whether the lease is still held: if not, another instance acquired it since, with a greater token.
+     */
+    public boolean renew(JobLease lease) {
+        return renew(lease, lockedUntil());
+    }
+
+    /**
+     * Delete the job runs older than the retention period, on the leader.
+     * <p>
+     * This is scheduled to run every day, at 03:15 (am).
+     */
+    @Scheduled(cron = "0 15 3 * * ?")
+    public void purgeHistory() {
+        if (!isLeader()) {
+            return;
+        }
+        Instant before = Instant.now().minus(Duration.ofDays(properties.getHistoryRetentionDays()));
+        Integer deleted = transactionTemplate.execute(status -> jobRunRepository.deleteByStartedDateBefore(before));
+        log.debug("Purged {} job runs", deleted);
+    }
+
+    private boolean runIfAcquired(String job, String name, int shard, long fromKey, long toKey, Consumer<JobLease> task) {
+        Optional<JobLease> lease = acquire(name, shard, fromKey, toKey, lockedUntil());
+        if (lease.isEmpty()) {
+            log.debug("Job {} is held by another instance, skipping", name);
+            return false;
+        }
+        run(job, lease.get(), task);
+        return true;
+    }
+
+    private void run(String job, JobLease lease, Consumer<JobLease> task) {
+        Instant started = Instant.now();
+        Long runId = transactionTemplate.execute(status -> jobRunRepository.save(newRun(lease, started)).getId());
+        JobRunStatus outcome = JobRunStatus.FAILED;
+        String error = null;
+        try {
+            task.accept(lease);
+            outcome = JobRunStatus.SUCCEEDED;
+        } catch (RuntimeException | Error e) {
+            error = StringUtils.abbreviate(e.toString(), 255);
+            throw e;
+        } finally {
+            Instant finished = Instant.now();
+            Duration duration = Duration.between(started, finished);
+            Timer
+                .builder("scheduler.job.runs")
+                .description("Duration of the runs of the scheduled jobs")
+                .tags("job", job, "status", outcome.name())
+                .register(meterRegistry)
+                .record(duration);
+            try {
+                finishRun(runId, outcome, error, finished, duration);
+                // A failed job can be run again at once, by the next schedule
+                Instant minUntil = started.plusSeconds(properties.getMinLockSeconds());
+                release(lease, outcome == JobRunStatus.SUCCEEDED && minUntil.isAfter(finished) ? minUntil : finished);
+            } catch (RuntimeException e) {
+                // The lease expires anyway
+                log.warn("Could not record the end of the run of {}: {}", lease.getName(), e.getMessage());
+            }
+        }
+    }
+
+    private Optional<JobLease> acquire(String name, int shard, long fromKey, long toKey, Instant until) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!schedulerLeaseRepository.existsById(name)) {
+                    SchedulerLease lease = new SchedulerLease();
+                    lease.setName(name);
+                    schedulerLeaseRepository.save(lease);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created by another instance
+        }
+        return transactionTemplate.execute(status -> {
+            if (schedulerLeaseRepository.acquire(name, owner, Instant.now(), until) == 0) {
+                return Optional.<JobLease>empty();
+            }
+            return schedulerLeaseRepository
+                .findTokenByNameAndOwner(name, owner)
+                .map(token -> new JobLease(name, token, shard, fromKey, toKey));
+        });
+    }
+
+    private boolean renew(JobLease lease, Instant until) {
+        Integer renewed = transactionTemplate.execute(status ->
+            schedulerLeaseRepository.updateLockedUntil(lease.getName(), lease.getToken(), until)
+        );
+        return renewed == 1;
+    }
+
+    private void release(JobLease lease, Instant until) {
+        renew(lease, until);
+    }
+
+    private void finishRun(Long runId, JobRunStatus outcome, String error, Instant finished, Duration duration) {
+        transactionTemplate.executeWithoutResult(status ->
+            jobRunRepository
+                .findById(runId)
+                .ifPresent(jobRun -> {
+                    jobRun.setStatus(outcome);
+                    jobRun.setError(error);
+                    jobRun.setFinishedDate(finished);
+                    jobRun.setDurationMs(duration.toMillis());
+                })
+        );
+    }
+
+    private Instant lockedUntil() {
+        return Instant.now().plusSeconds(properties.getMaxLockSeconds());
+    }
+
+    private JobRun newRun(JobLease lease, Instant started) {
+        JobRun jobRun = new JobRun();
+        jobRun.setJob(lease.getName());
+        jobRun.setOwner(owner);
+        jobRun.setToken(lease.getToken());
+        jobRun.setStatus(JobRunStatus.RUNNING);
+        jobRun.setStartedDate(started);
+        return jobRun;
+    }
+}
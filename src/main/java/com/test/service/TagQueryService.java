@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,8 +30,11 @@ public class TagQueryService extends QueryService<Tag> {
 
     private final TagRepository tagRepository;
 
-    public TagQueryService(TagRepository tagRepository) {
+    private final PageCountService pageCountService;
+
+    public TagQueryService(TagRepository tagRepository, PageCountService pageCountService) {
         this.tagRepository = tagRepository;
+        this.pageCountService = pageCountService;
     }
 
     /**
@@ -42,7 +46,9 @@ public class TagQueryService extends QueryService<Tag> {
     public List<Tag> findByCriteria(TagCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
         final Specification<Tag> specification = createSpecification(criteria);
-        return tagRepository.findAll(specification);
+        List<Tag> tags = tagRepository.findAll(specification);
+        tagRepository.readCounters(tags);
+        return tags;
     }
 
     /**
@@ -55,7 +61,27 @@ public class TagQueryService extends QueryService<Tag> {
     public Page<Tag> findByCriteria(TagCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Tag> specification = createSpecification(criteria);
-        return tagRepository.findAll(specification, page);
+        Page<Tag> result = tagRepository.findAll(specification, page);
+        tagRepository.readCounters(result.getContent());
+        return result;
+    }
+
+    /**
+     * Return a {@link Page} of {@link Tag} which matches the criteria from the database.
+     * The total count is computed according to the count mode, and skipped when the page is the last one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param countMode How to compute the total count.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Tag> findByCriteria(TagCriteria criteria, Pageable page, CountMode countMode) {
+        log.debug("find by criteria : {}, page: {}, count: {}", criteria, page, countMode);
+        final Specification<Tag> specification = createSpecification(criteria);
+        Slice<Tag> slice = tagRepository.findAllWithoutCount(specification, page);
+        tagRepository.readCounters(slice.getContent());
+        boolean filtered = criteria != null && !criteria.equals(new TagCriteria());
+        return pageCountService.toPage(slice, "tag", criteria, filtered, countMode, () -> tagRepository.count(specification));
     }
 
     /**
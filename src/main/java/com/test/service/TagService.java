@@ -1,8 +1,15 @@
 package com.test.service;
 
 import com.test.domain.Tag;
+import com.test.domain.enumeration.OutboxEventType;
 import com.test.repository.TagRepository;
+import com.test.service.dto.TagStatsDTO;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -21,8 +28,30 @@ public class TagService {
 
     private final TagRepository tagRepository;
 
-    public TagService(TagRepository tagRepository) {
+    private final ETagService eTagService;
+
+    private final TagSuggestService tagSuggestService;
+
+    private final PageCountService pageCountService;
+
+    private final OutboxService outboxService;
+
+    private final Validator validator;
+
+    public TagService(
+        TagRepository tagRepository,
+        ETagService eTagService,
+        TagSuggestService tagSuggestService,
+        PageCountService pageCountService,
+        OutboxService outboxService,
+        Validator validator
+    ) {
         this.tagRepository = tagRepository;
+        this.eTagService = eTagService;
+        this.tagSuggestService = tagSuggestService;
+        this.pageCountService = pageCountService;
+        this.outboxService = outboxService;
+        this.validator = validator;
     }
 
     /**
@@ -33,28 +62,119 @@ public class TagService {
      */
     public Tag save(Tag tag) {
         log.debug("Request to save Tag : {}", tag);
-        return tagRepository.save(tag);
+        Tag result = tagRepository.save(tag);
+        outboxService.record(OutboxEventType.CREATED, result);
+        eTagService.evictTag(result.getId());
+        pageCountService.evictAll();
+        tagSuggestService.tagSaved(result);
+        return result;
+    }
+
+    /**
+     * Update a tag.
+     *
+     * @param tag the entity to update.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
+     * @return the persisted entity, or empty if the tag does not exist.
+     * @throws PreconditionFailedException if the precondition is not met.
+     */
+    public Optional<Tag> update(Tag tag, String ifMatch) {
+        log.debug("Request to update Tag : {}, If-Match: {}", tag, ifMatch);
+
+        return tagRepository
+            .findById(tag.getId())
+            .map(this::withCounters)
+            .map(existingTag -> {
+                eTagService.checkIfMatch(ifMatch, () -> eTagService.of(existingTag));
+                // A concurrent update committed from now on fails with an optimistic locking error
+                tag.setVersion(existingTag.getVersion());
+
+                return tagRepository.save(tag);
+            })
+            .map(savedTag -> {
+                outboxService.record(OutboxEventType.UPDATED, savedTag);
+                eTagService.evictTag(savedTag.getId());
+                pageCountService.evictAll();
+                tagSuggestService.tagSaved(savedTag);
+
+                return savedTag;
+            });
     }
 
     /**
      * Partially update a tag.
      *
      * @param tag the entity to update partially.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
      * @return the persisted entity.
+     * @throws PreconditionFailedException if the precondition is not met.
      */
-    public Optional<Tag> partialUpdate(Tag tag) {
-        log.debug("Request to partially update Tag : {}", tag);
+    public Optional<Tag> partialUpdate(Tag tag, String ifMatch) {
+        log.debug("Request to partially update Tag : {}, If-Match: {}", tag, ifMatch);
 
         return tagRepository
             .findById(tag.getId())
+            .map(this::withCounters)
             .map(existingTag -> {
+                eTagService.checkIfMatch(ifMatch, () -> eTagService.of(existingTag));
                 if (tag.getName() != null) {
                     existingTag.setName(tag.getName());
                 }
 
                 return existingTag;
             })
-            .map(tagRepository::save);
+            .map(tagRepository::save)
+            .map(savedTag -> {
+                outboxService.record(OutboxEventType.UPDATED, savedTag);
+                eTagService.evictTag(savedTag.getId());
+                pageCountService.evictAll();
+                tagSuggestService.tagSaved(savedTag);
+
+                return savedTag;
+            });
+    }
+
+    /**
+     * Get the post counters of all the tags.
+     *
+     * @param pageable the pagination information.
+     * @return the list of counters.
+     */
+    @Transactional(readOnly = true)
+    public Page<TagStatsDTO> findAllStats(Pageable pageable) {
+        log.debug("Request to get the stats of all Tags");
+        return tagRepository.findAllStats(pageable);
+    }
+
+    /**
+     * Partially update a tag without reading it, when there is no precondition: the post count of the tag is not
+     * needed. Otherwise the tag is updated as by {@link #partialUpdate(Tag, String)}.
+     *
+     * @param tag the entity to update partially.
+     * @param ifMatch the {@code If-Match} precondition, {@code null} if none.
+     * @return whether the tag exists.
+     * @throws PreconditionFailedException if the precondition is not met.
+     * @throws ConstraintViolationException if the name is not valid.
+     */
+    public boolean partialUpdateInPlace(Tag tag, String ifMatch) {
+        log.debug("Request to partially update Tag in place : {}, If-Match: {}", tag, ifMatch);
+        if (ifMatch != null || tag.getName() == null) {
+            return partialUpdate(tag, ifMatch).isPresent();
+        }
+
+        // The entity is not flushed, so not validated by Hibernate
+        Set<ConstraintViolation<Tag>> violations = validator.validateProperty(tag, "name");
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (tagRepository.updateInPlace(tag.getId(), tag.getName()) == 0) {
+            return false;
+        }
+        outboxService.recordUpdatedInPlace(Tag.class, tag.getId());
+        eTagService.evictTag(tag.getId());
+        pageCountService.evictAll();
+        tagSuggestService.tagSaved(tag);
+        return true;
     }
 
     /**
@@ -66,7 +186,9 @@ public class TagService {
     @Transactional(readOnly = true)
     public Page<Tag> findAll(Pageable pageable) {
         log.debug("Request to get all Tags");
-        return tagRepository.findAll(pageable);
+        Page<Tag> page = tagRepository.findAll(pageable);
+        tagRepository.readCounters(page.getContent());
+        return page;
     }
 
     /**
@@ -78,7 +200,7 @@ public class TagService {
     @Transactional(readOnly = true)
     public Optional<Tag> findOne(Long id) {
         log.debug("Request to get Tag : {}", id);
-        return tagRepository.findById(id);
+        return tagRepository.findById(id).map(this::withCounters);
     }
 
     /**
@@ -88,6 +210,20 @@ public class TagService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Tag : {}", id);
-        tagRepository.deleteById(id);
+        tagRepository
+            .findById(id)
+            .ifPresent(tag -> {
+                outboxService.record(OutboxEventType.DELETED, tag);
+                tagRepository.delete(tag);
+            });
+        eTagService.evictTag(id);
+        pageCountService.evictAll();
+        tagSuggestService.tagDeleted(id);
+    }
+
+    private Tag withCounters(Tag tag) {
+        tagRepository.readCounters(List.of(tag));
+        return tag;
     }
+
 }
@@ -0,0 +1,227 @@
+package com.test.service;
+
+import com.test.domain.Tag;
+import com.test.repository.TagRepository;
+import com.test.service.dto.TagSuggestionDTO;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service suggesting {@link Tag} names for a prefix, from an in-memory index: suggestions never query the database.
+ * <p>
+ * The index is an array of the tags sorted by normalized name (lower case, without diacritics), so that the tags of a
+ * prefix are a contiguous range found by binary search; they are ranked by the number of posts using them. Changes are
+ * applied once their transaction commits, and the index is rebuilt every 10 minutes to bound any drift.
+ */
+@Service
+public class TagSuggestService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing((Entry entry) -> entry.key).thenComparing(entry -> entry.id);
+
+    private static final Comparator<Entry> BY_RANK = Comparator
+        .comparingLong((Entry entry) -> entry.usage)
+        .reversed()
+        .thenComparing(BY_KEY);
+
+    private final Logger log = LoggerFactory.getLogger(TagSuggestService.class);
+
+    private final TagRepository tagRepository;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    /**
+     * The tags by id, guarded by {@code this}.
+     */
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * The tags sorted by key, replaced on every change.
+     */
+    private volatile Entry[] sorted = new Entry[0];
+
+    public TagSuggestService(TagRepository tagRepository, PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        // Updates run after the commit of the caller's transaction, whose resources are still bound
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Suggest the tags whose name starts with a prefix, ignoring case and diacritics.
+     *
+     * @param prefix the prefix; all the tags match an empty prefix.
+     * @param limit the maximum number of suggestions, at most {@value #MAX_LIMIT}.
+     * @return the matching tags, most used first.
+     */
+    public List<TagSuggestionDTO> suggest(String prefix, int limit) {
+        Entry[] snapshot = sorted;
+        String key = normalize(prefix);
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        // The worst ranked of the best tags so far is at the head
+        PriorityQueue<Entry> best = new PriorityQueue<>(size + 1, BY_RANK.reversed());
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && snapshot[i].key.startsWith(key); i++) {
+            best.add(snapshot[i]);
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+        return best.stream().sorted(BY_RANK).map(Entry::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Add or rename a tag once the current transaction commits.
+     *
+     * @param tag the tag.
+     */
+    public void tagSaved(Tag tag) {
+        Long id = tag.getId();
+        String name = tag.getName();
+        afterCommit(() -> {
+            synchronized (this) {
+                Entry previous = entries.get(id);
+                entries.put(id, new Entry(id, name, previous == null ? 0 : previous.usage));
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Remove a tag once the current transaction commits.
+     *
+     * @param id the id of the tag.
+     */
+    public void tagDeleted(Long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                entries.remove(id);
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Reload the post counts of tags once the current transaction commits, after posts were linked to or unlinked
+     * from them.
+     *
+     * @param tagIds the ids of the tags.
+     */
+    public void refreshUsage(Collection<Long> tagIds) {
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(tagIds);
+        afterCommit(() -> {
+            List<TagSuggestionDTO> tags = readOnlyTransactionTemplate.execute(status -> tagRepository.findSuggestionsByIdIn(ids));
+            synchronized (this) {
+                // The tags that are not found anymore were deleted
+                ids.forEach(entries::remove);
+                tags.forEach(tag -> entries.put(tag.getId(), new Entry(tag.getId(), tag.getName(), tag.getUsage())));
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Rebuild the index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = 600_000, fixedDelay = 600_000)
+    public void rebuild() {
+        List<TagSuggestionDTO> tags = readOnlyTransactionTemplate.execute(status -> tagRepository.findAllSuggestions());
+        synchronized (this) {
+            entries.clear();
+            tags.forEach(tag -> entries.put(tag.getId(), new Entry(tag.getId(), tag.getName(), tag.getUsage())));
+            publish();
+        }
+        log.debug("Rebuilt the tag suggestion index: {} tags", tags.size());
+    }
+
+    private void publish() {
+        Entry[] snapshot = entries.values().toArray(new Entry[0]);
+        Arrays.sort(snapshot, BY_KEY);
+        sorted = snapshot;
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The database change is committed: the suggestions are stale until the next rebuild
+                log.warn("Could not update the tag suggestion index: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * @return the index of the first entry whose key is not before {@code key}.
+     */
+    private static int lowerBound(Entry[] snapshot, String key) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot[middle].key.compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+
+        private final String name;
+
+        private final String key;
+
+        private final long usage;
+
+        private Entry(Long id, String name, long usage) {
+            this.id = id;
+            this.name = name;
+            this.key = normalize(name);
+            this.usage = usage;
+        }
+
+        private TagSuggestionDTO toDTO() {
+            return new TagSuggestionDTO(id, name, usage);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -30,6 +31,8 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    private static final String REMOVE_NOT_ACTIVATED_USERS = "remove-not-activated-users";
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -38,10 +41,22 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final MaintenanceService maintenanceService;
+
+    private final SchedulerCoordinator schedulerCoordinator;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        MaintenanceService maintenanceService,
+        SchedulerCoordinator schedulerCoordinator
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.maintenanceService = maintenanceService;
+        this.schedulerCoordinator = schedulerCoordinator;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -274,16 +289,46 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am), and runs on one instance of the application, or on
+     * several if the job is sharded: see {@link SchedulerCoordinator}. The users are deleted in chunks of ids, each
+     * chunk in its own transaction, unless called in a transaction: see {@link MaintenanceService}.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        long maxId = userRepository.findMaxId().orElse(0L);
+        schedulerCoordinator.runSharded(
+            REMOVE_NOT_ACTIVATED_USERS,
+            maxId,
+            lease -> {
+                long deleted = maintenanceService.run(
+                    new BatchedMaintenanceJob() {
+                        @Override
+                        public String getName() {
+                            return lease.getName();
+                        }
+
+                        @Override
+                        public long getFromId() {
+                            return lease.getFromKey();
+                        }
+
+                        @Override
+                        public Optional<Long> findMaxId() {
+                            return Optional.of(lease.getToKey());
+                        }
+
+                        @Override
+                        public int processChunk(long fromId, long toId) {
+                            return userRepository.deleteNotActivatedByIdBetween(fromId, toId, createdBefore);
+                        }
+                    },
+                    lease
+                );
+                log.debug("Deleted {} not activated users in {}", deleted, lease);
+            }
+        );
     }
 
     /**
@@ -0,0 +1,68 @@
+package com.test.service.dto;
+
+import com.test.domain.Blog;
+import java.io.Serializable;
+
+/**
+ * A DTO representing the number of posts of a {@link Blog} dated in a month, in UTC.
+ */
+public class BlogArchiveDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int year;
+
+    private int month;
+
+    private long postCount;
+
+    public BlogArchiveDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the JPQL projection.
+     */
+    public BlogArchiveDTO(int year, int month, long postCount) {
+        this.year = year;
+        this.month = month;
+        this.postCount = postCount;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    /**
+     * @return the month of the year, from 1 (January) to 12 (December).
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BlogArchiveDTO{" +
+            "year=" + getYear() +
+            ", month=" + getMonth() +
+            ", postCount=" + getPostCount() +
+            "}";
+    }
+}
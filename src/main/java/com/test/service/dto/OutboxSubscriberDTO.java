@@ -0,0 +1,73 @@
+package com.test.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the delivery state of a subscriber of the outbox, as of the last relay run.
+ */
+public class OutboxSubscriberDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+
+    private long lastEventId;
+
+    private long pendingEvents;
+
+    private long lagSeconds;
+
+    public OutboxSubscriberDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OutboxSubscriberDTO(String name, long lastEventId, long pendingEvents, long lagSeconds) {
+        this.name = name;
+        this.lastEventId = lastEventId;
+        this.pendingEvents = pendingEvents;
+        this.lagSeconds = lagSeconds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public long getPendingEvents() {
+        return pendingEvents;
+    }
+
+    public void setPendingEvents(long pendingEvents) {
+        this.pendingEvents = pendingEvents;
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public void setLagSeconds(long lagSeconds) {
+        this.lagSeconds = lagSeconds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxSubscriberDTO{" +
+            "name='" + getName() + "'" +
+            ", lastEventId=" + getLastEventId() +
+            ", pendingEvents=" + getPendingEvents() +
+            ", lagSeconds=" + getLagSeconds() +
+            "}";
+    }
+}
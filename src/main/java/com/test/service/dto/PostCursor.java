@@ -0,0 +1,118 @@
+package com.test.service.dto;
+
+import com.test.domain.Post;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * An opaque continuation token for keyset pagination over {@link Post} entities.
+ * <p>
+ * Posts are ordered by {@code date} then {@code id}, both descending, and the cursor holds the
+ * {@code (date, id)} pair of the last post of the previous slice.
+ */
+public final class PostCursor {
+
+    /**
+     * The only ordering supported by keyset pagination over posts.
+     */
+    public static final Sort SORT = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+
+    private static final char SEPARATOR = ':';
+
+    private final Instant date;
+
+    private final Long id;
+
+    public PostCursor(Instant date, Long id) {
+        this.date = Objects.requireNonNull(date, "date");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Build the cursor pointing right after the given post.
+     *
+     * @param post the last post of a slice.
+     * @return the cursor.
+     */
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getDate(), post.getId());
+    }
+
+    /**
+     * Build the cursor pointing right after the given post summary.
+     *
+     * @param post the last post summary of a slice.
+     * @return the cursor.
+     */
+    public static PostCursor of(PostSummaryDTO post) {
+        return new PostCursor(post.getDate(), post.getId());
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token the opaque token.
+     * @return the cursor, or {@code null} if the token is blank, which means "first slice".
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static PostCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        try {
+            return new PostCursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+
+    /**
+     * @return the URL-safe token representing this cursor.
+     */
+    public String encode() {
+        String raw = String.valueOf(date.getEpochSecond()) + SEPARATOR + date.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PostCursor)) {
+            return false;
+        }
+        PostCursor that = (PostCursor) o;
+        return date.equals(that.date) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PostCursor{" +
+            "date=" + date +
+            ", id=" + id +
+            "}";
+    }
+}
@@ -0,0 +1,84 @@
+package com.test.service.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk post import: how many lines were imported, and why the others failed.
+ */
+public class PostImportReport {
+
+    private long imported;
+
+    private long failed;
+
+    private final List<LineError> errors = new ArrayList<>();
+
+    private final int maxReportedErrors;
+
+    public PostImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    /**
+     * Record a failed line. Only the first {@code maxReportedErrors} errors are kept, but all of them are counted.
+     *
+     * @param line the 1-based line number.
+     * @param message the reason why the line was not imported.
+     */
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<LineError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PostImportReport{" +
+            "imported=" + imported +
+            ", failed=" + failed +
+            "}";
+    }
+
+    /**
+     * A line that could not be imported.
+     */
+    public static class LineError {
+
+        private final long line;
+
+        private final String message;
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
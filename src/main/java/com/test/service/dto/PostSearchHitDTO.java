@@ -0,0 +1,78 @@
+package com.test.service.dto;
+
+import com.test.domain.Post;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A DTO representing a {@link Post} matching a full-text search, with its relevance score and highlighted fragments.
+ */
+public class PostSearchHitDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String title;
+
+    private Instant date;
+
+    private float score;
+
+    /**
+     * HTML-escaped fragments of the matching fields, keyed by field name, with the matching terms in {@code <mark>}.
+     */
+    private Map<String, String> highlights = new LinkedHashMap<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public void setScore(float score) {
+        this.score = score;
+    }
+
+    public Map<String, String> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(Map<String, String> highlights) {
+        this.highlights = highlights;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PostSearchHitDTO{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", score=" + getScore() +
+            "}";
+    }
+}
@@ -0,0 +1,183 @@
+package com.test.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.test.domain.Post;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing a {@link Post} in list views: everything but the content, which is at most shown as an excerpt.
+ */
+public class PostSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String title;
+
+    private Instant date;
+
+    private BlogSummary blog;
+
+    private List<TagSummary> tags = new ArrayList<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String excerpt;
+
+    public PostSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the JPQL projection.
+     */
+    public PostSummaryDTO(Long id, String title, Instant date, Long blogId, String blogName) {
+        this.id = id;
+        this.title = title;
+        this.date = date;
+        this.blog = blogId == null ? null : new BlogSummary(blogId, blogName);
+    }
+
+    /**
+     * Constructor used by the JPQL projection, with the beginning of the content.
+     */
+    public PostSummaryDTO(Long id, String title, Instant date, Long blogId, String blogName, String excerpt) {
+        this(id, title, date, blogId, blogName);
+        this.excerpt = excerpt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public BlogSummary getBlog() {
+        return blog;
+    }
+
+    public void setBlog(BlogSummary blog) {
+        this.blog = blog;
+    }
+
+    public List<TagSummary> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<TagSummary> tags) {
+        this.tags = tags;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PostSummaryDTO{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", date='" + getDate() + "'" +
+            "}";
+    }
+
+    /**
+     * The blog of a post, by id and name.
+     */
+    public static class BlogSummary implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String name;
+
+        public BlogSummary() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public BlogSummary(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A tag of a post, by id and name.
+     */
+    public static class TagSummary implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String name;
+
+        public TagSummary() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public TagSummary(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.test.service.dto;
+
+import com.test.domain.Tag;
+import java.io.Serializable;
+
+/**
+ * A DTO representing the post counter of a {@link Tag}.
+ */
+public class TagStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    private long postCount;
+
+    public TagStatsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the JPQL projection.
+     */
+    public TagStatsDTO(Long id, String name, long postCount) {
+        this.id = id;
+        this.name = name;
+        this.postCount = postCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TagStatsDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", postCount=" + getPostCount() +
+            "}";
+    }
+}
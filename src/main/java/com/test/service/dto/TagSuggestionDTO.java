@@ -0,0 +1,65 @@
+package com.test.service.dto;
+
+import com.test.domain.Tag;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a {@link Tag} suggested for a name prefix, with the number of posts using it.
+ */
+public class TagSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    private long usage;
+
+    public TagSuggestionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the JPQL projection.
+     */
+    public TagSuggestionDTO(Long id, String name, long usage) {
+        this.id = id;
+        this.name = name;
+        this.usage = usage;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getUsage() {
+        return usage;
+    }
+
+    public void setUsage(long usage) {
+        this.usage = usage;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TagSuggestionDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", usage=" + getUsage() +
+            "}";
+    }
+}
@@ -1,10 +1,12 @@
 package com.test.web.rest;
 
 import com.test.domain.Blog;
-import com.test.repository.BlogRepository;
 import com.test.service.BlogQueryService;
 import com.test.service.BlogService;
+import com.test.service.ETagService;
+import com.test.service.PostRollupService;
 import com.test.service.criteria.BlogCriteria;
+import com.test.service.dto.BlogArchiveDTO;
 import com.test.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -18,13 +20,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -38,19 +40,32 @@ public class BlogResource {
 
     private static final String ENTITY_NAME = "blog";
 
+    /**
+     * Lets clients store the responses, as long as they revalidate them with their ETag.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final BlogService blogService;
 
-    private final BlogRepository blogRepository;
-
     private final BlogQueryService blogQueryService;
 
-    public BlogResource(BlogService blogService, BlogRepository blogRepository, BlogQueryService blogQueryService) {
+    private final ETagService eTagService;
+
+    private final PostRollupService postRollupService;
+
+    public BlogResource(
+        BlogService blogService,
+        BlogQueryService blogQueryService,
+        ETagService eTagService,
+        PostRollupService postRollupService
+    ) {
         this.blogService = blogService;
-        this.blogRepository = blogRepository;
         this.blogQueryService = blogQueryService;
+        this.eTagService = eTagService;
+        this.postRollupService = postRollupService;
     }
 
     /**
@@ -80,12 +95,16 @@ public class BlogResource {
      * @param blog the blog to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated blog,
      * or with status {@code 400 (Bad Request)} if the blog is not valid,
+     * or with status {@code 404 (Not Found)} if the blog does not exist,
      * or with status {@code 500 (Internal Server Error)} if the blog couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/blogs/{id}")
-    public ResponseEntity<Blog> updateBlog(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Blog blog)
-        throws URISyntaxException {
+    public ResponseEntity<Blog> updateBlog(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Blog blog,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Blog : {}, {}", id, blog);
         if (blog.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -94,32 +113,37 @@ public class BlogResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!blogRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Blog result = blogService.save(blog);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, blog.getId().toString()))
-            .body(result);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, blog.getId().toString());
+        return blogService
+            .update(blog, ifMatch)
+            .map(result -> {
+                headers.setETag(eTagService.of(result));
+                return ResponseEntity.ok().headers(headers).body(result);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * {@code PATCH  /blogs/:id} : Partial updates given fields of an existing blog, field will ignore if it is null
+     * <p>
+     * With {@code Prefer: return=minimal}, the blog is updated without being read when the service allows it, and no
+     * body is returned.
      *
      * @param id the id of the blog to save.
      * @param blog the blog to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated blog,
+     * or with status {@code 204 (No Content)} if {@code return=minimal} is preferred,
      * or with status {@code 400 (Bad Request)} if the blog is not valid,
-     * or with status {@code 404 (Not Found)} if the blog is not found,
+     * or with status {@code 404 (Not Found)} if the blog does not exist,
      * or with status {@code 500 (Internal Server Error)} if the blog couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/blogs/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Blog> partialUpdateBlog(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Blog blog
+        @NotNull @RequestBody Blog blog,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestHeader(value = PreferHeader.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Blog partially : {}, {}", id, blog);
         if (blog.getId() == null) {
@@ -129,16 +153,21 @@ public class BlogResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!blogRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, blog.getId().toString());
+        if (PreferHeader.returnMinimal(prefer)) {
+            if (!blogService.partialUpdateInPlace(blog, ifMatch)) {
+                return ResponseEntity.notFound().build();
+            }
+            headers.set(PreferHeader.PREFERENCE_APPLIED, PreferHeader.RETURN_MINIMAL);
+            return ResponseEntity.noContent().headers(headers).build();
         }
-
-        Optional<Blog> result = blogService.partialUpdate(blog);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, blog.getId().toString())
-        );
+        return blogService
+            .partialUpdate(blog, ifMatch)
+            .map(result -> {
+                headers.setETag(eTagService.of(result));
+                return ResponseEntity.ok().headers(headers).body(result);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -146,14 +175,21 @@ public class BlogResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of blogs in body.
+     * @param count how to compute {@code X-Total-Count}: {@code exact}, {@code cached}, or {@code estimated} which
+     * adds {@code X-Total-Count-Estimated: true} when the count is a planner estimate.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of blogs in body,
+     * or with status {@code 400 (Bad Request)} if the count mode is invalid.
      */
     @GetMapping("/blogs")
-    public ResponseEntity<List<Blog>> getAllBlogs(BlogCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<Blog>> getAllBlogs(
+        BlogCriteria criteria,
+        Pageable pageable,
+        @RequestParam(value = "count", defaultValue = "exact") String count
+    ) {
         log.debug("REST request to get Blogs by criteria: {}", criteria);
-        Page<Blog> page = blogQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        Page<Blog> page = blogQueryService.findByCriteria(criteria, pageable, PaginationHeaders.countMode(count, ENTITY_NAME));
+        HttpHeaders headers = PaginationHeaders.of(page);
+        return ResponseEntity.ok().headers(headers).cacheControl(REVALIDATE).body(page.getContent());
     }
 
     /**
@@ -171,14 +207,44 @@ public class BlogResource {
     /**
      * {@code GET  /blogs/:id} : get the "id" blog.
      *
+     * The response has a strong ETag: when it matches {@code If-None-Match}, the response is a {@code 304 (Not Modified)}
+     * and the blog is not read.
+     *
      * @param id the id of the blog to retrieve.
+     * @param request the request, for its {@code If-None-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the blog, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/blogs/{id}")
-    public ResponseEntity<Blog> getBlog(@PathVariable Long id) {
+    public ResponseEntity<Blog> getBlog(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Blog : {}", id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = eTagService.findBlogETag(id);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                // The 304 (Not Modified) status and the ETag are already set
+                return null;
+            }
+        }
         Optional<Blog> blog = blogService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(blog);
+        HttpHeaders headers = new HttpHeaders();
+        blog.ifPresent(found -> {
+            headers.setETag(eTagService.of(found));
+            headers.setCacheControl(REVALIDATE);
+        });
+        return ResponseUtil.wrapOrNotFound(blog, headers);
+    }
+
+    /**
+     * {@code GET  /blogs/:id/archive} : get the number of posts of the "id" blog by month, in UTC. The counts are read
+     * from the rollups of the blog, without counting posts.
+     *
+     * @param id the id of the blog.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the months with posts, the latest
+     * first, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/blogs/{id}/archive")
+    public ResponseEntity<List<BlogArchiveDTO>> getBlogArchive(@PathVariable Long id) {
+        log.debug("REST request to get the archive of Blog : {}", id);
+        return ResponseUtil.wrapOrNotFound(postRollupService.findArchive(id));
     }
 
     /**
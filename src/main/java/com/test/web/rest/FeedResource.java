@@ -0,0 +1,109 @@
+package com.test.web.rest;
+
+import com.test.service.FeedService;
+import com.test.service.FeedService.RenderedFeed;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * REST controller serving the public Atom and RSS feeds of the blogs.
+ * <p>
+ * The feeds are served from memory, gzipped unless the client does not accept it, with a weak ETag and the date of
+ * their latest post as {@code Last-Modified}: conditional polls of an unchanged feed are answered with a
+ * {@code 304 (Not Modified)}.
+ */
+@RestController
+@RequestMapping("/feeds")
+public class FeedResource {
+
+    /**
+     * Lets feed readers and proxies store the feeds, as long as they revalidate them.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private final Logger log = LoggerFactory.getLogger(FeedResource.class);
+
+    private final FeedService feedService;
+
+    public FeedResource(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    /**
+     * {@code GET  /feeds/blogs/:handle.atom} : get the Atom feed of the latest posts of a blog.
+     *
+     * @param handle the handle of the blog.
+     * @param request the request, for its conditional and {@code Accept-Encoding} headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the feed in body, with status
+     * {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the feed cannot be decompressed.
+     */
+    @GetMapping("/blogs/{handle}.atom")
+    public ResponseEntity<byte[]> getAtomFeed(@PathVariable String handle, WebRequest request) throws IOException {
+        log.debug("REST request to get the Atom feed of Blog : {}", handle);
+        return toResponse(feedService.findFeed(handle, FeedService.Format.ATOM), request);
+    }
+
+    /**
+     * {@code GET  /feeds/blogs/:handle.rss} : get the RSS feed of the latest posts of a blog.
+     *
+     * @param handle the handle of the blog.
+     * @param request the request, for its conditional and {@code Accept-Encoding} headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the feed in body, with status
+     * {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the feed cannot be decompressed.
+     */
+    @GetMapping("/blogs/{handle}.rss")
+    public ResponseEntity<byte[]> getRssFeed(@PathVariable String handle, WebRequest request) throws IOException {
+        log.debug("REST request to get the RSS feed of Blog : {}", handle);
+        return toResponse(feedService.findFeed(handle, FeedService.Format.RSS), request);
+    }
+
+    private ResponseEntity<byte[]> toResponse(Optional<RenderedFeed> found, WebRequest request) throws IOException {
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        RenderedFeed feed = found.get();
+        if (request.checkNotModified(feed.getETag(), feed.getLastModified().map(Instant::toEpochMilli).orElse(-1L))) {
+            // The 304 (Not Modified) status, the ETag and Last-Modified are already set
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(feed.getFormat().getContentType() + ";charset=UTF-8"));
+        headers.setCacheControl(REVALIDATE);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return ResponseEntity.ok().headers(headers).body(feed.getGzipped());
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(feed.getGzipped()))) {
+            return ResponseEntity.ok().headers(headers).body(in.readAllBytes());
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
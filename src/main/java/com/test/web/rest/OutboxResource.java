@@ -0,0 +1,55 @@
+package com.test.web.rest;
+
+import com.test.security.AuthoritiesConstants;
+import com.test.service.OutboxRelay;
+import com.test.service.dto.OutboxSubscriberDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for monitoring the subscribers of the outbox, and replaying events to them.
+ */
+@RestController
+@RequestMapping("/api/admin/outbox")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class OutboxResource {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxResource.class);
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxResource(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    /**
+     * {@code GET /admin/outbox/subscribers} : get the delivery state of the subscribers.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of subscribers in body.
+     */
+    @GetMapping("/subscribers")
+    public List<OutboxSubscriberDTO> getAllSubscribers() {
+        log.debug("REST request to get the outbox subscribers");
+        return outboxRelay.findAllSubscribers();
+    }
+
+    /**
+     * {@code POST /admin/outbox/subscribers/:name/_replay} : deliver the events to a subscriber again, after an offset.
+     *
+     * @param name the name of the subscriber.
+     * @param offset the id of the last event the subscriber is considered to have handled, {@code 0} for all the
+     * retained events.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the subscriber in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/subscribers/{name}/_replay")
+    public ResponseEntity<OutboxSubscriberDTO> replay(@PathVariable String name, @RequestParam("offset") long offset) {
+        log.debug("REST request to replay the outbox events to {} after #{}", name, offset);
+        return ResponseUtil.wrapOrNotFound(outboxRelay.replay(name, offset));
+    }
+}
@@ -0,0 +1,52 @@
+package com.test.web.rest;
+
+import com.test.service.CountMode;
+import com.test.service.PageCountService;
+import com.test.web.rest.errors.BadRequestAlertException;
+import java.util.Locale;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for the pagination headers of the list endpoints, with the {@code count} request parameter.
+ */
+final class PaginationHeaders {
+
+    /**
+     * Set to {@code true} when {@code X-Total-Count} is a planner estimate.
+     */
+    static final String TOTAL_COUNT_ESTIMATED = "X-Total-Count-Estimated";
+
+    private PaginationHeaders() {}
+
+    /**
+     * @param count the {@code count} request parameter: {@code exact}, {@code cached} or {@code estimated}.
+     * @param entityName the name of the listed entity, for the error.
+     * @return the count mode.
+     * @throws BadRequestAlertException if the parameter is not a count mode.
+     */
+    static CountMode countMode(String count, String entityName) {
+        try {
+            return CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid count mode", entityName, "countinvalid");
+        }
+    }
+
+    /**
+     * Generate the {@code Link} and {@code X-Total-Count} headers of a page of the current request, and
+     * {@value #TOTAL_COUNT_ESTIMATED} if the count is an estimate.
+     *
+     * @param page the page.
+     * @return the headers.
+     */
+    static HttpHeaders of(Page<?> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        if (page instanceof PageCountService.EstimatedPage) {
+            headers.add(TOTAL_COUNT_ESTIMATED, "true");
+        }
+        return headers;
+    }
+}
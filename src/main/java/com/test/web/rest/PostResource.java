@@ -1,16 +1,28 @@
 package com.test.web.rest;
 
 import com.test.domain.Post;
-import com.test.repository.PostRepository;
+import com.test.security.AuthoritiesConstants;
+import com.test.service.CountMode;
+import com.test.service.ETagService;
+import com.test.service.PostExportService;
+import com.test.service.PostImportService;
 import com.test.service.PostQueryService;
+import com.test.service.PostSearchService;
 import com.test.service.PostService;
 import com.test.service.criteria.PostCriteria;
+import com.test.service.dto.PostCursor;
+import com.test.service.dto.PostImportReport;
+import com.test.service.dto.PostSearchHitDTO;
+import com.test.service.dto.PostSummaryDTO;
 import com.test.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
@@ -18,10 +30,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -38,19 +54,40 @@ public class PostResource {
 
     private static final String ENTITY_NAME = "post";
 
+    /**
+     * Lets clients store the responses, as long as they revalidate them with their ETag.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PostService postService;
 
-    private final PostRepository postRepository;
-
     private final PostQueryService postQueryService;
 
-    public PostResource(PostService postService, PostRepository postRepository, PostQueryService postQueryService) {
+    private final PostImportService postImportService;
+
+    private final PostExportService postExportService;
+
+    private final PostSearchService postSearchService;
+
+    private final ETagService eTagService;
+
+    public PostResource(
+        PostService postService,
+        PostQueryService postQueryService,
+        PostImportService postImportService,
+        PostExportService postExportService,
+        PostSearchService postSearchService,
+        ETagService eTagService
+    ) {
         this.postService = postService;
-        this.postRepository = postRepository;
         this.postQueryService = postQueryService;
+        this.postImportService = postImportService;
+        this.postExportService = postExportService;
+        this.postSearchService = postSearchService;
+        this.eTagService = eTagService;
     }
 
     /**
@@ -73,6 +110,22 @@ public class PostResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /posts/_bulk} : Import posts in bulk.
+     * <p>
+     * The body is newline-delimited JSON, one post per line, in the same format as {@code POST /posts}. It is read as
+     * a stream, and a line that cannot be imported does not abort the import.
+     *
+     * @param body the NDJSON body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/posts/_bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<PostImportReport> importPosts(Reader body) throws IOException {
+        log.debug("REST request to import Posts");
+        return ResponseEntity.ok(postImportService.importPosts(body));
+    }
+
     /**
      * {@code PUT  /posts/:id} : Updates an existing post.
      *
@@ -80,12 +133,16 @@ public class PostResource {
      * @param post the post to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated post,
      * or with status {@code 400 (Bad Request)} if the post is not valid,
+     * or with status {@code 404 (Not Found)} if the post does not exist,
      * or with status {@code 500 (Internal Server Error)} if the post couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/posts/{id}")
-    public ResponseEntity<Post> updatePost(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Post post)
-        throws URISyntaxException {
+    public ResponseEntity<Post> updatePost(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Post post,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Post : {}, {}", id, post);
         if (post.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -94,32 +151,37 @@ public class PostResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!postRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Post result = postService.save(post);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, post.getId().toString()))
-            .body(result);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, post.getId().toString());
+        return postService
+            .update(post, ifMatch)
+            .map(result -> {
+                headers.setETag(eTagService.of(result));
+                return ResponseEntity.ok().headers(headers).body(result);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * {@code PATCH  /posts/:id} : Partial updates given fields of an existing post, field will ignore if it is null
+     * <p>
+     * With {@code Prefer: return=minimal}, the post is updated without being read when the service allows it, and no
+     * body is returned.
      *
      * @param id the id of the post to save.
      * @param post the post to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated post,
+     * or with status {@code 204 (No Content)} if {@code return=minimal} is preferred,
      * or with status {@code 400 (Bad Request)} if the post is not valid,
-     * or with status {@code 404 (Not Found)} if the post is not found,
+     * or with status {@code 404 (Not Found)} if the post does not exist,
      * or with status {@code 500 (Internal Server Error)} if the post couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/posts/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Post> partialUpdatePost(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Post post
+        @NotNull @RequestBody Post post,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestHeader(value = PreferHeader.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Post partially : {}, {}", id, post);
         if (post.getId() == null) {
@@ -129,31 +191,113 @@ public class PostResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!postRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, post.getId().toString());
+        if (PreferHeader.returnMinimal(prefer)) {
+            if (!postService.partialUpdateInPlace(post, ifMatch)) {
+                return ResponseEntity.notFound().build();
+            }
+            headers.set(PreferHeader.PREFERENCE_APPLIED, PreferHeader.RETURN_MINIMAL);
+            return ResponseEntity.noContent().headers(headers).build();
         }
-
-        Optional<Post> result = postService.partialUpdate(post);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, post.getId().toString())
-        );
+        return postService
+            .partialUpdate(post, ifMatch)
+            .map(result -> {
+                headers.setETag(eTagService.of(result));
+                return ResponseEntity.ok().headers(headers).body(result);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * {@code GET  /posts} : get all the posts.
+     * <p>
+     * Posts are returned as summaries, without their content: use {@code excerptLength} to get the beginning of it,
+     * and {@code GET /posts/:id} to get all of it.
+     * <p>
+     * When a {@code cursor} parameter is given (empty for the first slice), keyset pagination is used instead:
+     * posts are ordered by date then id, descending, no {@code X-Total-Count} is computed, and the next slice
+     * is advertised through a {@code rel="next"} link.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body.
+     * @param cursor the continuation token returned by the previous slice, for keyset pagination.
+     * @param excerptLength the number of characters of the content to return, at most {@value PostQueryService#MAX_EXCERPT_LENGTH}.
+     * @param count how to compute {@code X-Total-Count}: {@code exact}, {@code cached}, or {@code estimated} which
+     * adds {@code X-Total-Count-Estimated: true} when the count is a planner estimate.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the count mode is invalid.
      */
     @GetMapping("/posts")
-    public ResponseEntity<List<Post>> getAllPosts(PostCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<PostSummaryDTO>> getAllPosts(
+        PostCriteria criteria,
+        Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "excerptLength", defaultValue = "0") int excerptLength,
+        @RequestParam(value = "count", defaultValue = "exact") String count
+    ) {
         log.debug("REST request to get Posts by criteria: {}", criteria);
-        Page<Post> page = postQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        if (cursor != null) {
+            return getAllPostsAfter(criteria, pageable, cursor, excerptLength);
+        }
+        CountMode countMode = PaginationHeaders.countMode(count, ENTITY_NAME);
+        Page<PostSummaryDTO> page = postQueryService.findSummariesByCriteria(criteria, pageable, excerptLength, countMode);
+        HttpHeaders headers = PaginationHeaders.of(page);
+        return ResponseEntity.ok().headers(headers).cacheControl(REVALIDATE).body(page.getContent());
+    }
+
+    private ResponseEntity<List<PostSummaryDTO>> getAllPostsAfter(
+        PostCriteria criteria,
+        Pageable pageable,
+        String cursor,
+        int excerptLength
+    ) {
+        PostCursor after;
+        try {
+            after = PostCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<PostSummaryDTO> slice = postQueryService.findSummariesByCriteria(criteria, after, pageable.getPageSize(), excerptLength);
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<PostSummaryDTO> content = slice.getContent();
+            String next = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("page")
+                .replaceQueryParam("cursor", PostCursor.of(content.get(content.size() - 1)).encode())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).cacheControl(REVALIDATE).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /posts/_export} : export all the posts matching the criteria.
+     * <p>
+     * The posts are written to the response as they are read from the database, ordered by id.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param format the output format, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the posts to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/posts/_export")
+    public void exportPosts(
+        PostCriteria criteria,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export Posts by criteria: {}, format: {}", criteria, format);
+        PostExportService.Format exportFormat;
+        try {
+            exportFormat = PostExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid");
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"posts." + exportFormat.getExtension() + "\"");
+        postExportService.export(criteria, exportFormat, response.getOutputStream());
     }
 
     /**
@@ -171,14 +315,30 @@ public class PostResource {
     /**
      * {@code GET  /posts/:id} : get the "id" post.
      *
+     * The response has a strong ETag: when it matches {@code If-None-Match}, the response is a {@code 304 (Not Modified)}
+     * and the post is not read.
+     *
      * @param id the id of the post to retrieve.
+     * @param request the request, for its {@code If-None-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/posts/{id}")
-    public ResponseEntity<Post> getPost(@PathVariable Long id) {
+    public ResponseEntity<Post> getPost(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Post : {}", id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = eTagService.findPostETag(id);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                // The 304 (Not Modified) status and the ETag are already set
+                return null;
+            }
+        }
         Optional<Post> post = postService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(post);
+        HttpHeaders headers = new HttpHeaders();
+        post.ifPresent(found -> {
+            headers.setETag(eTagService.of(found));
+            headers.setCacheControl(REVALIDATE);
+        });
+        return ResponseUtil.wrapOrNotFound(post, headers);
     }
 
     /**
@@ -196,4 +356,39 @@ public class PostResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code SEARCH  /_search/posts?q=:query} : search for the posts corresponding to the query, in their title,
+     * content, tags and blog name.
+     *
+     * @param query the query of the post search: words, {@code "phrases"}, {@code prefix*}, {@code -excluded}
+     * and {@code |} for alternatives.
+     * @param pageable the pagination information; hits are always sorted by relevance.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the hits in body,
+     * or with status {@code 400 (Bad Request)} if the page is too far.
+     */
+    @GetMapping("/_search/posts")
+    public ResponseEntity<List<PostSearchHitDTO>> searchPosts(@RequestParam("q") String query, Pageable pageable) {
+        log.debug("REST request to search for a page of Posts for query {}", query);
+        Page<PostSearchHitDTO> page;
+        try {
+            page = postSearchService.search(query, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "searchwindowtoolarge");
+        }
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /_search/posts/_reindex} : rebuild the post search index from the database.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of indexed posts in body.
+     */
+    @PostMapping("/_search/posts/_reindex")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Long> reindexPosts() {
+        log.debug("REST request to rebuild the Post search index");
+        return ResponseEntity.ok().body(postSearchService.reindex());
+    }
 }
@@ -0,0 +1,28 @@
+package com.test.web.rest;
+
+import java.util.Arrays;
+
+/**
+ * Utility class for the {@code Prefer} request header of RFC 7240.
+ */
+final class PreferHeader {
+
+    static final String PREFER = "Prefer";
+
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+    /**
+     * The preference for a response without the representation of the resource.
+     */
+    static final String RETURN_MINIMAL = "return=minimal";
+
+    private PreferHeader() {}
+
+    /**
+     * @param prefer the {@code Prefer} request header, {@code null} if none.
+     * @return whether the client prefers a response without the representation of the resource.
+     */
+    static boolean returnMinimal(String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(",")).map(String::trim).anyMatch(RETURN_MINIMAL::equalsIgnoreCase);
+    }
+}
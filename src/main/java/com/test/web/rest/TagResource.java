@@ -1,10 +1,14 @@
 package com.test.web.rest;
 
 import com.test.domain.Tag;
-import com.test.repository.TagRepository;
+import com.test.service.ETagService;
+import com.test.service.PostRollupService;
 import com.test.service.TagQueryService;
 import com.test.service.TagService;
+import com.test.service.TagSuggestService;
 import com.test.service.criteria.TagCriteria;
+import com.test.service.dto.TagStatsDTO;
+import com.test.service.dto.TagSuggestionDTO;
 import com.test.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -18,10 +22,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -38,19 +44,36 @@ public class TagResource {
 
     private static final String ENTITY_NAME = "tag";
 
+    /**
+     * Lets clients store the responses, as long as they revalidate them with their ETag.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final TagService tagService;
 
-    private final TagRepository tagRepository;
-
     private final TagQueryService tagQueryService;
 
-    public TagResource(TagService tagService, TagRepository tagRepository, TagQueryService tagQueryService) {
+    private final ETagService eTagService;
+
+    private final TagSuggestService tagSuggestService;
+
+    private final PostRollupService postRollupService;
+
+    public TagResource(
+        TagService tagService,
+        TagQueryService tagQueryService,
+        ETagService eTagService,
+        TagSuggestService tagSuggestService,
+        PostRollupService postRollupService
+    ) {
         this.tagService = tagService;
-        this.tagRepository = tagRepository;
         this.tagQueryService = tagQueryService;
+        this.eTagService = eTagService;
+        this.tagSuggestService = tagSuggestService;
+        this.postRollupService = postRollupService;
     }
 
     /**
@@ -80,12 +103,16 @@ public class TagResource {
      * @param tag the tag to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated tag,
      * or with status {@code 400 (Bad Request)} if the tag is not valid,
+     * or with status {@code 404 (Not Found)} if the tag does not exist,
      * or with status {@code 500 (Internal Server Error)} if the tag couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/tags/{id}")
-    public ResponseEntity<Tag> updateTag(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Tag tag)
-        throws URISyntaxException {
+    public ResponseEntity<Tag> updateTag(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Tag tag,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Tag : {}, {}", id, tag);
         if (tag.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -94,31 +121,38 @@ public class TagResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!tagRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Tag result = tagService.save(tag);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, tag.getId().toString()))
-            .body(result);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, tag.getId().toString());
+        return tagService
+            .update(tag, ifMatch)
+            .map(result -> {
+                headers.setETag(eTagService.of(result));
+                return ResponseEntity.ok().headers(headers).body(result);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * {@code PATCH  /tags/:id} : Partial updates given fields of an existing tag, field will ignore if it is null
+     * <p>
+     * With {@code Prefer: return=minimal}, the tag is updated without being read when the service allows it, and no
+     * body is returned.
      *
      * @param id the id of the tag to save.
      * @param tag the tag to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated tag,
+     * or with status {@code 204 (No Content)} if {@code return=minimal} is preferred,
      * or with status {@code 400 (Bad Request)} if the tag is not valid,
-     * or with status {@code 404 (Not Found)} if the tag is not found,
+     * or with status {@code 404 (Not Found)} if the tag does not exist,
      * or with status {@code 500 (Internal Server Error)} if the tag couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/tags/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Tag> partialUpdateTag(@PathVariable(value = "id", required = false) final Long id, @NotNull @RequestBody Tag tag)
-        throws URISyntaxException {
+    public ResponseEntity<Tag> partialUpdateTag(
+        @PathVariable(value = "id", required = false) final Long id,
+        @NotNull @RequestBody Tag tag,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestHeader(value = PreferHeader.PREFER, required = false) String prefer
+    ) throws URISyntaxException {
         log.debug("REST request to partial update Tag partially : {}, {}", id, tag);
         if (tag.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -127,16 +161,21 @@ public class TagResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!tagRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, tag.getId().toString());
+        if (PreferHeader.returnMinimal(prefer)) {
+            if (!tagService.partialUpdateInPlace(tag, ifMatch)) {
+                return ResponseEntity.notFound().build();
+            }
+            headers.set(PreferHeader.PREFERENCE_APPLIED, PreferHeader.RETURN_MINIMAL);
+            return ResponseEntity.noContent().headers(headers).build();
         }
-
-        Optional<Tag> result = tagService.partialUpdate(tag);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, tag.getId().toString())
-        );
+        return tagService
+            .partialUpdate(tag, ifMatch)
+            .map(result -> {
+                headers.setETag(eTagService.of(result));
+                return ResponseEntity.ok().headers(headers).body(result);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -144,16 +183,72 @@ public class TagResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tags in body.
+     * @param count how to compute {@code X-Total-Count}: {@code exact}, {@code cached}, or {@code estimated} which
+     * adds {@code X-Total-Count-Estimated: true} when the count is a planner estimate.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tags in body,
+     * or with status {@code 400 (Bad Request)} if the count mode is invalid.
      */
     @GetMapping("/tags")
-    public ResponseEntity<List<Tag>> getAllTags(TagCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<Tag>> getAllTags(
+        TagCriteria criteria,
+        Pageable pageable,
+        @RequestParam(value = "count", defaultValue = "exact") String count
+    ) {
         log.debug("REST request to get Tags by criteria: {}", criteria);
-        Page<Tag> page = tagQueryService.findByCriteria(criteria, pageable);
+        Page<Tag> page = tagQueryService.findByCriteria(criteria, pageable, PaginationHeaders.countMode(count, ENTITY_NAME));
+        HttpHeaders headers = PaginationHeaders.of(page);
+        return ResponseEntity.ok().headers(headers).cacheControl(REVALIDATE).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /tags/_stats} : get the post counters of all the tags, in one request.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of counters in body.
+     */
+    @GetMapping("/tags/_stats")
+    public ResponseEntity<List<TagStatsDTO>> getAllTagStats(Pageable pageable) {
+        log.debug("REST request to get the stats of Tags");
+        Page<TagStatsDTO> page = tagService.findAllStats(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /tags/_top} : get the most used tags, of all the blogs or of one. The tags are read from the post
+     * counters, without counting posts.
+     *
+     * @param blogId the id of the blog, none for all the blogs.
+     * @param limit the maximum number of tags to return, at most {@value PostRollupService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tags with their number of posts in body,
+     * the most used first.
+     */
+    @GetMapping("/tags/_top")
+    public ResponseEntity<List<TagStatsDTO>> getTopTags(
+        @RequestParam(value = "blogId", required = false) Long blogId,
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to get the top Tags of Blog : {}", blogId);
+        return ResponseEntity.ok().body(postRollupService.findTopTags(blogId, limit));
+    }
+
+    /**
+     * {@code GET  /tags/_suggest?prefix=:prefix} : suggest the tags whose name starts with a prefix, ignoring case and
+     * diacritics. Suggestions are served from memory, without querying the database.
+     *
+     * @param prefix the prefix of the tag names.
+     * @param limit the maximum number of tags to return, at most {@value TagSuggestService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tags in body, the most used first.
+     */
+    @GetMapping("/tags/_suggest")
+    public ResponseEntity<List<TagSuggestionDTO>> suggestTags(
+        @RequestParam(value = "prefix", defaultValue = "") String prefix,
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to suggest Tags for prefix: {}", prefix);
+        return ResponseEntity.ok().body(tagSuggestService.suggest(prefix, limit));
+    }
+
     /**
      * {@code GET  /tags/count} : count all the tags.
      *
@@ -169,14 +264,30 @@ public class TagResource {
     /**
      * {@code GET  /tags/:id} : get the "id" tag.
      *
+     * The response has a strong ETag: when it matches {@code If-None-Match}, the response is a {@code 304 (Not Modified)}
+     * and the tag is not read.
+     *
      * @param id the id of the tag to retrieve.
+     * @param request the request, for its {@code If-None-Match} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the tag, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/tags/{id}")
-    public ResponseEntity<Tag> getTag(@PathVariable Long id) {
+    public ResponseEntity<Tag> getTag(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Tag : {}", id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = eTagService.findTagETag(id);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                // The 304 (Not Modified) status and the ETag are already set
+                return null;
+            }
+        }
         Optional<Tag> tag = tagService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(tag);
+        HttpHeaders headers = new HttpHeaders();
+        tag.ifPresent(found -> {
+            headers.setETag(eTagService.of(found));
+            headers.setCacheControl(REVALIDATE);
+        });
+        return ResponseUtil.wrapOrNotFound(tag, headers);
     }
 
     /**
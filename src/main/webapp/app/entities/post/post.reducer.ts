@@ -16,11 +16,14 @@ const initialState: EntityState<IPost> = {
 };
 
 const apiUrl = 'api/posts';
+const EXCERPT_LENGTH = 100;
 
 // Actions
 
 export const getEntities = createAsyncThunk('post/fetch_entity_list', async ({ page, size, sort }: IQueryParams) => {
-  const requestUrl = `${apiUrl}${sort ? `?page=${page}&size=${size}&sort=${sort}&` : '?'}cacheBuster=${new Date().getTime()}`;
+  const requestUrl = `${apiUrl}${
+    sort ? `?page=${page}&size=${size}&sort=${sort}&` : '?'
+  }excerptLength=${EXCERPT_LENGTH}&cacheBuster=${new Date().getTime()}`;
   return axios.get<IPost[]>(requestUrl);
 });
 
@@ -126,7 +126,7 @@ export const Post = (props: RouteComponentProps<{ url: string }>) => {
                     </Button>
                   </td>
                   <td>{post.title}</td>
-                  <td>{post.content}</td>
+                  <td>{post.excerpt}</td>
                   <td>{post.date ? <TextFormat type="date" value={post.date} format={APP_DATE_FORMAT} /> : null}</td>
                   <td>{post.blog ? <Link to={`blog/${post.blog.id}`}>{post.blog.name}</Link> : ''}</td>
                   <td className="text-right">
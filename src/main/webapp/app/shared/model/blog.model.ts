@@ -5,6 +5,8 @@ export interface IBlog {
   name?: string;
   handle?: string;
   user?: IUser | null;
+  postCount?: number;
+  lastPostDate?: string | null;
 }
 
 export const defaultValue: Readonly<IBlog> = {};
@@ -6,6 +6,7 @@ export interface IPost {
   id?: number;
   title?: string;
   content?: string;
+  excerpt?: string | null;
   date?: string;
   blog?: IBlog | null;
   tags?: ITag[] | null;
@@ -4,6 +4,7 @@ export interface ITag {
   id?: number;
   name?: string;
   entries?: IPost[] | null;
+  postCount?: number;
 }
 
 export const defaultValue: Readonly<ITag> = {};
@@ -0,0 +1,145 @@
+package com.test.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.test.config.ApplicationProperties;
+import com.test.domain.Post;
+import com.test.service.TracedTestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Unit tests for the {@link LoggingAspect}, advising a proxied service.
+ */
+class LoggingAspectTest {
+
+    private ApplicationProperties.Tracing properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Logger logger;
+
+    private Level previousLevel;
+
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApplicationProperties().getTracing();
+        properties.setMaxArgumentLength(10);
+        meterRegistry = new SimpleMeterRegistry();
+        logger = (Logger) LoggerFactory.getLogger(TracedTestService.class);
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void logsTruncatedAndRedactedArguments() {
+        proxy().echo("a long text argument", "secret");
+
+        assertThat(messages())
+            .containsExactly(
+                "Enter: echo() with argument[s] = [a long tex...(20 chars), [redacted]]",
+                "Exit: echo() with result = a long tex...(20 chars)"
+            );
+    }
+
+    @Test
+    void logsEntitiesByIdWithoutFormattingThem() {
+        Post post = new Post() {
+            @Override
+            public String toString() {
+                throw new AssertionError("The whole post is formatted");
+            }
+        };
+        post.setId(1L);
+
+        proxy().identity(post);
+
+        assertThat(messages())
+            .containsExactly("Enter: identity() with argument[s] = [Post[id=1]]", "Exit: identity() with result = Post[id=1]");
+    }
+
+    @Test
+    void formatsNothingWhenDebugIsDisabled() {
+        logger.setLevel(Level.INFO);
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("The argument is formatted");
+            }
+        };
+
+        proxy().identity(argument);
+
+        assertThat(messages()).isEmpty();
+    }
+
+    @Test
+    void samplesByLongestPrefix() {
+        properties.getSampling().put("com.test", 1.0);
+        properties.getSampling().put("com.test.service", 0.0);
+
+        proxy().echo("text", "secret");
+        assertThat(messages()).isEmpty();
+
+        properties.getSampling().put("com.test.service.TracedTestService", 1.0);
+
+        proxy().echo("text", "secret");
+        assertThat(messages()).hasSize(2);
+    }
+
+    @Test
+    void timesInvocationsByException() {
+        TracedTestService service = proxy();
+
+        service.echo("text", null);
+        assertThatThrownBy(service::fail).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timerCount("echo", "none")).isEqualTo(1);
+        assertThat(timerCount("fail", "IllegalStateException")).isEqualTo(1);
+        assertThat(timerCount("fail", "none")).isZero();
+    }
+
+    /**
+     * @return the service, advised by a new aspect: the aspect reads the properties of a method once.
+     */
+    private TracedTestService proxy() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new TracedTestService());
+        proxyFactory.addAspect(new LoggingAspect(new MockEnvironment(), properties, meterRegistry));
+        return proxyFactory.getProxy();
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+    }
+
+    private long timerCount(String method, String exception) {
+        return meterRegistry
+            .get("method.timed")
+            .tags("class", "TracedTestService", "method", method, "exception", exception)
+            .timer()
+            .count();
+    }
+}
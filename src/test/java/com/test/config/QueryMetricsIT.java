@@ -0,0 +1,82 @@
+package com.test.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.test.IntegrationTest;
+import com.test.domain.Blog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link QueryMetricsRecorder} of the Hibernate statements.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class QueryMetricsIT {
+
+    private static final String ENDPOINT = "BlogResource.getAllBlogs";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryMetricsRecorder queryMetricsRecorder;
+
+    @Test
+    @Transactional
+    void recordsTheStatementsByEndpoint() throws Exception {
+        em.persist(new Blog().name("metrics").handle("metrics"));
+        em.flush();
+        long requests = requestStatements().map(DistributionSummary::count).orElse(0L);
+
+        restMockMvc.perform(get("/api/blogs?sort=id,desc")).andExpect(status().isOk());
+
+        DistributionSummary statements = requestStatements().orElseThrow();
+        assertThat(statements.count()).isEqualTo(requests + 1);
+        assertThat(statements.max()).isPositive();
+        Timer select = meterRegistry
+            .find("jdbc.statements")
+            .timers()
+            .stream()
+            .filter(timer -> timer.getId().getTag("query").startsWith("select") && timer.getId().getTag("query").contains(" from blog "))
+            .findFirst()
+            .orElseThrow();
+        assertThat(select.count()).isPositive();
+        DistributionSummary rows = meterRegistry
+            .find("jdbc.statements.rows")
+            .tag("query", select.getId().getTag("query"))
+            .summary();
+        assertThat(rows).isNotNull();
+        assertThat(rows.max()).isPositive();
+    }
+
+    @Test
+    void collapsesTheShapesOfTheStatements() {
+        assertThat(queryMetricsRecorder.shape(" select post0_.id\n  from post post0_ where post0_.id in (?, ?,?)  and post0_.blog_id=?"))
+            .isEqualTo("select post0_.id from post post0_ where post0_.id in (?...) and post0_.blog_id=?");
+        assertThat(queryMetricsRecorder.shape("select tag0_.id from tag tag0_ where tag0_.id in (?, ?, ?, ?)"))
+            .isEqualTo(queryMetricsRecorder.shape("select tag0_.id from tag tag0_ where tag0_.id in (?, ?)"));
+    }
+
+    private Optional<DistributionSummary> requestStatements() {
+        return Optional.ofNullable(meterRegistry.find("jdbc.requests.statements").tag("endpoint", ENDPOINT).summary());
+    }
+}
@@ -0,0 +1,120 @@
+package com.test.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unit tests for the {@link ReadReplicaRoutingDataSource} class, with two in-memory databases which tell their name.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+
+    private HikariDataSource replica;
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWriteTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, List.of(replica), Duration.ofMinutes(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        routingDataSource.destroy();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(readOnlyDatabaseName()).isEqualTo("replica");
+        assertThat(readWriteDatabaseName()).isEqualTo("primary");
+        assertThat(databaseName()).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsFailOverToThePrimary() {
+        replica.close();
+
+        assertThat(readOnlyDatabaseName()).isEqualTo("primary");
+        assertThat(routingDataSource.getReplicasUp()).isZero();
+
+        routingDataSource.checkReplicas();
+        assertThat(routingDataSource.getReplicasUp()).isZero();
+    }
+
+    @Test
+    void usersReadTheirWritesFromThePrimary() {
+        authenticate("writer");
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("update database_name set name = name"));
+        assertThat(readOnlyDatabaseName()).isEqualTo("primary");
+
+        authenticate("reader");
+        assertThat(readOnlyDatabaseName()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        authenticate("writer");
+        readWriteTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("update database_name set name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyDatabaseName()).isEqualTo("replica");
+    }
+
+    private String readOnlyDatabaseName() {
+        return readOnlyTransaction.execute(status -> databaseName());
+    }
+
+    private String readWriteDatabaseName() {
+        return readWriteTransaction.execute(status -> databaseName());
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("select name from database_name", String.class);
+    }
+
+    private static void authenticate(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, "password"));
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table database_name (name varchar(20))");
+        jdbcTemplate.update("insert into database_name values (?)", name);
+        return dataSource;
+    }
+}
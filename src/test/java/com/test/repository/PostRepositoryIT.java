@@ -0,0 +1,58 @@
+package com.test.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import java.time.Instant;
+import javax.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link PostRepository} queries which are not covered by the REST resource tests.
+ */
+@IntegrationTest
+@Transactional
+class PostRepositoryIT {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void findAllWithEagerRelationshipsPaginatesInSql() {
+        // Initialize the database: three posts with two tags each
+        Tag first = new Tag().name("first");
+        em.persist(first);
+        Tag second = new Tag().name("second");
+        em.persist(second);
+        postRepository.save(newPost().addTag(first).addTag(second));
+        Post newer = postRepository.save(newPost().addTag(first).addTag(second));
+        Post newest = postRepository.save(newPost().addTag(first).addTag(second));
+        em.flush();
+        em.clear();
+
+        // Collection fetches cannot be paginated in SQL: this fails if the page is not selected by id first
+        Page<Post> page = postRepository.findAllWithEagerRelationships(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(3);
+        assertThat(page.getContent()).extracting(Post::getId).containsExactly(newest.getId(), newer.getId());
+        assertThat(page.getContent()).allSatisfy(post -> {
+            assertThat(Hibernate.isInitialized(post.getTags())).isTrue();
+            assertThat(post.getTags()).hasSize(2);
+        });
+    }
+
+    private Post newPost() {
+        return new Post().title("title").content("content").date(Instant.parse("2026-01-01T10:00:00Z"));
+    }
+}
@@ -0,0 +1,295 @@
+package com.test.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.IntegrationTest;
+import com.test.service.BlogQueryService;
+import com.test.service.PostQueryService;
+import com.test.service.TagQueryService;
+import com.test.service.criteria.BlogCriteria;
+import com.test.service.criteria.PostCriteria;
+import com.test.service.criteria.TagCriteria;
+import com.test.service.dto.PostCursor;
+import java.sql.DatabaseMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Query plan regression tests for the criteria filters.
+ * <p>
+ * Each test runs a criteria query on a seeded data set, captures the SQL that Hibernate generated together with
+ * its bound parameters, and runs {@code EXPLAIN} on it. A sequential scan on one of the seeded tables means that
+ * a filter lost its index. These tests only run against PostgreSQL (the {@code testcontainers} profile).
+ */
+@IntegrationTest
+@Transactional
+class QueryPlanIT {
+
+    private static final long ID_OFFSET = 1_000_000L;
+
+    private static final int BLOG_COUNT = 5_000;
+
+    private static final int TAG_COUNT = 5_000;
+
+    private static final int POST_COUNT = 100_000;
+
+    private static final Instant FIRST_POST_DATE = Instant.parse("2021-01-01T00:00:00Z");
+
+    private static final Set<String> SEEDED_TABLES = Set.of("post", "rel_post__tag", "blog", "tag");
+
+    private static final Pageable POST_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("date")));
+
+    private static final Pageable ID_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    private static final Pattern BINDING = Pattern.compile("binding parameter \\[(\\d+)\\] as \\[\\w+\\] - \\[(.*)\\]", Pattern.DOTALL);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostQueryService postQueryService;
+
+    @Autowired
+    private BlogQueryService blogQueryService;
+
+    @Autowired
+    private TagQueryService tagQueryService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() throws Exception {
+        String databaseProductName = JdbcUtils.extractDatabaseMetaData(
+            jdbcTemplate.getDataSource(),
+            DatabaseMetaData::getDatabaseProductName
+        );
+        assumeThat(databaseProductName).as("query plans are only checked on PostgreSQL").isEqualTo("PostgreSQL");
+
+        jdbcTemplate.update(
+            "insert into blog (id, name, handle, user_id) " +
+            "select ? + i, 'blog ' || i, 'blog-' || i, case when i % 100 = 0 then 1 end from generate_series(1, ?) i",
+            ID_OFFSET,
+            BLOG_COUNT
+        );
+        jdbcTemplate.update("insert into tag (id, name) select ? + i, 'tag-' || i from generate_series(1, ?) i", ID_OFFSET, TAG_COUNT);
+        jdbcTemplate.update(
+            "insert into post (id, title, content, date, blog_id) " +
+            "select ? + i, 'post ' || i, repeat('lorem ipsum ', 20), timestamp '2021-01-01' + i * interval '10 minutes', ? + 1 + i % ? " +
+            "from generate_series(1, ?) i",
+            ID_OFFSET,
+            ID_OFFSET,
+            BLOG_COUNT,
+            POST_COUNT
+        );
+        jdbcTemplate.update(
+            "insert into rel_post__tag (post_id, tag_id) select ? + i, ? + 1 + (i + k) % ? " +
+            "from generate_series(1, ?) i cross join (values (0), (?)) as offsets(k)",
+            ID_OFFSET,
+            ID_OFFSET,
+            TAG_COUNT,
+            POST_COUNT,
+            TAG_COUNT / 2
+        );
+        for (String table : SEEDED_TABLES) {
+            jdbcTemplate.execute("analyze " + table);
+        }
+    }
+
+    @Test
+    void postFiltersShouldUseIndexes() throws Exception {
+        assertIndexedPostQuery("id.equals", criteria -> criteria.id().setEquals(ID_OFFSET + 42));
+        assertIndexedPostQuery("blogId.equals", criteria -> criteria.blogId().setEquals(ID_OFFSET + 42));
+        assertIndexedPostQuery("tagId.equals", criteria -> criteria.tagId().setEquals(ID_OFFSET + 42));
+        assertIndexedPostQuery("tagId.in", criteria -> criteria.tagId().setIn(List.of(ID_OFFSET + 42, ID_OFFSET + 43)));
+        assertIndexedPostQuery("date.greaterThanOrEqual", criteria -> criteria.date().setGreaterThanOrEqual(lastPostDate().minusSeconds(86400)));
+        assertIndexedPostQuery(
+            "blogId.equals&date.lessThan",
+            criteria -> {
+                criteria.blogId().setEquals(ID_OFFSET + 42);
+                criteria.date().setLessThan(lastPostDate());
+            }
+        );
+        assertIndexedPostQuery(
+            "blogId.equals&tagId.equals",
+            criteria -> {
+                criteria.blogId().setEquals(ID_OFFSET + 42);
+                criteria.tagId().setEquals(ID_OFFSET + 42);
+            }
+        );
+    }
+
+    @Test
+    void postKeysetPaginationShouldUseIndexes() throws Exception {
+        PostCursor middle = new PostCursor(FIRST_POST_DATE.plusSeconds(600L * POST_COUNT / 2), ID_OFFSET + POST_COUNT / 2);
+
+        assertIndexed("cursor", () -> postQueryService.findSummariesByCriteria(new PostCriteria(), middle, 20, 0));
+        PostCriteria criteria = new PostCriteria();
+        criteria.blogId().setEquals(ID_OFFSET + 42);
+        assertIndexed("cursor&blogId.equals", () -> postQueryService.findSummariesByCriteria(criteria, middle, 20, 0));
+    }
+
+    @Test
+    void blogFiltersShouldUseIndexes() throws Exception {
+        BlogCriteria byId = new BlogCriteria();
+        byId.id().setEquals(ID_OFFSET + 42);
+        assertIndexed("id.equals", () -> blogQueryService.findByCriteria(byId, ID_PAGE));
+
+        BlogCriteria byUser = new BlogCriteria();
+        byUser.userId().setEquals(1L);
+        assertIndexed("userId.equals", () -> blogQueryService.findByCriteria(byUser, ID_PAGE));
+    }
+
+    @Test
+    void tagFiltersShouldUseIndexes() throws Exception {
+        TagCriteria byName = new TagCriteria();
+        byName.name().setEquals("tag-42");
+        assertIndexed("name.equals", () -> tagQueryService.findByCriteria(byName, ID_PAGE));
+
+        TagCriteria byEntry = new TagCriteria();
+        byEntry.entryId().setEquals(ID_OFFSET + 42);
+        assertIndexed("entryId.equals", () -> tagQueryService.findByCriteria(byEntry, ID_PAGE));
+    }
+
+    private static Instant lastPostDate() {
+        return FIRST_POST_DATE.plusSeconds(600L * POST_COUNT);
+    }
+
+    /**
+     * Explains the filter on the entities and on the summaries, which {@code GET /api/posts} returns: the projection
+     * joins the blog, and reads the tags of the page with another query.
+     */
+    private void assertIndexedPostQuery(String description, Consumer<PostCriteria> filter) throws Exception {
+        PostCriteria criteria = new PostCriteria();
+        filter.accept(criteria);
+        assertIndexed(description, () -> postQueryService.findByCriteria(criteria, POST_PAGE));
+        assertIndexed(description + " (summaries)", () -> postQueryService.findSummariesByCriteria(criteria, POST_PAGE, 0));
+        assertIndexed(
+            description + " (summaries with excerpt)",
+            () -> postQueryService.findSummariesByCriteria(criteria, POST_PAGE, PostQueryService.MAX_EXCERPT_LENGTH)
+        );
+    }
+
+    /**
+     * Runs the query, then explains every statement it issued and fails on a sequential scan of a seeded table.
+     */
+    private void assertIndexed(String description, Runnable query) throws Exception {
+        for (String statement : captureStatements(query)) {
+            JsonNode plan = objectMapper.readTree(jdbcTemplate.queryForObject("explain (format json) " + statement, String.class));
+            List<String> sequentialScans = new ArrayList<>();
+            collectSequentialScans(plan.get(0).get("Plan"), sequentialScans);
+            assertThat(sequentialScans).as("sequential scans for %s: %s%n%s", description, statement, plan.toPrettyString()).isEmpty();
+        }
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> sequentialScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && SEEDED_TABLES.contains(node.path("Relation Name").asText())) {
+            sequentialScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, sequentialScans);
+        }
+    }
+
+    /**
+     * Captures the SQL statements issued by the query from the Hibernate SQL and binder loggers, and inlines the
+     * bound parameters so that the statements can be explained as they were actually planned.
+     */
+    private static List<String> captureStatements(Runnable query) {
+        Logger sqlLogger = (Logger) LoggerFactory.getLogger("org.hibernate.SQL");
+        Logger binderLogger = (Logger) LoggerFactory.getLogger("org.hibernate.type.descriptor.sql.BasicBinder");
+        Level sqlLevel = sqlLogger.getLevel();
+        Level binderLevel = binderLogger.getLevel();
+        boolean sqlAdditive = sqlLogger.isAdditive();
+        boolean binderAdditive = binderLogger.isAdditive();
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        try {
+            sqlLogger.setLevel(Level.DEBUG);
+            sqlLogger.setAdditive(false);
+            sqlLogger.addAppender(appender);
+            binderLogger.setLevel(Level.TRACE);
+            binderLogger.setAdditive(false);
+            binderLogger.addAppender(appender);
+            query.run();
+        } finally {
+            sqlLogger.detachAppender(appender);
+            sqlLogger.setLevel(sqlLevel);
+            sqlLogger.setAdditive(sqlAdditive);
+            binderLogger.detachAppender(appender);
+            binderLogger.setLevel(binderLevel);
+            binderLogger.setAdditive(binderAdditive);
+            appender.stop();
+        }
+
+        String currentThread = Thread.currentThread().getName();
+        List<String> statements = new ArrayList<>();
+        String sql = null;
+        List<String> parameters = new ArrayList<>();
+        for (ILoggingEvent event : appender.list) {
+            if (!currentThread.equals(event.getThreadName())) {
+                continue;
+            }
+            Matcher binding = BINDING.matcher(event.getFormattedMessage());
+            if (event.getLoggerName().equals(sqlLogger.getName())) {
+                if (sql != null) {
+                    statements.add(inlineParameters(sql, parameters));
+                }
+                sql = event.getFormattedMessage();
+                parameters = new ArrayList<>();
+            } else if (binding.matches()) {
+                parameters.add(binding.group(2));
+            }
+        }
+        if (sql != null) {
+            statements.add(inlineParameters(sql, parameters));
+        }
+        return statements;
+    }
+
+    /**
+     * Replaces the {@code ?} placeholders with quoted literals. Trailing placeholders that were not logged by the
+     * binder are the {@code limit}/{@code offset} added by the dialect.
+     */
+    private static String inlineParameters(String sql, List<String> parameters) {
+        StringBuilder inlined = new StringBuilder(sql.length());
+        int parameter = 0;
+        int unbound = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c != '?' || quoted) {
+                inlined.append(c);
+            } else if (parameter < parameters.size()) {
+                String value = parameters.get(parameter++);
+                inlined.append("null".equals(value) ? "null" : "'" + value.replace("'", "''") + "'");
+            } else {
+                inlined.append(unbound++ == 0 ? "21" : "0");
+            }
+        }
+        return inlined.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.test.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.domain.User;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.SequenceGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Integration tests of the id allocation of the entities, from their sequences.
+ */
+@IntegrationTest
+@Transactional
+class SequenceGeneratorIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Test
+    void allocationSizesMatchTheSequenceIncrements() {
+        for (Class<?> entity : List.of(Post.class, Blog.class, Tag.class, User.class)) {
+            SequenceGenerator generator = ReflectionUtils.findField(entity, "id").getAnnotation(SequenceGenerator.class);
+            // A smaller increment would hand out the same ids twice, a greater one would waste them
+            String increment = jdbcTemplate.queryForObject(
+                "select cast(increment as varchar(20)) from information_schema.sequences where lower(sequence_name) = ?",
+                String.class,
+                generator.sequenceName()
+            );
+            assertThat(Long.parseLong(increment)).as(entity.getSimpleName()).isEqualTo(generator.allocationSize());
+        }
+    }
+
+    @Test
+    void idsAreAllocatedInBlocks() {
+        List<Blog> blogs = blogRepository.saveAll(
+            Stream.of("blocks-1", "blocks-2", "blocks-3").map(handle -> new Blog().name(handle).handle(handle)).collect(Collectors.toList())
+        );
+
+        // Without round-trip to the sequence for each id, the ids follow each other, except at the end of a block
+        List<Long> ids = blogs.stream().map(Blog::getId).collect(Collectors.toList());
+        assertThat(ids.get(1) - ids.get(0) == 1 || ids.get(2) - ids.get(1) == 1).as("ids %s", ids).isTrue();
+    }
+}
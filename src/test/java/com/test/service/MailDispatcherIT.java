@@ -0,0 +1,264 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.config.ApplicationProperties;
+import com.test.domain.MailMessage;
+import com.test.domain.enumeration.MailStatus;
+import com.test.repository.MailMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import javax.mail.Multipart;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailDispatcher}, sending to a {@link LocalSmtpServer}.
+ */
+@IntegrationTest
+class MailDispatcherIT {
+
+    private static final String RECIPIENT = "john.doe@example.com";
+
+    private static final String REJECTED_RECIPIENT = "rejected@example.com";
+
+    @Autowired
+    private MailMessageRepository mailMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SchedulerCoordinator schedulerCoordinator;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private LocalSmtpServer smtpServer;
+
+    private JavaMailSenderImpl javaMailSender;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void init() throws IOException {
+        mailMessageRepository.deleteAll();
+        smtpServer = new LocalSmtpServer();
+        smtpServer.reject(REJECTED_RECIPIENT);
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("127.0.0.1");
+        javaMailSender.setPort(smtpServer.getPort());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailQueue().setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        mailDispatcher =
+            new MailDispatcher(
+                mailMessageRepository,
+                javaMailSender,
+                transactionManager,
+                Runnable::run,
+                jHipsterProperties,
+                applicationProperties,
+                schedulerCoordinator,
+                meterRegistry
+            );
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        smtpServer.close();
+        mailMessageRepository.deleteAll();
+    }
+
+    @Test
+    void dispatchSendsQueuedEmailsOverOneConnection() throws Exception {
+        queue(RECIPIENT, false, false);
+        queue(RECIPIENT, false, true);
+        queue(RECIPIENT, true, true);
+
+        mailDispatcher.dispatch();
+
+        List<MimeMessage> messages = smtpServer.takeMessages();
+        assertThat(messages).hasSize(3);
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        MimeMessage message = messages.get(0);
+        assertThat(message.getSubject()).isEqualTo("testSubject");
+        assertThat(message.getAllRecipients()[0]).hasToString(RECIPIENT);
+        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
+        assertThat(message.getContentType()).startsWith("text/plain");
+        assertThat(((String) message.getContent()).trim()).isEqualTo("testContent");
+        assertThat(messages.get(1).getContentType()).startsWith("text/html");
+        assertThat(messages.get(2).getContent()).isInstanceOf(Multipart.class);
+
+        assertThat(mailMessageRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.delivery").timer().count()).isEqualTo(3);
+        mailDispatcher.updateQueueMetrics();
+        assertThat(meterRegistry.get("mail.queue.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void dispatchRetriesRejectedEmailWithBackoff() {
+        queue(RECIPIENT, false, false);
+        MailMessage rejected = queue(REJECTED_RECIPIENT, false, false);
+
+        mailDispatcher.dispatch();
+
+        assertThat(smtpServer.takeMessages()).hasSize(1);
+        MailMessage retried = mailMessageRepository.findById(rejected.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(MailStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isNotBlank();
+        assertThat(retried.getNextAttemptDate())
+            .isAfter(Instant.now().plusSeconds(applicationProperties.getMailQueue().getInitialBackoffSeconds() - 10));
+        assertThat(meterRegistry.get("mail.failures").tag("outcome", "retried").counter().count()).isEqualTo(1);
+        mailDispatcher.updateQueueMetrics();
+        assertThat(meterRegistry.get("mail.queue.pending").gauge().value()).isEqualTo(1);
+
+        // Not due yet
+        mailDispatcher.dispatch();
+
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(mailMessageRepository.findById(rejected.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchGivesUpAfterMaxAttempts() {
+        MailMessage rejected = queue(REJECTED_RECIPIENT, false, false);
+        rejected.setAttempts(applicationProperties.getMailQueue().getMaxAttempts() - 1);
+        mailMessageRepository.save(rejected);
+
+        mailDispatcher.dispatch();
+
+        MailMessage failed = mailMessageRepository.findById(rejected.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(MailStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(applicationProperties.getMailQueue().getMaxAttempts());
+        assertThat(meterRegistry.get("mail.failures").tag("outcome", "abandoned").counter().count()).isEqualTo(1);
+        mailDispatcher.updateQueueMetrics();
+        assertThat(meterRegistry.get("mail.queue.failed").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchRetriesEmailsWhenServerIsUnavailable() throws IOException {
+        MailMessage queued = queue(RECIPIENT, false, false);
+        smtpServer.close();
+
+        mailDispatcher.dispatch();
+
+        MailMessage retried = mailMessageRepository.findById(queued.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(MailStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchSendsEmailsWhoseClaimExpired() {
+        // Claimed by a worker which died while sending them
+        MailMessage expired = newMail(RECIPIENT, false, false);
+        expired.setStatus(MailStatus.SENDING);
+        expired.setNextAttemptDate(Instant.now().minusSeconds(1));
+        expired = mailMessageRepository.save(expired);
+        MailMessage claimed = newMail(RECIPIENT, false, false);
+        claimed.setStatus(MailStatus.SENDING);
+        claimed.setNextAttemptDate(Instant.now().plusSeconds(applicationProperties.getMailQueue().getClaimSeconds()));
+        claimed = mailMessageRepository.save(claimed);
+
+        mailDispatcher.dispatch();
+
+        assertThat(smtpServer.takeMessages()).hasSize(1);
+        assertThat(mailMessageRepository.findById(expired.getId())).isEmpty();
+        assertThat(mailMessageRepository.findById(claimed.getId())).isPresent();
+        mailDispatcher.updateQueueMetrics();
+        assertThat(meterRegistry.get("mail.queue.pending").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchReturnsWithoutWaitingForTheWorkers() {
+        List<Runnable> workers = new ArrayList<>();
+        MailDispatcher queuingDispatcher = new MailDispatcher(
+            mailMessageRepository,
+            javaMailSender,
+            transactionManager,
+            workers::add,
+            jHipsterProperties,
+            applicationProperties,
+            schedulerCoordinator,
+            new SimpleMeterRegistry()
+        );
+        queue(RECIPIENT, false, false);
+
+        queuingDispatcher.dispatch();
+
+        assertThat(workers).hasSize(applicationProperties.getMailQueue().getWorkers());
+        assertThat(mailMessageRepository.count()).isEqualTo(1);
+
+        // The workers are still running
+        queuingDispatcher.dispatch();
+
+        assertThat(workers).hasSize(applicationProperties.getMailQueue().getWorkers());
+
+        workers.forEach(Runnable::run);
+        workers.clear();
+        assertThat(smtpServer.takeMessages()).hasSize(1);
+        queuingDispatcher.dispatch();
+
+        assertThat(workers).hasSize(applicationProperties.getMailQueue().getWorkers());
+    }
+
+    @Test
+    void dispatchDoesNothingWhenDisabled() {
+        applicationProperties.getMailQueue().setEnabled(false);
+        queue(RECIPIENT, false, false);
+
+        mailDispatcher.dispatch();
+
+        assertThat(smtpServer.getConnections()).isZero();
+        assertThat(mailMessageRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeDeletesOldFailedEmails() {
+        MailMessage failed = newMail(REJECTED_RECIPIENT, false, false);
+        failed.setStatus(MailStatus.FAILED);
+        failed.setCreatedDate(Instant.now().minus(applicationProperties.getMailQueue().getRetentionDays() + 1, ChronoUnit.DAYS));
+        failed = mailMessageRepository.save(failed);
+        MailMessage pending = queue(RECIPIENT, false, false);
+
+        mailDispatcher.purge();
+
+        assertThat(mailMessageRepository.findById(failed.getId())).isEmpty();
+        assertThat(mailMessageRepository.findById(pending.getId())).isPresent();
+    }
+
+    private MailMessage queue(String recipient, boolean multipart, boolean html) {
+        return mailMessageRepository.save(newMail(recipient, multipart, html));
+    }
+
+    private static MailMessage newMail(String recipient, boolean multipart, boolean html) {
+        Instant now = Instant.now();
+        MailMessage mailMessage = new MailMessage();
+        mailMessage.setRecipient(recipient);
+        mailMessage.setSubject("testSubject");
+        mailMessage.setContent("testContent");
+        mailMessage.setMultipart(multipart);
+        mailMessage.setHtml(html);
+        mailMessage.setStatus(MailStatus.PENDING);
+        mailMessage.setNextAttemptDate(now);
+        mailMessage.setCreatedDate(now);
+        return mailMessage;
+    }
+}
@@ -0,0 +1,203 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.test.IntegrationTest;
+import com.test.config.ApplicationProperties;
+import com.test.domain.MaintenanceJob;
+import com.test.repository.MaintenanceJobRepository;
+import com.test.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link MaintenanceService}.
+ */
+@IntegrationTest
+class MaintenanceServiceIT {
+
+    private static final String JOB = "maintenance-service-it";
+
+    @Autowired
+    private MaintenanceJobRepository maintenanceJobRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private SchedulerCoordinator schedulerCoordinator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final List<long[]> chunks = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MaintenanceService maintenanceService;
+
+    private long failAfterId = Long.MAX_VALUE;
+
+    @BeforeEach
+    void init() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getMaintenance().setChunkSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        maintenanceService =
+            new MaintenanceService(maintenanceJobRepository, schedulerCoordinator, transactionManager, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        maintenanceJobRepository.deleteById(JOB);
+        schedulerLeaseRepository.deleteById(JOB);
+    }
+
+    @Test
+    void runProcessesAllIdsInChunks() {
+        long processed = run(job(25));
+
+        assertThat(processed).isEqualTo(25);
+        assertThat(chunks).containsExactly(new long[] { 0, 10 }, new long[] { 10, 20 }, new long[] { 20, 25 });
+        MaintenanceJob state = maintenanceJobRepository.findById(JOB).orElseThrow();
+        assertThat(state.getLastId()).isZero();
+        assertThat(state.getLastCompletedDate()).isNotNull();
+        assertThat(meterRegistry.get("maintenance.rows").tag("job", JOB).counter().count()).isEqualTo(25);
+        assertThat(meterRegistry.get("maintenance.chunks").tag("job", JOB).timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("maintenance.remaining").tag("job", JOB).gauge().value()).isZero();
+    }
+
+    @Test
+    void runResumesAfterFailure() {
+        failAfterId = 10;
+
+        assertThatThrownBy(() -> run(job(25))).isInstanceOf(IllegalStateException.class);
+
+        MaintenanceJob state = maintenanceJobRepository.findById(JOB).orElseThrow();
+        assertThat(state.getLastId()).isEqualTo(10);
+
+        failAfterId = Long.MAX_VALUE;
+        chunks.clear();
+        long processed = run(job(25));
+
+        assertThat(processed).isEqualTo(15);
+        assertThat(chunks).containsExactly(new long[] { 10, 20 }, new long[] { 20, 25 });
+    }
+
+    @Test
+    void runResumesRunOfAnotherInstance() {
+        MaintenanceJob state = new MaintenanceJob();
+        state.setName(JOB);
+        state.setLastId(20);
+        maintenanceJobRepository.save(state);
+
+        assertThat(run(job(25))).isEqualTo(5);
+        assertThat(chunks).containsExactly(new long[] { 20, 25 });
+    }
+
+    @Test
+    void runRollsBackChunkWhenLeaseIsLost() {
+        BatchedMaintenanceJob job = job(25);
+        BatchedMaintenanceJob stolen = new BatchedMaintenanceJob() {
+            @Override
+            public String getName() {
+                return JOB;
+            }
+
+            @Override
+            public Optional<Long> findMaxId() {
+                return job.findMaxId();
+            }
+
+            @Override
+            public int processChunk(long fromId, long toId) {
+                takeOverLease();
+                return job.processChunk(fromId, toId);
+            }
+        };
+
+        assertThatThrownBy(() -> run(stolen)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(maintenanceJobRepository.findById(JOB).orElseThrow().getLastId()).isZero();
+    }
+
+    @Test
+    void runStopsWhenLeaseIsLost() {
+        BatchedMaintenanceJob job = job(25);
+
+        assertThatThrownBy(() ->
+                schedulerCoordinator.runExclusive(
+                    JOB,
+                    lease -> {
+                        takeOverLease();
+                        maintenanceService.run(job, lease);
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(chunks).isEmpty();
+    }
+
+    /**
+     * Acquire the lease of the job as another instance whose clock is ahead, in a transaction of its own.
+     */
+    private void takeOverLease() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Instant later = Instant.now().plusSeconds(applicationProperties.getScheduler().getMaxLockSeconds() + 60);
+        transactionTemplate.executeWithoutResult(status ->
+            schedulerLeaseRepository.acquire(JOB, "another-instance", later, later.plusSeconds(60))
+        );
+    }
+
+    /**
+     * @return the number of rows processed by the job, run under its lease.
+     */
+    private long run(BatchedMaintenanceJob job) {
+        AtomicLong processed = new AtomicLong(-1);
+        assertThat(schedulerCoordinator.runExclusive(JOB, lease -> processed.set(maintenanceService.run(job, lease)))).isTrue();
+        return processed.get();
+    }
+
+    /**
+     * @return a job counting the ids up to {@code maxId} as processed rows.
+     */
+    private BatchedMaintenanceJob job(long maxId) {
+        return new BatchedMaintenanceJob() {
+            @Override
+            public String getName() {
+                return JOB;
+            }
+
+            @Override
+            public Optional<Long> findMaxId() {
+                return Optional.of(maxId);
+            }
+
+            @Override
+            public int processChunk(long fromId, long toId) {
+                if (fromId >= failAfterId) {
+                    throw new IllegalStateException("Chunk failure");
+                }
+                chunks.add(new long[] { fromId, toId });
+                return (int) (toId - fromId);
+            }
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.config.ApplicationProperties;
+import com.test.domain.Blog;
+import com.test.domain.OutboxEvent;
+import com.test.domain.enumeration.OutboxEventType;
+import com.test.repository.OutboxEventRepository;
+import com.test.repository.OutboxOffsetRepository;
+import com.test.service.dto.OutboxSubscriberDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link OutboxRelay}.
+ */
+@IntegrationTest
+class OutboxRelayIT {
+
+    private static final String SUBSCRIBER = "outbox-relay-it";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SchedulerCoordinator schedulerCoordinator;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private BlogService blogService;
+
+    private final List<OutboxEvent> received = new ArrayList<>();
+
+    private final AtomicBoolean unavailable = new AtomicBoolean();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void init() {
+        OutboxSubscriber subscriber = new OutboxSubscriber() {
+            @Override
+            public String getName() {
+                return SUBSCRIBER;
+            }
+
+            @Override
+            public void onEvents(List<OutboxEvent> events) {
+                if (unavailable.get()) {
+                    throw new IllegalStateException("Subscriber unavailable");
+                }
+                received.addAll(events);
+            }
+        };
+        outboxRelay =
+            new OutboxRelay(
+                outboxEventRepository,
+                outboxOffsetRepository,
+                transactionManager,
+                List.of(subscriber),
+                new StaticListableBeanFactory().getBeanProvider(OutboxBroker.class),
+                applicationProperties,
+                schedulerCoordinator,
+                new SimpleMeterRegistry()
+            );
+        outboxRelay.createOffsets();
+        // Skip the events of the other tests
+        outboxRelay.replay(SUBSCRIBER, outboxEventRepository.findMaxId().orElse(0L));
+    }
+
+    @AfterEach
+    void cleanup() {
+        outboxOffsetRepository.deleteById(SUBSCRIBER);
+    }
+
+    @Test
+    void deliversTheChangesInOrderAtLeastOnce() {
+        // Not transactional: the events are committed by the service
+        Blog blog = blogService.save(new Blog().name("outbox").handle("outbox"));
+        // Changes nothing: keeps the version of the creation
+        blogService.partialUpdate(new Blog().id(blog.getId()).name("outbox"), null);
+        blogService.partialUpdate(new Blog().id(blog.getId()).name("outbox relay"), null);
+        blogService.delete(blog.getId());
+
+        unavailable.set(true);
+        outboxRelay.relay();
+        assertThat(received).isEmpty();
+
+        unavailable.set(false);
+        outboxRelay.relay();
+        assertThat(received.stream().map(OutboxEvent::getEventType).collect(Collectors.toList()))
+            .containsExactly(OutboxEventType.CREATED, OutboxEventType.UPDATED, OutboxEventType.UPDATED, OutboxEventType.DELETED);
+        assertThat(received).allSatisfy(event -> assertThat(event.getAggregateId()).isEqualTo(blog.getId()));
+        assertThat(received.get(0).getDedupKey()).isEqualTo("Blog:" + blog.getId() + ":CREATED:0");
+        assertThat(received.get(1).getDedupKey()).isEqualTo("Blog:" + blog.getId() + ":UPDATED:0");
+        assertThat(received.get(2).getDedupKey()).isEqualTo("Blog:" + blog.getId() + ":UPDATED:1");
+        assertThat(received.get(3).getDedupKey()).isEqualTo("Blog:" + blog.getId() + ":DELETED:1");
+
+        OutboxSubscriberDTO subscriber = outboxRelay.findAllSubscribers().get(0);
+        assertThat(subscriber.getLastEventId()).isEqualTo(received.get(3).getId());
+        assertThat(subscriber.getPendingEvents()).isZero();
+
+        // Replay from the first event
+        long firstEventId = received.get(0).getId();
+        received.clear();
+        outboxRelay.replay(SUBSCRIBER, firstEventId - 1);
+        outboxRelay.relay();
+        assertThat(received).extracting(OutboxEvent::getId).startsWith(firstEventId).hasSize(4);
+    }
+
+    @Test
+    void deliversToLocalSubscribersFromTheLastEventAtStartup() {
+        Blog blog = blogService.save(new Blog().name("outbox").handle("outbox-local"));
+        List<OutboxEvent> localReceived = new ArrayList<>();
+        OutboxSubscriber localSubscriber = new OutboxSubscriber() {
+            @Override
+            public String getName() {
+                return SUBSCRIBER + "-local";
+            }
+
+            @Override
+            public void onEvents(List<OutboxEvent> events) {
+                localReceived.addAll(events);
+            }
+
+            @Override
+            public boolean isLocal() {
+                return true;
+            }
+        };
+        OutboxRelay localRelay = new OutboxRelay(
+            outboxEventRepository,
+            outboxOffsetRepository,
+            transactionManager,
+            List.of(localSubscriber),
+            new StaticListableBeanFactory().getBeanProvider(OutboxBroker.class),
+            applicationProperties,
+            schedulerCoordinator,
+            new SimpleMeterRegistry()
+        );
+
+        // Nothing is delivered until the application is ready
+        localRelay.relay();
+        assertThat(localReceived).isEmpty();
+
+        localRelay.createOffsets();
+        blogService.delete(blog.getId());
+        localRelay.relay();
+        assertThat(localReceived).extracting(OutboxEvent::getDedupKey).containsExactly("Blog:" + blog.getId() + ":DELETED:0");
+        assertThat(outboxOffsetRepository.existsById(localSubscriber.getName())).isFalse();
+        assertThat(localRelay.findAllSubscribers().get(0).getLastEventId()).isEqualTo(localReceived.get(0).getId());
+    }
+}
@@ -0,0 +1,91 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests of the post counters of {@link Blog} and {@link Tag} read through the second-level cache, which the
+ * other tests disable: the blogs and tags stay cached when their counters change.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+class PostCounterCacheIT {
+
+    private static final Instant DATE = Instant.parse("2026-01-01T10:00:00Z");
+
+    private static final AtomicLong count = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private ETagService eTagService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+
+    private Blog blog;
+
+    private Tag tag;
+
+    private Post post;
+
+    @BeforeEach
+    void init() {
+        cache = entityManagerFactory.getCache();
+        blog = blogService.save(new Blog().name("Cached counters").handle("cached-counters-" + count.incrementAndGet()));
+        tag = tagService.save(new Tag().name("cached-" + count.incrementAndGet()));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (post != null) {
+            postService.delete(post.getId());
+        }
+        tagService.delete(tag.getId());
+        blogService.delete(blog.getId());
+    }
+
+    @Test
+    void readsCountersOfCachedBlogAndTag() {
+        assertThat(blogService.findOne(blog.getId()).orElseThrow().getPostCount()).isZero();
+        assertThat(tagService.findOne(tag.getId()).orElseThrow().getPostCount()).isZero();
+        assertThat(cache.contains(Blog.class, blog.getId())).isTrue();
+        assertThat(cache.contains(Tag.class, tag.getId())).isTrue();
+
+        post = postService.save(new Post().title("title").content("content").date(DATE).blog(blog).tags(new HashSet<>(Set.of(tag))));
+
+        assertThat(cache.contains(Blog.class, blog.getId())).isTrue();
+        assertThat(cache.contains(Tag.class, tag.getId())).isTrue();
+        Blog cachedBlog = blogService.findOne(blog.getId()).orElseThrow();
+        assertThat(cachedBlog.getPostCount()).isEqualTo(1);
+        assertThat(cachedBlog.getLastPostDate()).isEqualTo(DATE);
+        assertThat(eTagService.findBlogETag(blog.getId())).contains(eTagService.of(cachedBlog));
+        Tag cachedTag = tagService.findOne(tag.getId()).orElseThrow();
+        assertThat(cachedTag.getPostCount()).isEqualTo(1);
+        assertThat(eTagService.findTagETag(tag.getId())).contains(eTagService.of(cachedTag));
+    }
+}
@@ -0,0 +1,126 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link PostCounterService}.
+ */
+@IntegrationTest
+@Transactional
+class PostCounterServiceIT {
+
+    private static final Instant FIRST_DATE = Instant.parse("2026-01-01T10:00:00Z");
+    private static final Instant LATEST_DATE = Instant.parse("2026-02-01T10:00:00Z");
+
+    private static final AtomicLong count = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Blog blog;
+
+    private Blog otherBlog;
+
+    private Tag javaTag;
+
+    private Tag sqlTag;
+
+    @BeforeEach
+    public void init() {
+        blog = new Blog().name("Counters").handle("counters-" + count.incrementAndGet());
+        em.persist(blog);
+        otherBlog = new Blog().name("Other counters").handle("counters-" + count.incrementAndGet());
+        em.persist(otherBlog);
+        javaTag = new Tag().name("java-" + count.incrementAndGet());
+        em.persist(javaTag);
+        sqlTag = new Tag().name("sql-" + count.incrementAndGet());
+        em.persist(sqlTag);
+        em.flush();
+    }
+
+    @Test
+    void countsRetaggedPost() {
+        Post post = postService.save(newPost(blog, FIRST_DATE, javaTag));
+
+        Post update = newPost(blog, FIRST_DATE, sqlTag);
+        update.setId(post.getId());
+        postService.update(update, null);
+        em.clear();
+
+        assertThat(postCount(javaTag)).isZero();
+        assertThat(postCount(sqlTag)).isEqualTo(1);
+        assertThat(blogService.findOne(blog.getId()).orElseThrow().getPostCount()).isEqualTo(1);
+    }
+
+    @Test
+    void countsPostMovedToAnotherBlog() {
+        postService.save(newPost(blog, FIRST_DATE));
+        Post post = postService.save(newPost(blog, LATEST_DATE, javaTag));
+
+        Post update = newPost(otherBlog, LATEST_DATE, javaTag);
+        update.setId(post.getId());
+        postService.update(update, null);
+        em.clear();
+
+        Blog from = blogService.findOne(blog.getId()).orElseThrow();
+        assertThat(from.getPostCount()).isEqualTo(1);
+        assertThat(from.getLastPostDate()).isEqualTo(FIRST_DATE);
+        Blog to = blogService.findOne(otherBlog.getId()).orElseThrow();
+        assertThat(to.getPostCount()).isEqualTo(1);
+        assertThat(to.getLastPostDate()).isEqualTo(LATEST_DATE);
+        assertThat(postCount(javaTag)).isEqualTo(1);
+    }
+
+    @Test
+    void recomputeCountersRepairsDrift() {
+        postService.save(newPost(blog, FIRST_DATE, javaTag));
+        // Drift: posts written without their counters
+        em.persist(newPost(blog, LATEST_DATE, javaTag, sqlTag));
+        em.persist(newPost(otherBlog, FIRST_DATE, sqlTag));
+        em.flush();
+
+        postCounterService.recomputeCounters();
+        em.clear();
+
+        Blog repaired = blogService.findOne(blog.getId()).orElseThrow();
+        assertThat(repaired.getPostCount()).isEqualTo(2);
+        assertThat(repaired.getLastPostDate()).isEqualTo(LATEST_DATE);
+        assertThat(blogService.findOne(otherBlog.getId()).orElseThrow().getPostCount()).isEqualTo(1);
+        assertThat(postCount(javaTag)).isEqualTo(2);
+        assertThat(postCount(sqlTag)).isEqualTo(2);
+    }
+
+    private long postCount(Tag tag) {
+        return tagService.findOne(tag.getId()).orElseThrow().getPostCount();
+    }
+
+    private Post newPost(Blog blog, Instant date, Tag... tags) {
+        return new Post().title("title").content("content").date(date).blog(blog).tags(new HashSet<>(Set.of(tags)));
+    }
+}
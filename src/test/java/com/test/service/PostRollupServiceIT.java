@@ -0,0 +1,140 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.test.IntegrationTest;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.domain.Tag;
+import com.test.repository.BlogMonthRollupRepository;
+import com.test.repository.BlogTagRollupRepository;
+import com.test.service.dto.TagStatsDTO;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link PostRollupService}.
+ */
+@IntegrationTest
+@Transactional
+class PostRollupServiceIT {
+
+    private static final Instant JANUARY = Instant.parse("2026-01-31T23:59:59Z");
+    private static final Instant FEBRUARY = Instant.parse("2026-02-01T00:00:00Z");
+    private static final Instant MARCH = Instant.parse("2026-03-15T12:00:00Z");
+
+    private static final AtomicLong count = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRollupService postRollupService;
+
+    @Autowired
+    private BlogMonthRollupRepository blogMonthRollupRepository;
+
+    @Autowired
+    private BlogTagRollupRepository blogTagRollupRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Blog blog;
+
+    private Tag javaTag;
+
+    private Tag sqlTag;
+
+    @BeforeEach
+    public void init() {
+        blog = new Blog().name("Rollups").handle("rollups-" + count.incrementAndGet());
+        em.persist(blog);
+        javaTag = new Tag().name("java-" + count.incrementAndGet());
+        em.persist(javaTag);
+        sqlTag = new Tag().name("sql-" + count.incrementAndGet());
+        em.persist(sqlTag);
+        em.flush();
+    }
+
+    @Test
+    void maintainsRollupsFromPostWrites() {
+        Post first = postService.save(newPost(JANUARY, javaTag, sqlTag));
+        postService.save(newPost(FEBRUARY, javaTag));
+        Post third = postService.save(newPost(MARCH, javaTag));
+
+        assertThat(archive()).containsExactly("2026-3:1", "2026-2:1", "2026-1:1");
+        assertThat(topTags()).containsExactly(javaTag.getId() + ":3", sqlTag.getId() + ":1");
+
+        // Moved to February, without its java tag
+        Post update = newPost(FEBRUARY, sqlTag);
+        update.setId(first.getId());
+        postService.update(update, null);
+
+        assertThat(archive()).containsExactly("2026-3:1", "2026-2:2");
+        assertThat(topTags()).containsExactly(javaTag.getId() + ":2", sqlTag.getId() + ":1");
+
+        postService.delete(third.getId());
+
+        assertThat(archive()).containsExactly("2026-2:2");
+        // Ties are broken by tag id, the latest first
+        assertThat(postRollupService.findTopTags(blog.getId(), 1)).extracting(TagStatsDTO::getId).containsExactly(sqlTag.getId());
+    }
+
+    @Test
+    void findsNoArchiveOfNonExistingBlog() {
+        assertThat(postRollupService.findArchive(Long.MAX_VALUE)).isEmpty();
+        assertThat(postRollupService.findArchive(blog.getId())).contains(List.of());
+    }
+
+    @Test
+    void recomputesDriftedRollups() {
+        postService.save(newPost(JANUARY, javaTag));
+        postService.save(newPost(FEBRUARY, javaTag, sqlTag));
+        // Drift: a post written without its rollups, and wrong counts
+        em.persist(newPost(MARCH, sqlTag));
+        blogMonthRollupRepository.addToPostCount(blog.getId(), 2026, 1, 5);
+        blogTagRollupRepository.addToPostCount(blog.getId(), Set.of(javaTag.getId()), -2);
+        em.flush();
+        // The counts are updated in the database, not in the rollups of the persistence context
+        em.clear();
+
+        // The chunks join the transaction of the test, which only flushes the recomputed rollups when asked to
+        postRollupService.recomputeRollups();
+        em.flush();
+        em.clear();
+
+        assertThat(archive()).containsExactly("2026-3:1", "2026-2:1", "2026-1:1");
+        assertThat(topTags()).containsExactly(sqlTag.getId() + ":2", javaTag.getId() + ":2");
+    }
+
+    private Post newPost(Instant date, Tag... tags) {
+        return new Post().title("title").content("content").date(date).blog(blog).tags(new HashSet<>(Set.of(tags)));
+    }
+
+    private List<String> archive() {
+        return postRollupService
+            .findArchive(blog.getId())
+            .orElseThrow()
+            .stream()
+            .map(month -> month.getYear() + "-" + month.getMonth() + ":" + month.getPostCount())
+            .collect(Collectors.toList());
+    }
+
+    private List<String> topTags() {
+        return postRollupService
+            .findTopTags(blog.getId(), 10)
+            .stream()
+            .map(tag -> tag.getId() + ":" + tag.getPostCount())
+            .collect(Collectors.toList());
+    }
+}
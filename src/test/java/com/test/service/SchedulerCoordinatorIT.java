@@ -0,0 +1,191 @@
+package com.test.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.test.IntegrationTest;
+import com.test.config.ApplicationProperties;
+import com.test.domain.JobRun;
+import com.test.domain.enumeration.JobRunStatus;
+import com.test.repository.JobRunRepository;
+import com.test.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link SchedulerCoordinator}, with two coordinators standing for two instances of the
+ * application.
+ */
+@IntegrationTest
+class SchedulerCoordinatorIT {
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private SchedulerCoordinator coordinator;
+
+    private SchedulerCoordinator otherCoordinator;
+
+    private String job;
+
+    @BeforeEach
+    void init() {
+        applicationProperties = new ApplicationProperties();
+        coordinator = newCoordinator();
+        otherCoordinator = newCoordinator();
+        job = "scheduler-coordinator-it-" + System.nanoTime();
+    }
+
+    @AfterEach
+    void resign() {
+        coordinator.resign();
+        otherCoordinator.resign();
+    }
+
+    @Test
+    void runExclusiveRunsJobOnceAcrossInstances() {
+        List<String> runs = new ArrayList<>();
+
+        assertThat(coordinator.runExclusive(job, () -> runs.add("first"))).isTrue();
+        // Firing late, within the minimum lock
+        assertThat(otherCoordinator.runExclusive(job, () -> runs.add("second"))).isFalse();
+
+        assertThat(runs).containsExactly("first");
+        List<JobRun> jobRuns = jobRunRepository.findByJobOrderByIdAsc(job);
+        assertThat(jobRuns).hasSize(1);
+        assertThat(jobRuns.get(0).getStatus()).isEqualTo(JobRunStatus.SUCCEEDED);
+        assertThat(jobRuns.get(0).getOwner()).isEqualTo(coordinator.getOwner());
+        assertThat(jobRuns.get(0).getDurationMs()).isNotNull();
+    }
+
+    @Test
+    void runExclusiveSkipsJobRunningOnAnotherInstance() {
+        applicationProperties.getScheduler().setMinLockSeconds(0);
+        AtomicBoolean otherRan = new AtomicBoolean();
+
+        coordinator.runExclusive(job, () -> otherRan.set(otherCoordinator.runExclusive(job, () -> {})));
+
+        assertThat(otherRan).isFalse();
+        assertThat(otherCoordinator.runExclusive(job, () -> {})).isTrue();
+    }
+
+    @Test
+    void runExclusiveRecordsFailureAndReleasesLease() {
+        assertThatThrownBy(() ->
+                coordinator.runExclusive(
+                    job,
+                    () -> {
+                        throw new IllegalStateException("Job failure");
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+
+        List<JobRun> jobRuns = jobRunRepository.findByJobOrderByIdAsc(job);
+        assertThat(jobRuns).hasSize(1);
+        assertThat(jobRuns.get(0).getStatus()).isEqualTo(JobRunStatus.FAILED);
+        assertThat(jobRuns.get(0).getError()).contains("Job failure");
+        assertThat(otherCoordinator.runExclusive(job, () -> {})).isTrue();
+    }
+
+    @Test
+    void renewFailsOnceAnotherInstanceAcquiredTheLease() {
+        applicationProperties.getScheduler().setMaxLockSeconds(0);
+        List<Long> tokens = new ArrayList<>();
+        AtomicBoolean renewed = new AtomicBoolean(true);
+
+        coordinator.runExclusive(
+            job,
+            lease -> {
+                tokens.add(lease.getToken());
+                sleep();
+                // The lease expired: the other instance takes it over, with a greater token
+                otherCoordinator.runExclusive(job, otherLease -> tokens.add(otherLease.getToken()));
+                renewed.set(coordinator.renew(lease));
+            }
+        );
+
+        assertThat(tokens).hasSize(2);
+        assertThat(tokens.get(1)).isGreaterThan(tokens.get(0));
+        assertThat(renewed).isFalse();
+    }
+
+    @Test
+    void runShardedSplitsKeysAcrossShards() {
+        applicationProperties.getScheduler().getShards().put(job, 4);
+        List<JobLease> leases = new ArrayList<>();
+
+        assertThat(coordinator.runSharded(job, 100, leases::add)).isEqualTo(4);
+
+        leases.sort((first, second) -> Long.compare(first.getFromKey(), second.getFromKey()));
+        assertThat(leases).extracting(JobLease::getFromKey).containsExactly(0L, 25L, 50L, 75L);
+        assertThat(leases).extracting(JobLease::getToKey).containsExactly(25L, 50L, 75L, 100L);
+        assertThat(leases).extracting(JobLease::getName).containsExactlyInAnyOrder(job + "-0", job + "-1", job + "-2", job + "-3");
+        // All the shards ran
+        assertThat(otherCoordinator.runSharded(job, 100, leases::add)).isZero();
+    }
+
+    @Test
+    void runShardedCoversKeysUpToMaxKeyWithOneShard() {
+        List<JobLease> leases = new ArrayList<>();
+
+        assertThat(coordinator.runSharded(job, 100, leases::add)).isEqualTo(1);
+
+        assertThat(leases).extracting(JobLease::getName).containsExactly(job);
+        assertThat(leases).extracting(JobLease::getFromKey).containsExactly(0L);
+        assertThat(leases).extracting(JobLease::getToKey).containsExactly(100L);
+    }
+
+    @Test
+    void leaderElection() {
+        coordinator.renewLeadership();
+        otherCoordinator.renewLeadership();
+
+        assertThat(coordinator.isLeader()).isTrue();
+        assertThat(otherCoordinator.isLeader()).isFalse();
+
+        coordinator.renewLeadership();
+        assertThat(coordinator.isLeader()).isTrue();
+
+        coordinator.resign();
+        otherCoordinator.renewLeadership();
+
+        assertThat(coordinator.isLeader()).isFalse();
+        assertThat(otherCoordinator.isLeader()).isTrue();
+        assertThat(schedulerLeaseRepository.findTokenByNameAndOwner(SchedulerCoordinator.LEADER, otherCoordinator.getOwner()))
+            .isPresent();
+    }
+
+    private SchedulerCoordinator newCoordinator() {
+        return new SchedulerCoordinator(
+            schedulerLeaseRepository,
+            jobRunRepository,
+            transactionManager,
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.test.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * A service traced by {@code LoggingAspectTest}: the aspect only advises the beans of the application packages.
+ */
+@Service
+public class TracedTestService {
+
+    public String echo(String text, String password) {
+        return text;
+    }
+
+    public Object identity(Object value) {
+        return value;
+    }
+
+    public void fail() {
+        throw new IllegalStateException("Failure");
+    }
+}
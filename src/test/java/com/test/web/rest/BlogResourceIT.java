@@ -2,11 +2,14 @@ package com.test.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import com.test.IntegrationTest;
 import com.test.domain.Blog;
+import com.test.domain.Post;
 import com.test.domain.User;
 import com.test.repository.BlogRepository;
 import com.test.service.criteria.BlogCriteria;
@@ -14,13 +17,17 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -182,6 +189,92 @@ class BlogResourceIT {
             .andExpect(jsonPath("$.handle").value(DEFAULT_HANDLE));
     }
 
+    @Test
+    @Transactional
+    void getBlogPostCounters() throws Exception {
+        // Initialize the database
+        blogRepository.saveAndFlush(blog);
+        Post post = PostResourceIT.createEntity(em).blog(blog);
+        MvcResult result = restBlogMockMvc
+            .perform(post("/api/posts").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(post)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        Long postId = JsonPath.<Number>read(result.getResponse().getContentAsString(), "$.id").longValue();
+        // The counters are updated in the database, not in the blog of the persistence context
+        em.clear();
+
+        restBlogMockMvc
+            .perform(get(ENTITY_API_URL_ID, blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.postCount").value(1))
+            .andExpect(jsonPath("$.lastPostDate").value(post.getDate().toString()));
+
+        // Delete the post
+        restBlogMockMvc.perform(delete("/api/posts/{id}", postId)).andExpect(status().isNoContent());
+        em.clear();
+
+        restBlogMockMvc
+            .perform(get(ENTITY_API_URL_ID, blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.postCount").value(0))
+            .andExpect(jsonPath("$.lastPostDate").value(nullValue()));
+    }
+
+    @Test
+    @Transactional
+    void getBlogArchive() throws Exception {
+        // Initialize the database
+        blogRepository.saveAndFlush(blog);
+        Post post = PostResourceIT.createEntity(em).blog(blog);
+        for (int i = 0; i < 2; i++) {
+            restBlogMockMvc
+                .perform(post("/api/posts").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(post)))
+                .andExpect(status().isCreated());
+        }
+
+        restBlogMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/archive", blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].year").value(1970))
+            .andExpect(jsonPath("$.[0].month").value(1))
+            .andExpect(jsonPath("$.[0].postCount").value(2));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingBlogArchive() throws Exception {
+        restBlogMockMvc.perform(get(ENTITY_API_URL_ID + "/archive", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getAllBlogsWithCountModes() throws Exception {
+        // Initialize the database
+        blogRepository.saveAndFlush(blog);
+        blogRepository.saveAndFlush(createUpdatedEntity(em));
+
+        String filter = ENTITY_API_URL + "?sort=id,desc&size=1&id.greaterThanOrEqual=" + blog.getId();
+        for (String count : List.of("exact", "cached", "estimated")) {
+            restBlogMockMvc
+                .perform(get(filter + "&count=" + count))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(header().doesNotExist("X-Total-Count-Estimated"));
+        }
+
+        // The table is too small for an estimate
+        restBlogMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=1&count=estimated"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().doesNotExist("X-Total-Count-Estimated"));
+
+        restBlogMockMvc.perform(get(ENTITY_API_URL + "?count=approximate")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getBlogsByIdFiltering() throws Exception {
@@ -428,6 +521,27 @@ class BlogResourceIT {
         restBlogMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getBlogNotModified() throws Exception {
+        // Initialize the database
+        blogRepository.saveAndFlush(blog);
+
+        String eTag = restBlogMockMvc
+            .perform(get(ENTITY_API_URL_ID, blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the blog again, with its ETag
+        restBlogMockMvc
+            .perform(get(ENTITY_API_URL_ID, blog.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
     @Test
     @Transactional
     void putNewBlog() throws Exception {
@@ -458,20 +572,49 @@ class BlogResourceIT {
         assertThat(testBlog.getHandle()).isEqualTo(UPDATED_HANDLE);
     }
 
+    @Test
+    @Transactional
+    void putBlogWithStaleETag() throws Exception {
+        // Initialize the database
+        blogRepository.saveAndFlush(blog);
+
+        int databaseSizeBeforeUpdate = blogRepository.findAll().size();
+
+        // Update the blog, with the ETag of a version that is not the current one
+        Blog updatedBlog = blogRepository.findById(blog.getId()).get();
+        em.detach(updatedBlog);
+        updatedBlog.name(UPDATED_NAME);
+
+        restBlogMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedBlog.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (blog.getVersion() + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedBlog))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Blog in the database
+        List<Blog> blogList = blogRepository.findAll();
+        assertThat(blogList).hasSize(databaseSizeBeforeUpdate);
+        Blog testBlog = blogList.get(blogList.size() - 1);
+        assertThat(testBlog.getVersion()).isEqualTo(blog.getVersion());
+    }
+
     @Test
     @Transactional
     void putNonExistingBlog() throws Exception {
         int databaseSizeBeforeUpdate = blogRepository.findAll().size();
         blog.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restBlogMockMvc
             .perform(
                 put(ENTITY_API_URL_ID, blog.getId())
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(TestUtil.convertObjectToJsonBytes(blog))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the Blog in the database
         List<Blog> blogList = blogRepository.findAll();
@@ -574,20 +717,78 @@ class BlogResourceIT {
         assertThat(testBlog.getHandle()).isEqualTo(UPDATED_HANDLE);
     }
 
+    @Test
+    void partialUpdateBlogInPlace() throws Exception {
+        // Not transactional: the update must be committed by the request
+        blogRepository.saveAndFlush(blog);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            Blog partialUpdatedBlog = new Blog().name(UPDATED_NAME);
+            partialUpdatedBlog.setId(blog.getId());
+            statistics.clear();
+            restBlogMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedBlog.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedBlog))
+                )
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+
+            // One update of the blog, one insert of its outbox event: the blog is not read
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            Blog testBlog = blogRepository.findById(blog.getId()).orElseThrow();
+            assertThat(testBlog.getName()).isEqualTo(UPDATED_NAME);
+            assertThat(testBlog.getHandle()).isEqualTo(DEFAULT_HANDLE);
+            assertThat(testBlog.getVersion()).isEqualTo(blog.getVersion() + 1);
+
+            partialUpdatedBlog.setName("ab");
+            restBlogMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedBlog.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedBlog))
+                )
+                .andExpect(status().isBadRequest());
+
+            partialUpdatedBlog.name(UPDATED_NAME).setId(count.incrementAndGet());
+            statistics.clear();
+            restBlogMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedBlog.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedBlog))
+                )
+                .andExpect(status().isNotFound());
+
+            // The count of updated rows tells that the blog does not exist
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            blogRepository.deleteById(blog.getId());
+        }
+    }
+
     @Test
     @Transactional
     void patchNonExistingBlog() throws Exception {
         int databaseSizeBeforeUpdate = blogRepository.findAll().size();
         blog.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restBlogMockMvc
             .perform(
                 patch(ENTITY_API_URL_ID, blog.getId())
                     .contentType("application/merge-patch+json")
                     .content(TestUtil.convertObjectToJsonBytes(blog))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the Blog in the database
         List<Blog> blogList = blogRepository.findAll();
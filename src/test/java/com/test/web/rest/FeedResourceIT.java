@@ -0,0 +1,198 @@
+package com.test.web.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.test.IntegrationTest;
+import com.test.domain.Blog;
+import com.test.domain.Post;
+import com.test.repository.BlogRepository;
+import com.test.service.BlogService;
+import com.test.service.PostService;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link FeedResource} REST controller, as an anonymous feed reader.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class FeedResourceIT {
+
+    private static final Instant FIRST_DATE = Instant.parse("2026-01-01T10:00:00Z");
+    private static final Instant LATEST_DATE = Instant.parse("2026-02-01T10:00:00Z");
+
+    private static final AtomicLong count = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restFeedMockMvc;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private PostService postService;
+
+    private Blog blog;
+
+    @BeforeEach
+    public void initTest() {
+        // The feeds are kept in memory by handle, beyond the rolled back transactions of the tests
+        blog = new Blog().name("Feed <blog>").handle("feed-" + count.incrementAndGet());
+    }
+
+    @Test
+    @Transactional
+    void getAtomFeed() throws Exception {
+        createPosts();
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.atom", blog.getHandle()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/atom+xml"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, LATEST_DATE.toEpochMilli()))
+            .andExpect(content().string(containsString("<title>Feed &lt;blog></title>")))
+            .andExpect(content().string(containsString("<updated>2026-02-01T10:00:00Z</updated>")))
+            // Latest first
+            .andExpect(content().string(containsString("<title>Latest post</title><id>")))
+            .andExpect(content().string(containsString("</entry><entry><title>First post</title>")));
+    }
+
+    @Test
+    @Transactional
+    void getRssFeedGzipped() throws Exception {
+        createPosts();
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.rss", blog.getHandle()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/rss+xml"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.rss", blog.getHandle()).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string(containsString("<pubDate>Sun, 1 Feb 2026 10:00:00 GMT</pubDate>")))
+            .andExpect(content().string(not(containsString("<feed"))));
+    }
+
+    @Test
+    @Transactional
+    void getFeedNotModified() throws Exception {
+        createPosts();
+
+        MvcResult result = restFeedMockMvc.perform(get("/feeds/blogs/{handle}.atom", blog.getHandle())).andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.atom", blog.getHandle()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.atom", blog.getHandle()).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.atom", blog.getHandle()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getFeedModifiedByEditOfPost() throws Exception {
+        // Not transactional: the feed is evicted once the edit is committed
+        blogService.save(blog);
+        Post post = postService.save(new Post().title("Post").content("Content").date(LATEST_DATE).blog(blog));
+        try {
+            MockHttpServletResponse response = restFeedMockMvc
+                .perform(get("/feeds/blogs/{handle}.atom", blog.getHandle()))
+                .andReturn()
+                .getResponse();
+
+            postService.partialUpdate(new Post().id(post.getId()).content("Edited content"), null);
+
+            // The edit changes no post date, but the ETag, which takes precedence
+            restFeedMockMvc
+                .perform(
+                    get("/feeds/blogs/{handle}.atom", blog.getHandle())
+                        .header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, response.getHeader(HttpHeaders.LAST_MODIFIED))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Edited content")));
+        } finally {
+            postService.delete(post.getId());
+            blogService.delete(blog.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getFeedOfBlogWithoutPosts() throws Exception {
+        em.persist(blog);
+        em.flush();
+
+        restFeedMockMvc
+            .perform(get("/feeds/blogs/{handle}.rss", blog.getHandle()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+            .andExpect(content().string(not(containsString("<item>"))));
+    }
+
+    @Test
+    @Transactional
+    void getFeedOfNonExistingBlog() throws Exception {
+        restFeedMockMvc.perform(get("/feeds/blogs/{handle}.atom", blog.getHandle())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getFeedOfBlogCreatedAfterNotFound() throws Exception {
+        // Not transactional: the handles without a blog are remembered beyond the transactions
+        restFeedMockMvc.perform(get("/feeds/blogs/{handle}.atom", blog.getHandle())).andExpect(status().isNotFound());
+        blogRepository.save(blog);
+        try {
+            // Remembered as having no blog, without querying the database
+            restFeedMockMvc.perform(get("/feeds/blogs/{handle}.atom", blog.getHandle())).andExpect(status().isNotFound());
+
+            blogService.partialUpdate(new Blog().id(blog.getId()).name("Renamed feed"), null);
+
+            restFeedMockMvc
+                .perform(get("/feeds/blogs/{handle}.atom", blog.getHandle()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<title>Renamed feed</title>")));
+        } finally {
+            blogService.delete(blog.getId());
+        }
+    }
+
+    private void createPosts() {
+        em.persist(blog);
+        em.persist(new Post().title("First post").content("First content").date(FIRST_DATE).blog(blog));
+        em.persist(new Post().title("Latest post").content("Latest content").date(LATEST_DATE).blog(blog));
+        em.flush();
+    }
+}
@@ -1,25 +1,36 @@
 package com.test.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import com.test.IntegrationTest;
 import com.test.domain.Blog;
 import com.test.domain.Post;
 import com.test.domain.Tag;
 import com.test.repository.PostRepository;
+import com.test.repository.TagRepository;
+import com.test.service.BlogService;
+import com.test.service.OutboxRelay;
 import com.test.service.PostService;
+import com.test.service.TagService;
 import com.test.service.criteria.PostCriteria;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,9 +40,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Base64Utils;
 
@@ -62,6 +75,21 @@ class PostResourceIT {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
     @Mock
     private PostRepository postRepositoryMock;
 
@@ -121,6 +149,39 @@ class PostResourceIT {
         assertThat(testPost.getDate()).isEqualTo(DEFAULT_DATE);
     }
 
+    @Test
+    @Transactional
+    void importPosts() throws Exception {
+        Tag tag = TagResourceIT.createEntity(em);
+        em.persist(tag);
+        em.flush();
+        int databaseSizeBeforeImport = postRepository.findAll().size();
+        String validLine = "{\"title\":\"" + DEFAULT_TITLE + "\",\"content\":\"" + DEFAULT_CONTENT + "\",\"date\":\"" + DEFAULT_DATE + "\"";
+        String body = String.join(
+            "\n",
+            validLine + ",\"tags\":[{\"id\":" + tag.getId() + "}]}",
+            "{\"title\":",
+            "{\"content\":\"" + DEFAULT_CONTENT + "\",\"date\":\"" + DEFAULT_DATE + "\"}",
+            validLine + ",\"blog\":{\"id\":" + Long.MAX_VALUE + "}}",
+            "",
+            validLine + "}"
+        );
+
+        restPostMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType("application/x-ndjson").content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(3))
+            .andExpect(jsonPath("$.errors.[*].line").value(contains(2, 3, 4)));
+
+        // Validate the Posts in the database
+        List<Post> postList = postRepository.findAll();
+        assertThat(postList).hasSize(databaseSizeBeforeImport + 2);
+        assertThat(postList).extracting(Post::getTitle).containsOnly(DEFAULT_TITLE);
+        assertThat(postRepository.findOneWithEagerRelationships(postList.get(postList.size() - 2).getId()))
+            .hasValueSatisfying(imported -> assertThat(imported.getTags()).containsExactly(tag));
+    }
+
     @Test
     @Transactional
     void createPostWithExistingId() throws Exception {
@@ -181,12 +242,13 @@ class PostResourceIT {
 
         // Get all the postList
         restPostMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&excerptLength=" + DEFAULT_CONTENT.length()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(post.getId().intValue())))
             .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)))
-            .andExpect(jsonPath("$.[*].content").value(hasItem(DEFAULT_CONTENT.toString())))
+            .andExpect(jsonPath("$.[*].content").doesNotExist())
+            .andExpect(jsonPath("$.[*].excerpt").value(hasItem(DEFAULT_CONTENT.toString())))
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
     }
 
@@ -425,17 +487,239 @@ class PostResourceIT {
         defaultPostShouldNotBeFound("tagId.equals=" + (tagId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllPostsByTagIsInSeveralTagsOfThePost() throws Exception {
+        Blog blog = BlogResourceIT.createEntity(em);
+        em.persist(blog);
+        Tag tag = TagResourceIT.createEntity(em);
+        em.persist(tag);
+        Tag otherTag = TagResourceIT.createEntity(em);
+        em.persist(otherTag);
+        postRepository.saveAndFlush(post.blog(blog).addTag(tag).addTag(otherTag));
+        String filter = "blogId.equals=" + blog.getId() + "&tagId.in=" + tag.getId() + "," + otherTag.getId();
+
+        // The post is joined once per tag, and the blog of the filter is the blog of the summaries
+        defaultPostShouldBeFound(filter);
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].blog.name").value(blog.getName()))
+            .andExpect(jsonPath("$.[0].tags.length()").value(2));
+    }
+
+    @Test
+    @Transactional
+    void getAllPostsAsSummaries() throws Exception {
+        // Initialize the database
+        Blog blog = BlogResourceIT.createEntity(em);
+        em.persist(blog);
+        Tag tag = TagResourceIT.createEntity(em);
+        em.persist(tag);
+        post.setBlog(blog);
+        post.addTag(tag);
+        postRepository.saveAndFlush(post);
+
+        // Without excerpt, the content is not returned at all
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals=" + post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(post.getId().intValue()))
+            .andExpect(jsonPath("$.[0].content").doesNotExist())
+            .andExpect(jsonPath("$.[0].excerpt").doesNotExist())
+            .andExpect(jsonPath("$.[0].blog.id").value(blog.getId().intValue()))
+            .andExpect(jsonPath("$.[0].blog.name").value(blog.getName()))
+            .andExpect(jsonPath("$.[0].tags.[*].name").value(contains(tag.getName())));
+
+        // A shorter excerpt is truncated
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL + "?excerptLength=3&id.equals=" + post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].excerpt").value(DEFAULT_CONTENT.substring(0, 3) + "\u2026"));
+    }
+
+    @Test
+    void searchPosts() throws Exception {
+        // Not transactional: the index is updated from the outbox, once the creation is committed
+        String word = uniqueWord("searchable");
+        post.content("The first words. Then " + word + " appears in the second sentence.");
+        MvcResult result = restPostMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(post)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        Long id = JsonPath.<Number>read(result.getResponse().getContentAsString(), "$.id").longValue();
+        outboxRelay.relay();
+
+        try {
+            // Search the post
+            restPostMockMvc
+                .perform(get("/api/_search/posts?q=" + word))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$.[0].id").value(id.intValue()))
+                .andExpect(jsonPath("$.[0].title").value(DEFAULT_TITLE))
+                .andExpect(jsonPath("$.[0].highlights.content").value(containsString("<mark>" + word + "</mark>")));
+        } finally {
+            restPostMockMvc.perform(delete(ENTITY_API_URL_ID, id)).andExpect(status().isNoContent());
+        }
+
+        // The deleted post is not found anymore
+        outboxRelay.relay();
+        restPostMockMvc
+            .perform(get("/api/_search/posts?q=" + word))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "0"));
+    }
+
+    @Test
+    void searchPostsByNewNamesOfBlogAndTag() throws Exception {
+        // Not transactional: the index is updated from the outbox, once the renames are committed
+        String blogWord = uniqueWord("renamedblog");
+        String tagWord = uniqueWord("renamedtag");
+        Blog blog = blogService.save(new Blog().name("Blog").handle("search-" + count.incrementAndGet()));
+        Tag tag = tagService.save(new Tag().name("tag" + count.incrementAndGet()));
+        Post saved = postService.save(
+            new Post().title("title").content("content").date(DEFAULT_DATE).blog(blog).tags(new HashSet<>(Set.of(tag)))
+        );
+
+        try {
+            blogService.partialUpdate(new Blog().id(blog.getId()).name(blogWord), null);
+            tagService.partialUpdate(new Tag().id(tag.getId()).name(tagWord), null);
+            outboxRelay.relay();
+
+            restPostMockMvc
+                .perform(get("/api/_search/posts?q=" + blogWord))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(saved.getId().intValue())));
+            restPostMockMvc
+                .perform(get("/api/_search/posts?q=" + tagWord))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(saved.getId().intValue())));
+        } finally {
+            postService.delete(saved.getId());
+            tagService.delete(tag.getId());
+            blogService.delete(blog.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllPostsWithCursor() throws Exception {
+        // Initialize the database: two posts share the same date, so the id breaks the tie
+        Post older = postRepository.saveAndFlush(createEntity(em));
+        Post newer = postRepository.saveAndFlush(createEntity(em).date(UPDATED_DATE));
+        Post newest = postRepository.saveAndFlush(createEntity(em).date(UPDATED_DATE));
+        String filter = "id.in=" + older.getId() + "," + newer.getId() + "," + newest.getId();
+
+        // Get the first slice
+        MvcResult result = restPostMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&size=2&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(contains(newest.getId().intValue(), newer.getId().intValue())))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).isNotNull().endsWith("; rel=\"next\"").contains(filter);
+
+        // Follow the next link to get the last slice
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restPostMockMvc
+            .perform(get(next))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(contains(older.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void exportPosts() throws Exception {
+        // Initialize the database
+        postRepository.saveAndFlush(post);
+        Post other = postRepository.saveAndFlush(createEntity(em).title("with, \"quotes\""));
+        String filter = "id.in=" + post.getId() + "," + other.getId();
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(
+                content()
+                    .string(
+                        "{\"id\":" +
+                        post.getId() +
+                        ",\"title\":\"" +
+                        DEFAULT_TITLE +
+                        "\",\"content\":\"" +
+                        DEFAULT_CONTENT +
+                        "\",\"date\":\"" +
+                        DEFAULT_DATE +
+                        "\",\"blog\":null}\n" +
+                        "{\"id\":" +
+                        other.getId() +
+                        ",\"title\":\"with, \\\"quotes\\\"\",\"content\":\"" +
+                        DEFAULT_CONTENT +
+                        "\",\"date\":\"" +
+                        DEFAULT_DATE +
+                        "\",\"blog\":null}\n"
+                    )
+            );
+
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?format=csv&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(
+                content()
+                    .string(
+                        "id,title,content,date,blog_id,blog_name\r\n" +
+                        post.getId() +
+                        "," +
+                        DEFAULT_TITLE +
+                        "," +
+                        DEFAULT_CONTENT +
+                        "," +
+                        DEFAULT_DATE +
+                        ",,\r\n" +
+                        other.getId() +
+                        ",\"with, \"\"quotes\"\"\"," +
+                        DEFAULT_CONTENT +
+                        "," +
+                        DEFAULT_DATE +
+                        ",,\r\n"
+                    )
+            );
+
+        restPostMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllPostsWithInvalidCursor() throws Exception {
+        restPostMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * A word which the full-text search indexes as a single token: the count may be negative, and a minus sign splits it.
+     */
+    private static String uniqueWord(String prefix) {
+        return prefix + Math.abs(count.incrementAndGet());
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
     private void defaultPostShouldBeFound(String filter) throws Exception {
         restPostMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&excerptLength=" + DEFAULT_CONTENT.length() + "&" + filter))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(post.getId().intValue())))
             .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)))
-            .andExpect(jsonPath("$.[*].content").value(hasItem(DEFAULT_CONTENT.toString())))
+            .andExpect(jsonPath("$.[*].excerpt").value(hasItem(DEFAULT_CONTENT.toString())))
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
 
         // Check, that the count call also returns 1
@@ -472,6 +756,27 @@ class PostResourceIT {
         restPostMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getPostNotModified() throws Exception {
+        // Initialize the database
+        postRepository.saveAndFlush(post);
+
+        String eTag = restPostMockMvc
+            .perform(get(ENTITY_API_URL_ID, post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the post again, with its ETag
+        restPostMockMvc
+            .perform(get(ENTITY_API_URL_ID, post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
     @Test
     @Transactional
     void putNewPost() throws Exception {
@@ -503,20 +808,142 @@ class PostResourceIT {
         assertThat(testPost.getDate()).isEqualTo(UPDATED_DATE);
     }
 
+    @Test
+    @Transactional
+    void putPostWithStaleETag() throws Exception {
+        // Initialize the database
+        postRepository.saveAndFlush(post);
+
+        int databaseSizeBeforeUpdate = postRepository.findAll().size();
+
+        // Update the post, with the ETag of a version that is not the current one
+        Post updatedPost = postRepository.findById(post.getId()).get();
+        em.detach(updatedPost);
+        updatedPost.title(UPDATED_TITLE);
+
+        restPostMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPost.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (post.getVersion() + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPost))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Post in the database
+        List<Post> postList = postRepository.findAll();
+        assertThat(postList).hasSize(databaseSizeBeforeUpdate);
+        Post testPost = postList.get(postList.size() - 1);
+        assertThat(testPost.getVersion()).isEqualTo(post.getVersion());
+    }
+
+    @Test
+    void updatePostInOneRoundTrip() throws Exception {
+        // Not transactional: the post must be read by the request, not found in the test's persistence context
+        Tag tag = tagRepository.saveAndFlush(TagResourceIT.createEntity(em));
+        postRepository.saveAndFlush(post.addTag(tag));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            Post updatedPost = new Post().title(UPDATED_TITLE).content(UPDATED_CONTENT).date(UPDATED_DATE).addTag(tag);
+            updatedPost.setId(post.getId());
+            statistics.clear();
+            restPostMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, updatedPost.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(updatedPost))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+            // One select of the post with its blog and tags, one update of the post, one insert of its outbox event
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+            Post partialUpdatedPost = new Post().title(DEFAULT_TITLE);
+            partialUpdatedPost.setId(post.getId());
+            statistics.clear();
+            restPostMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedPost.getId())
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPost))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            restPostMockMvc.perform(delete(ENTITY_API_URL_ID, post.getId())).andExpect(status().isNoContent());
+            tagRepository.deleteById(tag.getId());
+        }
+    }
+
+    @Test
+    void partialUpdatePostInPlace() throws Exception {
+        // Not transactional: the update must be committed by the request
+        postRepository.saveAndFlush(post);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            Post partialUpdatedPost = new Post().title(UPDATED_TITLE);
+            partialUpdatedPost.setId(post.getId());
+            statistics.clear();
+            restPostMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedPost.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPost))
+                )
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+
+            // One update of the post, one insert of its outbox event: the post is not read
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            Post testPost = postRepository.findById(post.getId()).orElseThrow();
+            assertThat(testPost.getTitle()).isEqualTo(UPDATED_TITLE);
+            assertThat(testPost.getContent()).isEqualTo(DEFAULT_CONTENT);
+            assertThat(testPost.getVersion()).isEqualTo(post.getVersion() + 1);
+
+            partialUpdatedPost.setId(count.incrementAndGet());
+            statistics.clear();
+            restPostMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedPost.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPost))
+                )
+                .andExpect(status().isNotFound());
+
+            // The count of updated rows tells that the post does not exist
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            restPostMockMvc.perform(delete(ENTITY_API_URL_ID, post.getId())).andExpect(status().isNoContent());
+        }
+    }
+
     @Test
     @Transactional
     void putNonExistingPost() throws Exception {
         int databaseSizeBeforeUpdate = postRepository.findAll().size();
         post.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restPostMockMvc
             .perform(
                 put(ENTITY_API_URL_ID, post.getId())
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(TestUtil.convertObjectToJsonBytes(post))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the Post in the database
         List<Post> postList = postRepository.findAll();
@@ -625,14 +1052,14 @@ class PostResourceIT {
         int databaseSizeBeforeUpdate = postRepository.findAll().size();
         post.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restPostMockMvc
             .perform(
                 patch(ENTITY_API_URL_ID, post.getId())
                     .contentType("application/merge-patch+json")
                     .content(TestUtil.convertObjectToJsonBytes(post))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the Post in the database
         List<Post> postList = postRepository.findAll();
@@ -1,26 +1,34 @@
 package com.test.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import com.test.IntegrationTest;
+import com.test.domain.Blog;
 import com.test.domain.Post;
 import com.test.domain.Tag;
 import com.test.repository.TagRepository;
+import com.test.service.PostRollupService;
 import com.test.service.criteria.TagCriteria;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -159,6 +167,108 @@ class TagResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @Transactional
+    void getTagStats() throws Exception {
+        // Initialize the database
+        tagRepository.saveAndFlush(tag);
+        Post post = PostResourceIT.createEntity(em).addTag(tag);
+        restTagMockMvc
+            .perform(post("/api/posts").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(post)))
+            .andExpect(status().isCreated());
+
+        // Get the stats of all the tags
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_stats?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[?(@.id == " + tag.getId() + ")].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[?(@.id == " + tag.getId() + ")].postCount").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getTopTags() throws Exception {
+        // Initialize the database
+        tagRepository.saveAndFlush(tag);
+        Blog blog = BlogResourceIT.createEntity(em);
+        em.persist(blog);
+        Post post = PostResourceIT.createEntity(em).blog(blog).addTag(tag);
+        restTagMockMvc
+            .perform(post("/api/posts").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(post)))
+            .andExpect(status().isCreated());
+
+        // Get the top tags of the blog
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_top?blogId=" + blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(tag.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].postCount").value(1));
+
+        // Get the top tags of all the blogs
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_top?limit=" + PostRollupService.MAX_LIMIT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == " + tag.getId() + ")].postCount").value(1));
+    }
+
+    @Test
+    void suggestTags() throws Exception {
+        // Not transactional: the suggestions are updated once the changes are committed
+        String prefix = "Suggest" + count.incrementAndGet();
+        Long appleId = createTag(prefix + "Apple");
+        Long apricotId = createTag(prefix + "Ápricot");
+        Tag apricot = new Tag();
+        apricot.setId(apricotId);
+        Post post = PostResourceIT.createEntity(em).addTag(apricot);
+        MvcResult result = restTagMockMvc
+            .perform(post("/api/posts").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(post)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        Long postId = JsonPath.<Number>read(result.getResponse().getContentAsString(), "$.id").longValue();
+
+        try {
+            // Suggest the tags, ignoring case and diacritics, the most used first
+            restTagMockMvc
+                .perform(get(ENTITY_API_URL + "/_suggest?prefix=" + prefix.toLowerCase() + "ap"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(contains(apricotId.intValue(), appleId.intValue())))
+                .andExpect(jsonPath("$.[0].usage").value(1))
+                .andExpect(jsonPath("$.[1].usage").value(0));
+
+            restTagMockMvc
+                .perform(get(ENTITY_API_URL + "/_suggest?prefix=" + prefix + "apr&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].name").value(contains(prefix + "Ápricot")));
+        } finally {
+            restTagMockMvc.perform(delete("/api/posts/{id}", postId)).andExpect(status().isNoContent());
+            restTagMockMvc.perform(delete(ENTITY_API_URL_ID, appleId)).andExpect(status().isNoContent());
+            restTagMockMvc.perform(delete(ENTITY_API_URL_ID, apricotId)).andExpect(status().isNoContent());
+        }
+
+        // Deleted tags are not suggested anymore
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest?prefix=" + prefix))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    private Long createTag(String name) throws Exception {
+        MvcResult result = restTagMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new Tag().name(name)))
+            )
+            .andExpect(status().isCreated())
+            .andReturn();
+        return JsonPath.<Number>read(result.getResponse().getContentAsString(), "$.id").longValue();
+    }
+
     @Test
     @Transactional
     void getTagsByIdFiltering() throws Exception {
@@ -326,6 +436,27 @@ class TagResourceIT {
         restTagMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getTagNotModified() throws Exception {
+        // Initialize the database
+        tagRepository.saveAndFlush(tag);
+
+        String eTag = restTagMockMvc
+            .perform(get(ENTITY_API_URL_ID, tag.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the tag again, with its ETag
+        restTagMockMvc
+            .perform(get(ENTITY_API_URL_ID, tag.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
     @Test
     @Transactional
     void putNewTag() throws Exception {
@@ -355,18 +486,47 @@ class TagResourceIT {
         assertThat(testTag.getName()).isEqualTo(UPDATED_NAME);
     }
 
+    @Test
+    @Transactional
+    void putTagWithStaleETag() throws Exception {
+        // Initialize the database
+        tagRepository.saveAndFlush(tag);
+
+        int databaseSizeBeforeUpdate = tagRepository.findAll().size();
+
+        // Update the tag, with the ETag of a version that is not the current one
+        Tag updatedTag = tagRepository.findById(tag.getId()).get();
+        em.detach(updatedTag);
+        updatedTag.name(UPDATED_NAME);
+
+        restTagMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedTag.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (tag.getVersion() + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedTag))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Tag in the database
+        List<Tag> tagList = tagRepository.findAll();
+        assertThat(tagList).hasSize(databaseSizeBeforeUpdate);
+        Tag testTag = tagList.get(tagList.size() - 1);
+        assertThat(testTag.getVersion()).isEqualTo(tag.getVersion());
+    }
+
     @Test
     @Transactional
     void putNonExistingTag() throws Exception {
         int databaseSizeBeforeUpdate = tagRepository.findAll().size();
         tag.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restTagMockMvc
             .perform(
                 put(ENTITY_API_URL_ID, tag.getId()).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(tag))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the Tag in the database
         List<Tag> tagList = tagRepository.findAll();
@@ -467,20 +627,77 @@ class TagResourceIT {
         assertThat(testTag.getName()).isEqualTo(UPDATED_NAME);
     }
 
+    @Test
+    void partialUpdateTagInPlace() throws Exception {
+        // Not transactional: the update must be committed by the request
+        tagRepository.saveAndFlush(tag);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            Tag partialUpdatedTag = new Tag().name(UPDATED_NAME);
+            partialUpdatedTag.setId(tag.getId());
+            statistics.clear();
+            restTagMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedTag.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedTag))
+                )
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+
+            // One update of the tag, one insert of its outbox event: the tag is not read
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            Tag testTag = tagRepository.findById(tag.getId()).orElseThrow();
+            assertThat(testTag.getName()).isEqualTo(UPDATED_NAME);
+            assertThat(testTag.getVersion()).isEqualTo(tag.getVersion() + 1);
+
+            partialUpdatedTag.setName("a");
+            restTagMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedTag.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedTag))
+                )
+                .andExpect(status().isBadRequest());
+
+            partialUpdatedTag.name(UPDATED_NAME).setId(count.incrementAndGet());
+            statistics.clear();
+            restTagMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedTag.getId())
+                        .header("Prefer", "return=minimal")
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedTag))
+                )
+                .andExpect(status().isNotFound());
+
+            // The count of updated rows tells that the tag does not exist
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            tagRepository.deleteById(tag.getId());
+        }
+    }
+
     @Test
     @Transactional
     void patchNonExistingTag() throws Exception {
         int databaseSizeBeforeUpdate = tagRepository.findAll().size();
         tag.setId(count.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        // If the entity doesn't exist, it is not found
         restTagMockMvc
             .perform(
                 patch(ENTITY_API_URL_ID, tag.getId())
                     .contentType("application/merge-patch+json")
                     .content(TestUtil.convertObjectToJsonBytes(tag))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the Tag in the database
         List<Tag> tagList = tagRepository.findAll();